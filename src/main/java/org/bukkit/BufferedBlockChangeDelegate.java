@@ -0,0 +1,279 @@
+package org.bukkit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * A delegate which records block changes instead of making them, until they are committed to another delegate.
+ * <p />
+ * Changes are kept per chunk and section, and a block changed several times is only set once, to its last value.
+ * Blocks are read from the buffer if they were changed, and from the target otherwise. If the target is a
+ * {@link BulkBlockChangeDelegate}, every chunk is committed in a single call and lighting is only updated at the end.
+ * <p />
+ * This class is not thread safe.
+ */
+public class BufferedBlockChangeDelegate implements BlockChangeDelegate {
+    private static final int SECTION_SIZE = 16 * 16 * 16;
+
+    private final BlockChangeDelegate target;
+    private final int height;
+    private final Map<Long, ChunkChanges> chunks = new LinkedHashMap<Long, ChunkChanges>();
+    private int changeCount = 0;
+
+    private static final class ChunkChanges {
+        private final int x;
+        private final int z;
+        private final char[][] blocks;
+        // One bit per block of each section, set if the block was changed
+        private final long[][] changed;
+        private int count = 0;
+
+        private ChunkChanges(int x, int z, int sections) {
+            this.x = x;
+            this.z = z;
+            this.blocks = new char[sections][];
+            this.changed = new long[sections][];
+        }
+    }
+
+    /**
+     * Creates a buffer for changes to the given delegate
+     *
+     * @param target Delegate to read unchanged blocks from and commit changes to
+     */
+    public BufferedBlockChangeDelegate(BlockChangeDelegate target) {
+        Validate.notNull(target, "Target cannot be null");
+
+        this.target = target;
+        this.height = target.getHeight();
+    }
+
+    /**
+     * Gets the delegate changes are committed to
+     *
+     * @return The target delegate
+     */
+    public BlockChangeDelegate getTarget() {
+        return target;
+    }
+
+    /**
+     * Records a change of a block type, with a data value of 0
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param z Z coordinate
+     * @param typeId New block ID
+     * @return true, unless the Y coordinate is outside of the world
+     */
+    public boolean setRawTypeId(int x, int y, int z, int typeId) {
+        return setRawTypeIdAndData(x, y, z, typeId, 0);
+    }
+
+    /**
+     * Records a change of a block type and data
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param z Z coordinate
+     * @param typeId New block ID, 0-4095
+     * @param data Block data, 0-15
+     * @return true, unless the Y coordinate is outside of the world
+     */
+    public boolean setRawTypeIdAndData(int x, int y, int z, int typeId, int data) {
+        Validate.isTrue(typeId >= 0 && typeId < 4096, "Type ID must be between 0 and 4095");
+        Validate.isTrue(data >= 0 && data < 16, "Data must be between 0 and 15");
+
+        if (y < 0 || y >= height) {
+            return false;
+        }
+
+        ChunkChanges chunk = getChunk(x >> 4, z >> 4, true);
+        int section = y >> 4;
+
+        if (chunk.blocks[section] == null) {
+            chunk.blocks[section] = new char[SECTION_SIZE];
+            chunk.changed[section] = new long[SECTION_SIZE / 64];
+        }
+
+        int index = getIndex(x, y, z);
+        long bit = 1L << index;
+        long[] changed = chunk.changed[section];
+
+        if ((changed[index >> 6] & bit) == 0) {
+            changed[index >> 6] |= bit;
+            chunk.count++;
+            changeCount++;
+        }
+        chunk.blocks[section][index] = (char) (typeId << 4 | data);
+        return true;
+    }
+
+    /**
+     * Gets the block type at the location, including changes which were not committed yet
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param z Z coordinate
+     * @return The block ID
+     */
+    public int getTypeId(int x, int y, int z) {
+        int block = getChangedBlock(x, y, z);
+        return block < 0 ? target.getTypeId(x, y, z) : block >> 4;
+    }
+
+    /**
+     * Gets the block data at the location, if it was changed and not committed yet
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param z Z coordinate
+     * @return The block data, or -1 if the block was not changed
+     */
+    public int getChangedData(int x, int y, int z) {
+        int block = getChangedBlock(x, y, z);
+        return block < 0 ? -1 : block & 15;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isEmpty(int x, int y, int z) {
+        int block = getChangedBlock(x, y, z);
+        return block < 0 ? target.isEmpty(x, y, z) : block >> 4 == 0;
+    }
+
+    /**
+     * Gets the amount of blocks changed since the last commit
+     *
+     * @return Amount of changed blocks
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Gets the amount of chunks with blocks changed since the last commit
+     *
+     * @return Amount of changed chunks
+     */
+    public int getChangedChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Forgets every change made since the last commit
+     */
+    public void discard() {
+        chunks.clear();
+        changeCount = 0;
+    }
+
+    /**
+     * Makes every recorded change on the target, one chunk at a time, and clears the buffer
+     *
+     * @return Amount of blocks which were set successfully
+     */
+    public int commit() {
+        int[] positions = new int[0];
+        char[] blocks = new char[0];
+        int set = 0;
+
+        try {
+            for (ChunkChanges chunk : chunks.values()) {
+                if (positions.length < chunk.count) {
+                    positions = new int[chunk.count];
+                    blocks = new char[chunk.count];
+                }
+
+                int count = collect(chunk, positions, blocks);
+
+                if (target instanceof BulkBlockChangeDelegate) {
+                    set += ((BulkBlockChangeDelegate) target).setBlocks(chunk.x, chunk.z, positions, blocks, count);
+                    continue;
+                }
+
+                for (int i = 0; i < count; i++) {
+                    int position = positions[i];
+                    int x = chunk.x << 4 | position & 15;
+                    int z = chunk.z << 4 | (position >> 4) & 15;
+
+                    if (target.setRawTypeIdAndData(x, position >> 8, z, blocks[i] >> 4, blocks[i] & 15)) {
+                        set++;
+                    }
+                }
+            }
+        } finally {
+            discard();
+
+            if (target instanceof BulkBlockChangeDelegate) {
+                ((BulkBlockChangeDelegate) target).finishChanges();
+            }
+        }
+
+        return set;
+    }
+
+    private static int collect(ChunkChanges chunk, int[] positions, char[] blocks) {
+        int count = 0;
+
+        for (int section = 0; section < chunk.blocks.length; section++) {
+            long[] changed = chunk.changed[section];
+
+            if (changed == null) {
+                continue;
+            }
+
+            for (int word = 0; word < changed.length; word++) {
+                long bits = changed[word];
+
+                while (bits != 0) {
+                    int index = word << 6 | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+
+                    positions[count] = section << 12 | index;
+                    blocks[count] = chunk.blocks[section][index];
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int getChangedBlock(int x, int y, int z) {
+        if (y < 0 || y >= height) {
+            return -1;
+        }
+
+        ChunkChanges chunk = getChunk(x >> 4, z >> 4, false);
+        int section = y >> 4;
+
+        if (chunk == null || chunk.changed[section] == null) {
+            return -1;
+        }
+
+        int index = getIndex(x, y, z);
+        if ((chunk.changed[section][index >> 6] & (1L << index)) == 0) {
+            return -1;
+        }
+        return chunk.blocks[section][index];
+    }
+
+    private ChunkChanges getChunk(int chunkX, int chunkZ, boolean create) {
+        Long key = (long) chunkX << 32 | (chunkZ & 0xFFFFFFFFL);
+        ChunkChanges chunk = chunks.get(key);
+
+        if (chunk == null && create) {
+            chunk = new ChunkChanges(chunkX, chunkZ, (height + 15) >> 4);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    private static int getIndex(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | x & 15;
+    }
+}
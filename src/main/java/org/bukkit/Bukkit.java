@@ -1,6 +1,7 @@
 package org.bukkit;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -126,6 +127,10 @@ public final class Bukkit {
         return server.matchPlayer(name);
     }
 
+    public static List<Player> matchPlayerPrefix(String prefix) {
+        return server.matchPlayerPrefix(prefix);
+    }
+
     public static PluginManager getPluginManager() {
         return server.getPluginManager();
     }
@@ -242,6 +247,10 @@ public final class Bukkit {
         return server.broadcast(message, permission);
     }
 
+    public static void sendMessage(Collection<? extends CommandSender> recipients, String message) {
+        server.sendMessage(recipients, message);
+    }
+
     public static OfflinePlayer getOfflinePlayer(String name) {
         return server.getOfflinePlayer(name);
     }
@@ -326,6 +335,18 @@ public final class Bukkit {
         return server.getOfflinePlayers();
     }
 
+    public static List<OfflinePlayer> getOfflinePlayers(int offset, int limit) {
+        return server.getOfflinePlayers(offset, limit);
+    }
+
+    public static int getOfflinePlayerCount() {
+        return server.getOfflinePlayerCount();
+    }
+
+    public static List<OfflinePlayer> matchOfflinePlayerPrefix(String prefix, int limit) {
+        return server.matchOfflinePlayerPrefix(prefix, limit);
+    }
+
     public static Inventory createInventory(InventoryHolder owner, InventoryType type) {
         return server.createInventory(owner, type);
     }
@@ -0,0 +1,31 @@
+package org.bukkit;
+
+/**
+ * A delegate which can change many blocks of a chunk at once, deferring lighting updates and notifying players
+ * until the changes are finished.
+ *
+ * @see BufferedBlockChangeDelegate
+ */
+public interface BulkBlockChangeDelegate extends BlockChangeDelegate {
+
+    /**
+     * Sets many blocks of a chunk at once. Lighting and players are not updated until {@link #finishChanges()}.
+     * <p />
+     * Each position is (y &lt;&lt; 8) | (z &lt;&lt; 4) | x, relative to the chunk, and each block is
+     * (type ID &lt;&lt; 4) | data. Positions are unique and in ascending order.
+     *
+     * @param chunkX X coordinate of the chunk
+     * @param chunkZ Z coordinate of the chunk
+     * @param positions Positions of the blocks
+     * @param blocks Types and data of the blocks
+     * @param count Amount of blocks to set, starting at the beginning of both arrays
+     * @return Amount of blocks which were set successfully
+     */
+    public int setBlocks(int chunkX, int chunkZ, int[] positions, char[] blocks, int count);
+
+    /**
+     * Updates the lighting of every chunk changed by {@link #setBlocks(int, int, int[], char[], int)} and sends the
+     * changes to players.
+     */
+    public void finishChanges();
+}
@@ -0,0 +1,16 @@
+package org.bukkit;
+
+/**
+ * Receives a chunk once it was loaded asynchronously
+ *
+ * @see World#loadChunkAsync(int, int, boolean, ChunkLoadCallback)
+ */
+public interface ChunkLoadCallback {
+
+    /**
+     * Called on the main thread once the chunk was loaded
+     *
+     * @param chunk The loaded chunk, or null if it did not exist and was not allowed to be generated
+     */
+    public void onChunkLoad(Chunk chunk);
+}
@@ -0,0 +1,338 @@
+package org.bukkit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Queue of chunks waiting to be loaded asynchronously, closest first.
+ * <p />
+ * Several requests for the same chunk are merged into a single load, which uses the priority of the closest request
+ * and generates the chunk if any of them allowed it. Implementations of
+ * {@link World#loadChunkAsync(int, int, boolean, ChunkLoadCallback)} may add requests from any thread, take them
+ * from {@link #poll()} on their I/O threads, and pass the loaded chunks to {@link #complete(Request, Chunk)} on the
+ * main thread.
+ * <p />
+ * A request for a chunk which is already being loaded shares the result of that load, unless it allows generating the
+ * chunk while that load does not. Such requests are held back until the load completes, and are queued again to
+ * generate the chunk if it turned out not to exist.
+ */
+public class ChunkLoadQueue {
+    /**
+     * Largest radius accepted by {@link #requestRadius(int, int, int, boolean, ChunkLoadCallback)}
+     */
+    public static final int MAX_RADIUS = 256;
+
+    private static final Callable<Chunk> NO_RESULT = new Callable<Chunk>() {
+        public Chunk call() {
+            return null;
+        }
+    };
+
+    private final Map<Long, Request> requests = new HashMap<Long, Request>();
+    private final TreeSet<Request> pending = new TreeSet<Request>();
+    private long sequence = 0;
+
+    private static final class LoadFuture extends FutureTask<Chunk> {
+        private LoadFuture() {
+            super(NO_RESULT);
+        }
+
+        @Override
+        protected void set(Chunk chunk) {
+            super.set(chunk);
+        }
+
+        @Override
+        protected void setException(Throwable cause) {
+            super.setException(cause);
+        }
+    }
+
+    /**
+     * A chunk waiting to be loaded, with everyone who asked for it
+     */
+    public static final class Request implements Comparable<Request> {
+        private final int x;
+        private final int z;
+        private final List<LoadFuture> futures = new ArrayList<LoadFuture>();
+        private final List<ChunkLoadCallback> callbacks = new ArrayList<ChunkLoadCallback>();
+        private boolean generate;
+        private int distance;
+        private long order;
+        private boolean loading = false;
+        private Request followUp = null;
+
+        private Request(int x, int z) {
+            this.x = x;
+            this.z = z;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getZ() {
+            return z;
+        }
+
+        /**
+         * Checks if the chunk should be generated when it does not exist yet
+         *
+         * @return true if any request allowed generating the chunk
+         */
+        public boolean isGenerate() {
+            return generate;
+        }
+
+        /**
+         * Gets the priority of this request, lower values being loaded first
+         *
+         * @return Squared distance of the closest request, in chunks
+         */
+        public int getDistance() {
+            return distance;
+        }
+
+        private boolean isCancelled() {
+            if (!callbacks.isEmpty()) {
+                return false;
+            }
+
+            for (LoadFuture future : futures) {
+                if (!future.isCancelled()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public int compareTo(Request other) {
+            if (distance != other.distance) {
+                return distance < other.distance ? -1 : 1;
+            }
+            return order < other.order ? -1 : order > other.order ? 1 : 0;
+        }
+    }
+
+    /**
+     * Requests a chunk to be loaded
+     *
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     * @param generate Whether to generate the chunk if it does not exist yet
+     * @param distance Priority of the request, lower values being loaded first
+     * @param callback Callback to call on the main thread once the chunk is loaded, or null
+     * @return Future which completes with the chunk, or null if it does not exist and was not generated
+     */
+    public synchronized Future<Chunk> request(int x, int z, boolean generate, int distance, ChunkLoadCallback callback) {
+        Validate.isTrue(distance >= 0, "Distance cannot be negative");
+
+        Long key = getKey(x, z);
+        Request request = requests.get(key);
+
+        if (request == null) {
+            request = new Request(x, z);
+            request.generate = generate;
+            request.distance = distance;
+            request.order = sequence++;
+            requests.put(key, request);
+            pending.add(request);
+        } else if (!request.loading) {
+            // The request has to be removed while its ordering changes
+            pending.remove(request);
+            request.generate |= generate;
+            request.distance = Math.min(request.distance, distance);
+            pending.add(request);
+        } else if (generate && !request.generate) {
+            // The running load will not generate the chunk, so collect the requests which need it in a second load
+            if (request.followUp == null) {
+                request.followUp = new Request(x, z);
+                request.followUp.generate = true;
+                request.followUp.distance = distance;
+            } else {
+                request.followUp.distance = Math.min(request.followUp.distance, distance);
+            }
+            request = request.followUp;
+        }
+
+        LoadFuture future = new LoadFuture();
+        request.futures.add(future);
+        if (callback != null) {
+            request.callbacks.add(callback);
+        }
+        return future;
+    }
+
+    /**
+     * Requests every chunk within a radius to be loaded, closest to the center first
+     *
+     * @param centerX X coordinate of the center chunk
+     * @param centerZ Z coordinate of the center chunk
+     * @param radius Radius in chunks, at most {@link #MAX_RADIUS}
+     * @param generate Whether to generate chunks which do not exist yet
+     * @param callback Callback to call on the main thread once each chunk is loaded, or null
+     * @return Futures of every chunk, ordered by distance to the center
+     */
+    public synchronized List<Future<Chunk>> requestRadius(int centerX, int centerZ, int radius, boolean generate, ChunkLoadCallback callback) {
+        Validate.isTrue(radius >= 0, "Radius cannot be negative");
+        Validate.isTrue(radius <= MAX_RADIUS, "Radius cannot be greater than " + MAX_RADIUS);
+
+        // Sort the offsets first, so requests with the same distance are made in a stable order
+        int diameter = radius * 2 + 1;
+        long[] offsets = new long[diameter * diameter];
+        int count = 0;
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                int distance = dx * dx + dz * dz;
+                if (distance <= radius * radius) {
+                    offsets[count++] = (long) distance << 32 | (long) (dx + radius) << 16 | (dz + radius);
+                }
+            }
+        }
+        Arrays.sort(offsets, 0, count);
+
+        List<Future<Chunk>> futures = new ArrayList<Future<Chunk>>(count);
+        for (int i = 0; i < count; i++) {
+            long offset = offsets[i];
+            int dx = (int) (offset >> 16 & 0xFFFF) - radius;
+            int dz = (int) (offset & 0xFFFF) - radius;
+            futures.add(request(centerX + dx, centerZ + dz, generate, (int) (offset >>> 32), callback));
+        }
+        return futures;
+    }
+
+    /**
+     * Takes the closest chunk which is not being loaded yet. Chunks whose futures were all cancelled are skipped.
+     *
+     * @return The chunk to load, or null if there is none
+     */
+    public synchronized Request poll() {
+        while (!pending.isEmpty()) {
+            Request request = pending.first();
+            pending.remove(request);
+
+            if (request.isCancelled()) {
+                requests.remove(getKey(request.x, request.z));
+                continue;
+            }
+
+            request.loading = true;
+            return request;
+        }
+        return null;
+    }
+
+    /**
+     * Completes every request for a chunk, calling their callbacks. Must be called on the main thread.
+     * <p />
+     * If the chunk does not exist and requests which allow generating it arrived while it was being loaded, those
+     * are queued again instead of being completed.
+     *
+     * @param request The request taken from {@link #poll()}
+     * @param chunk The loaded chunk, or null if it does not exist and was not generated
+     */
+    public void complete(Request request, Chunk chunk) {
+        Request followUp = remove(request, chunk == null);
+
+        setResult(request, chunk);
+        if (followUp != null) {
+            setResult(followUp, chunk);
+        }
+    }
+
+    private void setResult(Request request, Chunk chunk) {
+        for (LoadFuture future : request.futures) {
+            future.set(chunk);
+        }
+        for (ChunkLoadCallback callback : request.callbacks) {
+            callback.onChunkLoad(chunk);
+        }
+    }
+
+    /**
+     * Fails every request for a chunk. Their callbacks are not called.
+     *
+     * @param request The request taken from {@link #poll()}
+     * @param cause Why the chunk could not be loaded
+     */
+    public void fail(Request request, Throwable cause) {
+        Validate.notNull(cause, "Cause cannot be null");
+        Request followUp = remove(request, false);
+
+        for (LoadFuture future : request.futures) {
+            future.setException(cause);
+        }
+        if (followUp != null) {
+            for (LoadFuture future : followUp.futures) {
+                future.setException(cause);
+            }
+        }
+    }
+
+    /**
+     * Checks if a chunk is waiting to be loaded or being loaded
+     *
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     * @return true if the chunk was requested and not completed yet
+     */
+    public synchronized boolean isRequested(int x, int z) {
+        return requests.containsKey(getKey(x, z));
+    }
+
+    /**
+     * Gets the amount of chunks which are waiting to be taken by {@link #poll()}
+     *
+     * @return Amount of pending chunks
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Gets the amount of chunks which were requested and not completed yet
+     *
+     * @return Amount of requested chunks
+     */
+    public synchronized int getRequestCount() {
+        return requests.size();
+    }
+
+    /**
+     * Removes a request which was being loaded
+     *
+     * @param request The request taken from {@link #poll()}
+     * @param retry Whether to queue the requests which need the chunk to be generated instead of returning them
+     * @return The requests which arrived during the load and need the chunk to be generated, or null if there are
+     *         none or they were queued
+     */
+    private synchronized Request remove(Request request, boolean retry) {
+        Validate.notNull(request, "Request cannot be null");
+        Long key = getKey(request.x, request.z);
+        Validate.isTrue(request.loading && requests.get(key) == request, "Request is not being loaded");
+
+        Request followUp = request.followUp;
+        if (followUp != null && retry) {
+            followUp.order = sequence++;
+            requests.put(key, followUp);
+            pending.add(followUp);
+            return null;
+        }
+
+        requests.remove(key);
+        return followUp;
+    }
+
+    private static long getKey(int x, int z) {
+        return (long) x << 32 | (z & 0xFFFFFFFFL);
+    }
+}
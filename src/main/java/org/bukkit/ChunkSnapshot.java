@@ -1,5 +1,7 @@
 package org.bukkit;
 
+import java.nio.CharBuffer;
+
 import org.bukkit.block.Biome;
 
 /**
@@ -118,4 +120,58 @@ public interface ChunkSnapshot {
      * @return true if empty, false if not
      */
     boolean isSectionEmpty(int sy);
+
+    /**
+     * Gets the amount of sections in this chunk, each 16 blocks high
+     *
+     * @return Amount of sections
+     */
+    int getSectionCount();
+
+    /**
+     * Gets the section Y coordinates of every section which is not empty, in ascending order
+     *
+     * @return Section Y coordinates (block Y / 16)
+     */
+    int[] getNonEmptySections();
+
+    /**
+     * Gets a read-only view of the blocks in a section, without copying them.
+     * <p />
+     * Each block is stored as (type ID &lt;&lt; 4) | data, at index (y &amp; 15) &lt;&lt; 8 | z &lt;&lt; 4 | x.
+     *
+     * @param sy - section Y coordinate (block Y / 16)
+     * @return Read-only buffer of 4096 blocks, or null if the section is empty
+     */
+    CharBuffer getSectionBlocks(int sy);
+
+    /**
+     * Copies the blocks in a section into an array, in the format of {@link #getSectionBlocks(int)}.
+     * Empty sections are copied as air.
+     *
+     * @param sy - section Y coordinate (block Y / 16)
+     * @param destination Array to copy the 4096 blocks into
+     * @param offset Index in the array to copy the first block to
+     */
+    void copySectionBlocks(int sy, char[] destination, int offset);
+
+    /**
+     * Copies the sky light levels in a section into an array, one 0-15 value per block, using the same order as
+     * {@link #getSectionBlocks(int)}
+     *
+     * @param sy - section Y coordinate (block Y / 16)
+     * @param destination Array to copy the 4096 light levels into
+     * @param offset Index in the array to copy the first light level to
+     */
+    void copySectionSkyLight(int sy, byte[] destination, int offset);
+
+    /**
+     * Copies the light levels emitted by the blocks in a section into an array, one 0-15 value per block, using the
+     * same order as {@link #getSectionBlocks(int)}
+     *
+     * @param sy - section Y coordinate (block Y / 16)
+     * @param destination Array to copy the 4096 light levels into
+     * @param offset Index in the array to copy the first light level to
+     */
+    void copySectionEmittedLight(int sy, byte[] destination, int offset);
 }
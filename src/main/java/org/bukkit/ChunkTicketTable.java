@@ -0,0 +1,210 @@
+package org.bukkit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Keep-loaded tickets of the chunks of a world, counted per plugin, where checking if a chunk may unload takes a
+ * single lookup. Callers synchronize access themselves.
+ */
+public class ChunkTicketTable {
+    /**
+     * Largest radius accepted by {@link #add(Plugin, int, int, int)} and {@link #remove(Plugin, int, int, int)}
+     */
+    public static final int MAX_RADIUS = 256;
+
+    private final Map<Long, Integer> totals = new HashMap<Long, Integer>();
+    private final Map<Plugin, Map<Long, Integer>> tickets = new HashMap<Plugin, Map<Long, Integer>>();
+
+    /**
+     * Adds a ticket for a chunk
+     *
+     * @param plugin Plugin holding the ticket
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     * @return true if the chunk had no tickets before
+     */
+    public boolean add(Plugin plugin, int x, int z) {
+        Validate.notNull(plugin, "Plugin cannot be null");
+
+        Map<Long, Integer> held = tickets.get(plugin);
+        if (held == null) {
+            held = new HashMap<Long, Integer>();
+            tickets.put(plugin, held);
+        }
+
+        Long key = getKey(x, z);
+        increment(held, key, 1);
+        return increment(totals, key, 1) == 1;
+    }
+
+    /**
+     * Adds a ticket for every chunk in a square around a chunk
+     *
+     * @param plugin Plugin holding the tickets
+     * @param x X coordinate of the center chunk
+     * @param z Z coordinate of the center chunk
+     * @param radius Amount of chunks on each side of the center chunk, at most {@link #MAX_RADIUS}
+     * @return Amount of chunks which had no tickets before
+     */
+    public int add(Plugin plugin, int x, int z, int radius) {
+        Validate.isTrue(radius >= 0, "Radius cannot be negative");
+        Validate.isTrue(radius <= MAX_RADIUS, "Radius cannot be greater than " + MAX_RADIUS);
+
+        // Squares reaching past the edge of the coordinate space are cut off there instead of wrapping around
+        long maxX = Math.min((long) x + radius, Integer.MAX_VALUE);
+        long maxZ = Math.min((long) z + radius, Integer.MAX_VALUE);
+
+        int added = 0;
+        for (long cx = Math.max((long) x - radius, Integer.MIN_VALUE); cx <= maxX; cx++) {
+            for (long cz = Math.max((long) z - radius, Integer.MIN_VALUE); cz <= maxZ; cz++) {
+                if (add(plugin, (int) cx, (int) cz)) {
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Removes a ticket for a chunk
+     *
+     * @param plugin Plugin holding the ticket
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     * @return true if the plugin held a ticket for the chunk
+     */
+    public boolean remove(Plugin plugin, int x, int z) {
+        Validate.notNull(plugin, "Plugin cannot be null");
+
+        Map<Long, Integer> held = tickets.get(plugin);
+        Long key = getKey(x, z);
+
+        if (held == null || !held.containsKey(key)) {
+            return false;
+        }
+
+        increment(held, key, -1);
+        increment(totals, key, -1);
+
+        if (held.isEmpty()) {
+            tickets.remove(plugin);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a ticket for every chunk in a square around a chunk
+     *
+     * @param plugin Plugin holding the tickets
+     * @param x X coordinate of the center chunk
+     * @param z Z coordinate of the center chunk
+     * @param radius Amount of chunks on each side of the center chunk, at most {@link #MAX_RADIUS}
+     * @return Amount of tickets which were removed
+     */
+    public int remove(Plugin plugin, int x, int z, int radius) {
+        Validate.isTrue(radius >= 0, "Radius cannot be negative");
+        Validate.isTrue(radius <= MAX_RADIUS, "Radius cannot be greater than " + MAX_RADIUS);
+
+        // Squares reaching past the edge of the coordinate space are cut off there instead of wrapping around
+        long maxX = Math.min((long) x + radius, Integer.MAX_VALUE);
+        long maxZ = Math.min((long) z + radius, Integer.MAX_VALUE);
+
+        int removed = 0;
+        for (long cx = Math.max((long) x - radius, Integer.MIN_VALUE); cx <= maxX; cx++) {
+            for (long cz = Math.max((long) z - radius, Integer.MIN_VALUE); cz <= maxZ; cz++) {
+                if (remove(plugin, (int) cx, (int) cz)) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every ticket held by a plugin
+     *
+     * @param plugin Plugin holding the tickets
+     * @return Amount of tickets which were removed
+     */
+    public int removeAll(Plugin plugin) {
+        Validate.notNull(plugin, "Plugin cannot be null");
+
+        Map<Long, Integer> held = tickets.remove(plugin);
+        if (held == null) {
+            return 0;
+        }
+
+        int removed = 0;
+        for (Map.Entry<Long, Integer> entry : held.entrySet()) {
+            increment(totals, entry.getKey(), -entry.getValue());
+            removed += entry.getValue();
+        }
+        return removed;
+    }
+
+    /**
+     * Checks if any plugin holds a ticket for a chunk
+     *
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     * @return true if the chunk should be kept loaded
+     */
+    public boolean hasTicket(int x, int z) {
+        return totals.containsKey(getKey(x, z));
+    }
+
+    /**
+     * Gets the amount of tickets a plugin holds for a chunk
+     *
+     * @param plugin Plugin holding the tickets
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     * @return Amount of tickets
+     */
+    public int getTicketCount(Plugin plugin, int x, int z) {
+        Map<Long, Integer> held = tickets.get(plugin);
+        Integer count = held == null ? null : held.get(getKey(x, z));
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Gets the amount of tickets all plugins hold for a chunk
+     *
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     * @return Amount of tickets
+     */
+    public int getTicketCount(int x, int z) {
+        Integer count = totals.get(getKey(x, z));
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Gets the amount of chunks with at least one ticket
+     *
+     * @return Amount of chunks
+     */
+    public int getChunkCount() {
+        return totals.size();
+    }
+
+    private static int increment(Map<Long, Integer> counts, Long key, int amount) {
+        Integer count = counts.get(key);
+        int result = (count == null ? 0 : count) + amount;
+
+        if (result <= 0) {
+            counts.remove(key);
+        } else {
+            counts.put(key, result);
+        }
+        return result;
+    }
+
+    private static long getKey(int x, int z) {
+        return (long) x << 32 | (z & 0xFFFFFFFFL);
+    }
+}
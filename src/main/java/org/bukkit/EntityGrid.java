@@ -0,0 +1,491 @@
+package org.bukkit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.BoundingBox;
+
+/**
+ * Index of entities by the 16x16x16 section they were last moved to, answering box and chunk queries from those
+ * positions by only visiting the sections which overlap them. Queries fill a collection of the caller instead of
+ * allocating one, and callers have to synchronize access themselves.
+ */
+public class EntityGrid {
+    private static final int POINTS_IN_BOX = 0;
+    private static final int POINTS_IN_SPHERE = 1;
+    private static final int BOXES_IN_BOX = 2;
+    private static final int BOXES_ON_RAY = 3;
+
+    private final Map<Entity, Entry> entries = new HashMap<Entity, Entry>();
+    private final Map<Long, List<Entry>> sections = new HashMap<Long, List<Entry>>();
+    private int minSectionY = 0;
+    private int maxSectionY = -1;
+    // The largest entity sizes ever added, by how far an entity may reach out of its section
+    private double maxHalfWidth = 0;
+    private double maxHeight = 0;
+
+    // Parameters of the query being run, kept in fields so queries do not allocate
+    private int mode;
+    private double minX;
+    private double minY;
+    private double minZ;
+    private double maxX;
+    private double maxY;
+    private double maxZ;
+    private double centerX;
+    private double centerY;
+    private double centerZ;
+    private double radiusSquared;
+    private double rayDX;
+    private double rayDY;
+    private double rayDZ;
+    private double rayDistance;
+    private BoundingBox box;
+    private final BoundingBox entryBox = new BoundingBox(0, 0, 0, 0, 0, 0);
+    private Entry[] hits = new Entry[16];
+    private double[] hitDistances = new double[16];
+    private int hitCount;
+
+    private static final class Entry {
+        private final Entity entity;
+        private double x;
+        private double y;
+        private double z;
+        private double halfWidth = 0;
+        private double height = 0;
+        private long section;
+        // Position of this entry in the list of its section
+        private int index;
+
+        private Entry(Entity entity) {
+            this.entity = entity;
+        }
+    }
+
+    /**
+     * Adds an entity, or moves it if it was already added
+     *
+     * @param entity Entity to add
+     * @param x X coordinate of the entity
+     * @param y Y coordinate of the entity
+     * @param z Z coordinate of the entity
+     */
+    public void add(Entity entity, double x, double y, double z) {
+        move(entity, x, y, z);
+    }
+
+    /**
+     * Adds an entity with the size of its bounding box, or moves and resizes it if it was already added. The box is
+     * centered on the X and Z coordinates of the entity, and extends upwards from its Y coordinate.
+     *
+     * @param entity Entity to add
+     * @param x X coordinate of the entity
+     * @param y Y coordinate of the entity
+     * @param z Z coordinate of the entity
+     * @param width Width of the entity
+     * @param height Height of the entity
+     */
+    public void add(Entity entity, double x, double y, double z, double width, double height) {
+        Validate.isTrue(width >= 0 && height >= 0, "Size cannot be negative");
+
+        move(entity, x, y, z);
+
+        Entry entry = entries.get(entity);
+        entry.halfWidth = width / 2;
+        entry.height = height;
+        maxHalfWidth = Math.max(maxHalfWidth, entry.halfWidth);
+        maxHeight = Math.max(maxHeight, height);
+    }
+
+    /**
+     * Updates the position of an entity, adding it if it was not added yet
+     *
+     * @param entity Entity which moved
+     * @param x New X coordinate of the entity
+     * @param y New Y coordinate of the entity
+     * @param z New Z coordinate of the entity
+     */
+    public void move(Entity entity, double x, double y, double z) {
+        Validate.notNull(entity, "Entity cannot be null");
+
+        int sx = getSection(x);
+        int sy = getSection(y);
+        int sz = getSection(z);
+        long section = getKey(sx, sy, sz);
+        Entry entry = entries.get(entity);
+
+        if (entry == null) {
+            entry = new Entry(entity);
+            entries.put(entity, entry);
+            insert(entry, section, sy);
+        } else if (entry.section != section) {
+            unlink(entry);
+            insert(entry, section, sy);
+        }
+
+        entry.x = x;
+        entry.y = y;
+        entry.z = z;
+    }
+
+    /**
+     * Removes an entity
+     *
+     * @param entity Entity to remove
+     * @return true if the entity was added before
+     */
+    public boolean remove(Entity entity) {
+        Entry entry = entries.remove(entity);
+
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Checks if an entity was added
+     *
+     * @param entity Entity to check
+     * @return true if the entity is in this grid
+     */
+    public boolean contains(Entity entity) {
+        return entries.containsKey(entity);
+    }
+
+    /**
+     * Gets the amount of entities in this grid
+     *
+     * @return Amount of entities
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the amount of sections which contain at least one entity
+     *
+     * @return Amount of sections
+     */
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    /**
+     * Finds the entities of a type within a box
+     *
+     * @param minX Lowest X coordinate of the box
+     * @param minY Lowest Y coordinate of the box
+     * @param minZ Lowest Z coordinate of the box
+     * @param maxX Highest X coordinate of the box, inclusive
+     * @param maxY Highest Y coordinate of the box, inclusive
+     * @param maxZ Highest Z coordinate of the box, inclusive
+     * @param type Class or interface the entities have to match
+     * @param result Collection to add the entities to
+     * @return Amount of entities which were added to the collection
+     */
+    public <T extends Entity> int getEntitiesInBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Class<T> type, Collection<? super T> result) {
+        if (minX > maxX || minY > maxY || minZ > maxZ) {
+            return 0;
+        }
+
+        setBox(minX, minY, minZ, maxX, maxY, maxZ);
+        mode = POINTS_IN_BOX;
+        return query(getSection(minX), getSection(minY), getSection(minZ), getSection(maxX), getSection(maxY), getSection(maxZ), type, result);
+    }
+
+    /**
+     * Finds the entities of a type whose bounding boxes overlap a box
+     *
+     * @param box The box to overlap
+     * @param type Class or interface the entities have to match
+     * @param result Collection to add the entities to
+     * @return Amount of entities which were added to the collection
+     * @see #add(Entity, double, double, double, double, double)
+     */
+    public <T extends Entity> int getEntitiesInBox(BoundingBox box, Class<T> type, Collection<? super T> result) {
+        Validate.notNull(box, "Box cannot be null");
+
+        this.box = box;
+        mode = BOXES_IN_BOX;
+
+        try {
+            return queryBoxes(box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ(), type, result);
+        } finally {
+            this.box = null;
+        }
+    }
+
+    /**
+     * Finds the entities of a type within a sphere
+     *
+     * @param x X coordinate of the center
+     * @param y Y coordinate of the center
+     * @param z Z coordinate of the center
+     * @param radius Radius of the sphere, inclusive
+     * @param type Class or interface the entities have to match
+     * @param result Collection to add the entities to
+     * @return Amount of entities which were added to the collection
+     */
+    public <T extends Entity> int getEntitiesInSphere(double x, double y, double z, double radius, Class<T> type, Collection<? super T> result) {
+        Validate.isTrue(radius >= 0, "Radius cannot be negative");
+
+        setBox(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius);
+        centerX = x;
+        centerY = y;
+        centerZ = z;
+        radiusSquared = radius * radius;
+        mode = POINTS_IN_SPHERE;
+        return query(getSection(x - radius), getSection(y - radius), getSection(z - radius), getSection(x + radius), getSection(y + radius), getSection(z + radius), type, result);
+    }
+
+    /**
+     * Finds the entities of a type within a rectangle of chunks
+     *
+     * @param minX Lowest chunk X coordinate
+     * @param minZ Lowest chunk Z coordinate
+     * @param maxX Highest chunk X coordinate, inclusive
+     * @param maxZ Highest chunk Z coordinate, inclusive
+     * @param type Class or interface the entities have to match
+     * @param result Collection to add the entities to
+     * @return Amount of entities which were added to the collection
+     */
+    public <T extends Entity> int getEntitiesInChunks(int minX, int minZ, int maxX, int maxZ, Class<T> type, Collection<? super T> result) {
+        // Every entity in the sections of the chunks is within the chunks, so the box does not need to be checked
+        double inf = Double.POSITIVE_INFINITY;
+        setBox(-inf, -inf, -inf, inf, inf, inf);
+        mode = POINTS_IN_BOX;
+        return query(minX, Integer.MIN_VALUE, minZ, maxX, Integer.MAX_VALUE, maxZ, type, result);
+    }
+
+    /**
+     * Finds the entities of a type whose bounding boxes are hit by a ray, ordered by the distance along the ray at
+     * which they are hit
+     *
+     * @param x X coordinate of the start of the ray
+     * @param y Y coordinate of the start of the ray
+     * @param z Z coordinate of the start of the ray
+     * @param dx X component of the direction of the ray
+     * @param dy Y component of the direction of the ray
+     * @param dz Z component of the direction of the ray
+     * @param maxDistance Length of the ray
+     * @param type Class or interface the entities have to match
+     * @param result List to add the entities to, closest first
+     * @return Amount of entities which were added to the list
+     * @see #add(Entity, double, double, double, double, double)
+     */
+    public <T extends Entity> int getEntitiesOnRay(double x, double y, double z, double dx, double dy, double dz, double maxDistance, Class<T> type, List<? super T> result) {
+        Validate.isTrue(dx != 0 || dy != 0 || dz != 0, "Direction cannot be zero");
+        Validate.isTrue(maxDistance >= 0, "Max distance cannot be negative");
+
+        double scale = maxDistance / Math.sqrt(dx * dx + dy * dy + dz * dz);
+        centerX = x;
+        centerY = y;
+        centerZ = z;
+        rayDX = dx;
+        rayDY = dy;
+        rayDZ = dz;
+        rayDistance = maxDistance;
+        mode = BOXES_ON_RAY;
+        hitCount = 0;
+
+        try {
+            queryBoxes(Math.min(x, x + dx * scale), Math.min(y, y + dy * scale), Math.min(z, z + dz * scale), Math.max(x, x + dx * scale), Math.max(y, y + dy * scale), Math.max(z, z + dz * scale), type, result);
+
+            // Hits are few, so sorting them by insertion is cheap
+            for (int i = 1; i < hitCount; i++) {
+                Entry hit = hits[i];
+                double distance = hitDistances[i];
+                int j = i - 1;
+
+                for (; j >= 0 && hitDistances[j] > distance; j--) {
+                    hits[j + 1] = hits[j];
+                    hitDistances[j + 1] = hitDistances[j];
+                }
+                hits[j + 1] = hit;
+                hitDistances[j + 1] = distance;
+            }
+
+            for (int i = 0; i < hitCount; i++) {
+                result.add(type.cast(hits[i].entity));
+            }
+            return hitCount;
+        } finally {
+            for (int i = 0; i < hitCount; i++) {
+                hits[i] = null;
+            }
+        }
+    }
+
+    private <T extends Entity> int queryBoxes(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Class<T> type, Collection<? super T> result) {
+        // Entities are indexed by their position, but their boxes may reach into the sections around it
+        return query(getSection(minX - maxHalfWidth), getSection(minY - maxHeight), getSection(minZ - maxHalfWidth), getSection(maxX + maxHalfWidth), getSection(maxY), getSection(maxZ + maxHalfWidth), type, result);
+    }
+
+    private <T extends Entity> int query(int minSX, int minSY, int minSZ, int maxSX, int maxSY, int maxSZ, Class<T> type, Collection<? super T> result) {
+        Validate.notNull(type, "Type cannot be null");
+        Validate.notNull(result, "Result cannot be null");
+
+        // Only look at the heights entities were ever seen at
+        minSY = Math.max(minSY, minSectionY);
+        maxSY = Math.min(maxSY, maxSectionY);
+        int found = 0;
+
+        if (minSX > maxSX || minSY > maxSY || minSZ > maxSZ) {
+            return 0;
+        }
+
+        long cells = ((long) maxSX - minSX + 1) * ((long) maxSY - minSY + 1) * ((long) maxSZ - minSZ + 1);
+        if (cells > sections.size()) {
+            // Going through the occupied sections is cheaper than looking up every section of the region
+            for (List<Entry> section : sections.values()) {
+                Entry first = section.get(0);
+                int sx = getSection(first.x);
+                int sy = getSection(first.y);
+                int sz = getSection(first.z);
+
+                if (sx >= minSX && sx <= maxSX && sy >= minSY && sy <= maxSY && sz >= minSZ && sz <= maxSZ) {
+                    found += collect(section, type, result);
+                }
+            }
+            return found;
+        }
+
+        for (int sx = minSX; sx <= maxSX; sx++) {
+            for (int sz = minSZ; sz <= maxSZ; sz++) {
+                for (int sy = minSY; sy <= maxSY; sy++) {
+                    List<Entry> section = sections.get(getKey(sx, sy, sz));
+
+                    if (section != null) {
+                        found += collect(section, type, result);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private <T extends Entity> int collect(List<Entry> section, Class<T> type, Collection<? super T> result) {
+        int found = 0;
+
+        for (int i = 0, size = section.size(); i < size; i++) {
+            Entry entry = section.get(i);
+
+            if (!type.isInstance(entry.entity)) {
+                continue;
+            }
+
+            switch (mode) {
+            case POINTS_IN_BOX:
+            case POINTS_IN_SPHERE:
+                if (entry.x < minX || entry.x > maxX || entry.y < minY || entry.y > maxY || entry.z < minZ || entry.z > maxZ) {
+                    continue;
+                }
+
+                if (mode == POINTS_IN_SPHERE) {
+                    double dx = entry.x - centerX;
+                    double dy = entry.y - centerY;
+                    double dz = entry.z - centerZ;
+
+                    if (dx * dx + dy * dy + dz * dz > radiusSquared) {
+                        continue;
+                    }
+                }
+                break;
+
+            case BOXES_IN_BOX:
+                if (!box.overlaps(entry.x - entry.halfWidth, entry.y, entry.z - entry.halfWidth, entry.x + entry.halfWidth, entry.y + entry.height, entry.z + entry.halfWidth)) {
+                    continue;
+                }
+                break;
+
+            case BOXES_ON_RAY:
+                entryBox.set(entry.x - entry.halfWidth, entry.y, entry.z - entry.halfWidth, entry.x + entry.halfWidth, entry.y + entry.height, entry.z + entry.halfWidth);
+                double distance = entryBox.rayTrace(centerX, centerY, centerZ, rayDX, rayDY, rayDZ, rayDistance);
+
+                if (distance >= 0) {
+                    addHit(entry, distance);
+                }
+                // Hits are added to the result once they are sorted
+                continue;
+            }
+
+            result.add(type.cast(entry.entity));
+            found++;
+        }
+        return found;
+    }
+
+    private void addHit(Entry entry, double distance) {
+        if (hitCount == hits.length) {
+            Entry[] newHits = new Entry[hitCount * 2];
+            double[] newDistances = new double[hitCount * 2];
+            System.arraycopy(hits, 0, newHits, 0, hitCount);
+            System.arraycopy(hitDistances, 0, newDistances, 0, hitCount);
+            hits = newHits;
+            hitDistances = newDistances;
+        }
+
+        hits[hitCount] = entry;
+        hitDistances[hitCount] = distance;
+        hitCount++;
+    }
+
+    private void setBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    private void insert(Entry entry, long key, int sy) {
+        List<Entry> section = sections.get(key);
+
+        if (section == null) {
+            section = new ArrayList<Entry>(4);
+            sections.put(key, section);
+        }
+
+        entry.section = key;
+        entry.index = section.size();
+        section.add(entry);
+
+        if (maxSectionY < minSectionY) {
+            minSectionY = maxSectionY = sy;
+        } else {
+            minSectionY = Math.min(minSectionY, sy);
+            maxSectionY = Math.max(maxSectionY, sy);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        List<Entry> section = sections.get(entry.section);
+        Entry last = section.remove(section.size() - 1);
+
+        // Fill the gap with the last entry, so removing does not shift the whole list
+        if (last != entry) {
+            last.index = entry.index;
+            section.set(entry.index, last);
+        }
+
+        if (section.isEmpty()) {
+            sections.remove(entry.section);
+        }
+    }
+
+    private static int getSection(double coordinate) {
+        return (int) Math.floor(coordinate) >> 4;
+    }
+
+    private static long getKey(int sx, int sy, int sz) {
+        return ((long) sx & 0x3FFFFFL) << 42 | ((long) sy & 0xFFFFFL) << 22 | (sz & 0x3FFFFFL);
+    }
+}
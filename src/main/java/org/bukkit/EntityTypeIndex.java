@@ -0,0 +1,190 @@
+package org.bukkit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.EntityVisitor;
+
+/**
+ * Entities grouped by their {@link EntityType}, so that entities of a class are visited without going through the
+ * other types and counted without visiting them at all. Callers add and remove entities, and synchronize access
+ * themselves.
+ */
+public class EntityTypeIndex {
+    private static final EntityType[] TYPES = EntityType.values();
+
+    private final Bucket[] buckets = new Bucket[TYPES.length];
+    private final Map<Entity, Slot> slots = new HashMap<Entity, Slot>();
+    // The entity types whose entities may be an instance of a class
+    private final Map<Class<?>, EntityType[]> matchingTypes = new HashMap<Class<?>, EntityType[]>();
+
+    private static final class Bucket {
+        private Entity[] entities = new Entity[8];
+        private int size = 0;
+    }
+
+    private static final class Slot {
+        private final Bucket bucket;
+        private int index;
+
+        private Slot(Bucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    public EntityTypeIndex() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Adds an entity
+     *
+     * @param entity Entity to add
+     * @return true if the entity was not added before
+     */
+    public boolean add(Entity entity) {
+        Validate.notNull(entity, "Entity cannot be null");
+
+        if (slots.containsKey(entity)) {
+            return false;
+        }
+
+        EntityType type = entity.getType();
+        Bucket bucket = buckets[(type == null ? EntityType.UNKNOWN : type).ordinal()];
+        Slot slot = new Slot(bucket);
+
+        if (bucket.size == bucket.entities.length) {
+            Entity[] entities = new Entity[bucket.size * 2];
+            System.arraycopy(bucket.entities, 0, entities, 0, bucket.size);
+            bucket.entities = entities;
+        }
+
+        slot.index = bucket.size;
+        bucket.entities[bucket.size++] = entity;
+        slots.put(entity, slot);
+        return true;
+    }
+
+    /**
+     * Removes an entity
+     *
+     * @param entity Entity to remove
+     * @return true if the entity was added before
+     */
+    public boolean remove(Entity entity) {
+        Slot slot = slots.remove(entity);
+
+        if (slot == null) {
+            return false;
+        }
+
+        // Fill the gap with the last entity, so removing does not shift the whole bucket
+        Bucket bucket = slot.bucket;
+        Entity last = bucket.entities[--bucket.size];
+        bucket.entities[bucket.size] = null;
+
+        if (last != entity) {
+            bucket.entities[slot.index] = last;
+            slots.get(last).index = slot.index;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if an entity was added
+     *
+     * @param entity Entity to check
+     * @return true if the entity is in this index
+     */
+    public boolean contains(Entity entity) {
+        return slots.containsKey(entity);
+    }
+
+    /**
+     * Gets the amount of entities in this index
+     *
+     * @return Amount of entities
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Gets the amount of entities of a type
+     *
+     * @param type Type of the entities
+     * @return Amount of entities
+     */
+    public int getCount(EntityType type) {
+        Validate.notNull(type, "Type cannot be null");
+
+        return buckets[type.ordinal()].size;
+    }
+
+    /**
+     * Visits every entity which is an instance of a class or interface.
+     * <p />
+     * The visitor may remove the entity it is visiting, or entities which were visited already. Entities added by the
+     * visitor may or may not be visited.
+     *
+     * @param type Class or interface the entities have to match
+     * @param visitor Visitor to call for every matching entity
+     * @return Amount of entities which were visited
+     */
+    public <T extends Entity> int forEach(Class<T> type, EntityVisitor<? super T> visitor) {
+        Validate.notNull(visitor, "Visitor cannot be null");
+
+        int visited = 0;
+
+        for (EntityType entityType : getMatchingTypes(type)) {
+            Bucket bucket = buckets[entityType.ordinal()];
+
+            // Going backwards, an entity removed by the visitor is replaced by one which was visited already
+            for (int i = bucket.size - 1; i >= 0; i--) {
+                if (i >= bucket.size) {
+                    continue;
+                }
+
+                Entity entity = bucket.entities[i];
+                if (!type.isInstance(entity)) {
+                    continue;
+                }
+
+                visited++;
+                if (!visitor.visit(type.cast(entity))) {
+                    return visited;
+                }
+            }
+        }
+        return visited;
+    }
+
+    private EntityType[] getMatchingTypes(Class<?> type) {
+        Validate.notNull(type, "Type cannot be null");
+
+        EntityType[] types = matchingTypes.get(type);
+        if (types == null) {
+            List<EntityType> matching = new ArrayList<EntityType>();
+
+            for (EntityType entityType : TYPES) {
+                Class<?> entityClass = entityType.getEntityClass();
+
+                // Entities of an unknown type may be of any class
+                if (entityClass == null || type.isAssignableFrom(entityClass) || entityClass.isAssignableFrom(type)) {
+                    matching.add(entityType);
+                }
+            }
+
+            types = matching.toArray(new EntityType[matching.size()]);
+            matchingTypes.put(type, types);
+        }
+        return types;
+    }
+}
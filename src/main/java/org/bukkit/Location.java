@@ -208,8 +208,16 @@ public class Location implements Cloneable {
      * @return Vector
      */
     public Vector getDirection() {
-        Vector vector = new Vector();
+        return getDirection(new Vector());
+    }
 
+    /**
+     * Sets a Vector to the direction that this Location is facing
+     *
+     * @param vector The vector to store the direction in
+     * @return the same vector
+     */
+    public Vector getDirection(Vector vector) {
         double rotX = this.getYaw();
         double rotY = this.getPitch();
 
@@ -470,6 +478,19 @@ public class Location implements Cloneable {
         return new Vector(x, y, z);
     }
 
+    /**
+     * Sets a {@link Vector} to the coordinates represented by this Location
+     *
+     * @param vector The vector to store the coordinates in
+     * @return the same vector
+     */
+    public Vector toVector(Vector vector) {
+        vector.setX(x);
+        vector.setY(y);
+        vector.setZ(z);
+        return vector;
+    }
+
     @Override
     public Location clone() {
         try {
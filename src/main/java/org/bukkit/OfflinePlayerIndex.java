@@ -0,0 +1,454 @@
+package org.bukkit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Every player who has joined, with their unique ID and when they first and last played, stored as fixed size
+ * records in a memory mapped file. Only the sorted names are held in memory, which takes about 4 bytes per player.
+ * Names ignore case and hold up to 16 ASCII characters. Callers synchronize access themselves.
+ * <p />
+ * Adding a player shifts the sorted names after it, so it takes time linear in the amount of players. That is a copy
+ * of a few megabytes at a million players, which is cheap next to how rarely a player joins for the first time.
+ */
+public class OfflinePlayerIndex {
+    public static final int MAX_NAME_LENGTH = 16;
+
+    private static final int MAGIC = 0x42504c49;
+    private static final int VERSION = 1;
+    private static final int COUNT_OFFSET = 8;
+    private static final int HEADER_SIZE = 16;
+    private static final int UUID_OFFSET = 0;
+    private static final int FIRST_PLAYED_OFFSET = 16;
+    private static final int LAST_PLAYED_OFFSET = 24;
+    private static final int NAME_LENGTH_OFFSET = 32;
+    private static final int NAME_OFFSET = 33;
+    private static final int RECORD_SIZE = NAME_OFFSET + MAX_NAME_LENGTH;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int count;
+    private int[] sorted;
+
+    /**
+     * A player stored in the index
+     */
+    public static final class Entry {
+        private final String name;
+        private final UUID uniqueId;
+        private final long firstPlayed;
+        private final long lastPlayed;
+
+        public Entry(String name, UUID uniqueId, long firstPlayed, long lastPlayed) {
+            this.name = name;
+            this.uniqueId = uniqueId;
+            this.firstPlayed = firstPlayed;
+            this.lastPlayed = lastPlayed;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public UUID getUniqueId() {
+            return uniqueId;
+        }
+
+        public long getFirstPlayed() {
+            return firstPlayed;
+        }
+
+        public long getLastPlayed() {
+            return lastPlayed;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{name=" + name + ",uniqueId=" + uniqueId + ",firstPlayed=" + firstPlayed + ",lastPlayed=" + lastPlayed + "}";
+        }
+    }
+
+    /**
+     * Opens the index stored in a file, creating the file if it does not exist
+     *
+     * @param file File to store the index in
+     * @throws IOException If the file could not be opened, or is not an index
+     */
+    public OfflinePlayerIndex(File file) throws IOException {
+        Validate.notNull(file, "File cannot be null");
+
+        this.file = new RandomAccessFile(file, "rw");
+        this.channel = this.file.getChannel();
+        boolean opened = false;
+
+        try {
+            long length = this.file.length();
+
+            if (length == 0) {
+                map(INITIAL_CAPACITY);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(COUNT_OFFSET, 0);
+            } else {
+                if (length < HEADER_SIZE) {
+                    throw new IOException("File is too short to be a player index");
+                }
+
+                map((int) Math.min(MAX_CAPACITY, Math.max(1, (length - HEADER_SIZE) / RECORD_SIZE)));
+                if (buffer.getInt(0) != MAGIC) {
+                    throw new IOException("File is not a player index");
+                }
+                if (buffer.getInt(4) != VERSION) {
+                    throw new IOException("Unsupported player index version " + buffer.getInt(4));
+                }
+
+                count = buffer.getInt(COUNT_OFFSET);
+                if (count < 0 || count > capacity) {
+                    throw new IOException("Player index is corrupt, it claims to hold " + count + " players");
+                }
+                for (int i = 0; i < count; i++) {
+                    validateRecord(i);
+                }
+            }
+
+            sorted = new int[Math.max(count, INITIAL_CAPACITY)];
+            for (int i = 0; i < count; i++) {
+                sorted[i] = i;
+            }
+            sort();
+            for (int i = 1; i < count; i++) {
+                if (compare(sorted[i - 1], sorted[i]) == 0) {
+                    throw new IOException("Player index is corrupt, players " + Math.min(sorted[i - 1], sorted[i]) + " and " + Math.max(sorted[i - 1], sorted[i]) + " have the same name");
+                }
+            }
+            opened = true;
+        } finally {
+            if (!opened) {
+                this.file.close();
+            }
+        }
+    }
+
+    /**
+     * Records that a player joined. Players who are not in the index yet are added, otherwise the unique ID and last
+     * played time of the player are updated.
+     * <p />
+     * Nothing is forced to the disk. Players who were added are only counted in the file once the index is
+     * {@link #flush() flushed}.
+     *
+     * @param name Name of the player
+     * @param uniqueId Unique ID of the player
+     * @param time Time the player joined, in milliseconds since the epoch
+     * @return true if the player was added to the index
+     * @throws IOException If the file could not be grown to hold the player, or the index is full
+     */
+    public boolean update(String name, UUID uniqueId, long time) throws IOException {
+        validateName(name);
+        Validate.notNull(uniqueId, "Unique ID cannot be null");
+
+        int index = search(name);
+        if (index >= 0) {
+            int position = getPosition(sorted[index]);
+            buffer.putLong(position + UUID_OFFSET, uniqueId.getMostSignificantBits());
+            buffer.putLong(position + UUID_OFFSET + 8, uniqueId.getLeastSignificantBits());
+            buffer.putLong(position + LAST_PLAYED_OFFSET, time);
+            return false;
+        }
+
+        if (count == capacity) {
+            if (capacity >= MAX_CAPACITY) {
+                throw new IOException("Player index is full");
+            }
+            map((int) Math.min(MAX_CAPACITY, (long) capacity * 2));
+        }
+
+        int position = getPosition(count);
+        buffer.putLong(position + UUID_OFFSET, uniqueId.getMostSignificantBits());
+        buffer.putLong(position + UUID_OFFSET + 8, uniqueId.getLeastSignificantBits());
+        buffer.putLong(position + FIRST_PLAYED_OFFSET, time);
+        buffer.putLong(position + LAST_PLAYED_OFFSET, time);
+        buffer.put(position + NAME_LENGTH_OFFSET, (byte) name.length());
+        for (int i = 0; i < name.length(); i++) {
+            buffer.put(position + NAME_OFFSET + i, (byte) name.charAt(i));
+        }
+
+        index = -(index + 1);
+        if (count == sorted.length) {
+            int[] newSorted = new int[sorted.length * 2];
+            System.arraycopy(sorted, 0, newSorted, 0, count);
+            sorted = newSorted;
+        }
+        System.arraycopy(sorted, index, sorted, index + 1, count - index);
+        sorted[index] = count;
+        count++;
+        return true;
+    }
+
+    /**
+     * Gets a player by name, ignoring case
+     *
+     * @param name Name of the player
+     * @return The player, or null if they are not in the index
+     */
+    public Entry get(String name) {
+        Validate.notNull(name, "Name cannot be null");
+
+        int index = search(name);
+        return index < 0 ? null : getEntry(sorted[index]);
+    }
+
+    /**
+     * Checks if a player is in the index, ignoring case. This method does not allocate.
+     *
+     * @param name Name of the player
+     * @return true if the player has joined before
+     */
+    public boolean contains(String name) {
+        Validate.notNull(name, "Name cannot be null");
+
+        return search(name) >= 0;
+    }
+
+    /**
+     * Gets the amount of players in the index
+     *
+     * @return Amount of players
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets a page of the players in the index, ordered by name
+     *
+     * @param offset Amount of players to skip
+     * @param limit Maximum amount of players to return
+     * @return List of players
+     */
+    public List<Entry> getEntries(int offset, int limit) {
+        Validate.isTrue(offset >= 0, "Offset cannot be negative");
+        Validate.isTrue(limit >= 0, "Limit cannot be negative");
+
+        int end = (int) Math.min(count, (long) offset + limit);
+        List<Entry> entries = new ArrayList<Entry>(Math.max(0, end - offset));
+
+        for (int i = offset; i < end; i++) {
+            entries.add(getEntry(sorted[i]));
+        }
+        return entries;
+    }
+
+    /**
+     * Gets the players whose name starts with a prefix, ignoring case
+     *
+     * @param prefix Prefix of the names
+     * @param limit Maximum amount of players to return
+     * @return List of players, ordered by name
+     */
+    public List<Entry> getEntriesWithPrefix(String prefix, int limit) {
+        Validate.notNull(prefix, "Prefix cannot be null");
+        Validate.isTrue(limit >= 0, "Limit cannot be negative");
+
+        List<Entry> entries = new ArrayList<Entry>();
+        int index = search(prefix);
+
+        for (int i = index < 0 ? -(index + 1) : index; i < count && entries.size() < limit; i++) {
+            if (!startsWith(sorted[i], prefix)) {
+                break;
+            }
+            entries.add(getEntry(sorted[i]));
+        }
+        return entries;
+    }
+
+    /**
+     * Writes every change to the disk, and counts the players added since the last flush in the file.
+     * <p />
+     * Mapped writes reach the disk in any order, so the records are forced out before the header counts them. That
+     * way even a crash of the system never leaves the header counting a partially written record, but the players
+     * added since the last flush are lost. Servers should call this periodically, such as when saving the worlds,
+     * rather than after every join.
+     */
+    public void flush() {
+        buffer.force();
+
+        if (buffer.getInt(COUNT_OFFSET) != count) {
+            buffer.putInt(COUNT_OFFSET, count);
+            buffer.force();
+        }
+    }
+
+    /**
+     * Writes every change to the file and closes it. The index cannot be used afterwards.
+     * <p />
+     * Java cannot unmap a file explicitly, so the mapping is only released once it is garbage collected. Until then
+     * some systems, such as Windows, will not let the file be deleted or truncated.
+     *
+     * @throws IOException If the file could not be closed
+     */
+    public void close() throws IOException {
+        flush();
+        // Let the mapping be collected even if this index is still referenced
+        buffer = null;
+        file.close();
+    }
+
+    private void map(int capacity) throws IOException {
+        int size = HEADER_SIZE + capacity * RECORD_SIZE;
+
+        if (file.length() < size) {
+            file.setLength(size);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        this.capacity = capacity;
+    }
+
+    private void validateRecord(int record) throws IOException {
+        int position = getPosition(record);
+        int length = buffer.get(position + NAME_LENGTH_OFFSET);
+
+        if (length <= 0 || length > MAX_NAME_LENGTH) {
+            throw new IOException("Player index is corrupt, player " + record + " has a name of length " + length);
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(position + NAME_OFFSET + i) <= 0) {
+                throw new IOException("Player index is corrupt, player " + record + " has a name which is not ASCII");
+            }
+        }
+    }
+
+    private Entry getEntry(int record) {
+        int position = getPosition(record);
+        int length = buffer.get(position + NAME_LENGTH_OFFSET);
+        char[] name = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            name[i] = (char) buffer.get(position + NAME_OFFSET + i);
+        }
+
+        UUID uniqueId = new UUID(buffer.getLong(position + UUID_OFFSET), buffer.getLong(position + UUID_OFFSET + 8));
+        return new Entry(new String(name), uniqueId, buffer.getLong(position + FIRST_PLAYED_OFFSET), buffer.getLong(position + LAST_PLAYED_OFFSET));
+    }
+
+    private int search(String name) {
+        int low = 0;
+        int high = count - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compare = compare(sorted[mid], name);
+
+            if (compare < 0) {
+                low = mid + 1;
+            } else if (compare > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int compare(int record, String name) {
+        int position = getPosition(record);
+        int length = buffer.get(position + NAME_LENGTH_OFFSET);
+        int common = Math.min(length, name.length());
+
+        for (int i = 0; i < common; i++) {
+            int difference = fold(buffer.get(position + NAME_OFFSET + i)) - fold(name.charAt(i));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - name.length();
+    }
+
+    private int compare(int first, int second) {
+        int firstPosition = getPosition(first);
+        int secondPosition = getPosition(second);
+        int firstLength = buffer.get(firstPosition + NAME_LENGTH_OFFSET);
+        int secondLength = buffer.get(secondPosition + NAME_LENGTH_OFFSET);
+        int common = Math.min(firstLength, secondLength);
+
+        for (int i = 0; i < common; i++) {
+            int difference = fold(buffer.get(firstPosition + NAME_OFFSET + i)) - fold(buffer.get(secondPosition + NAME_OFFSET + i));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return firstLength - secondLength;
+    }
+
+    private boolean startsWith(int record, String prefix) {
+        int position = getPosition(record);
+
+        if (buffer.get(position + NAME_LENGTH_OFFSET) < prefix.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < prefix.length(); i++) {
+            if (fold(buffer.get(position + NAME_OFFSET + i)) != fold(prefix.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sort() {
+        // Bottom up merge sort, as the records are compared through the buffer rather than as objects
+        int[] source = sorted;
+        int[] destination = new int[sorted.length];
+
+        for (int width = 1; width < count; width *= 2) {
+            for (int start = 0; start < count; start += width * 2) {
+                int middle = Math.min(start + width, count);
+                int end = Math.min(start + width * 2, count);
+                int left = start;
+                int right = middle;
+
+                for (int i = start; i < end; i++) {
+                    if (left < middle && (right >= end || compare(source[left], source[right]) <= 0)) {
+                        destination[i] = source[left++];
+                    } else {
+                        destination[i] = source[right++];
+                    }
+                }
+            }
+
+            int[] swap = source;
+            source = destination;
+            destination = swap;
+        }
+        sorted = source;
+    }
+
+    private static void validateName(String name) {
+        Validate.notNull(name, "Name cannot be null");
+        Validate.isTrue(name.length() > 0 && name.length() <= MAX_NAME_LENGTH, "Name must be between 1 and " + MAX_NAME_LENGTH + " characters long");
+
+        for (int i = 0; i < name.length(); i++) {
+            Validate.isTrue(name.charAt(i) > 0 && name.charAt(i) < 0x80, "Name may only contain ASCII characters");
+        }
+    }
+
+    private static int getPosition(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    private static int fold(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+}
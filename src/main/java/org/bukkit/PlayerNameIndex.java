@@ -0,0 +1,135 @@
+package org.bukkit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.entity.Player;
+import org.bukkit.util.PrefixTrie;
+
+/**
+ * Players by name ignoring case, looked up by their exact name or a prefix of it in time proportional to the length
+ * of the name. It cannot match other parts of a name, as {@link Server#matchPlayer(String)} does, and callers
+ * synchronize access themselves.
+ */
+public class PlayerNameIndex {
+    private final Map<String, Player> byName = new HashMap<String, Player>();
+    private final PrefixTrie<Player> byPrefix = new PrefixTrie<Player>(true);
+
+    /**
+     * Adds a player to this index, replacing any player with the same name
+     *
+     * @param player Player to add
+     * @return The player which was replaced, or null if there was none
+     */
+    public Player add(Player player) {
+        Validate.notNull(player, "Player cannot be null");
+
+        String name = player.getName();
+        Player previous = byPrefix.put(name, player);
+
+        if (previous != null) {
+            byName.remove(previous.getName());
+        }
+        byName.put(name, player);
+        return previous;
+    }
+
+    /**
+     * Removes a player from this index. Nothing is removed if another player has since been added with the same name.
+     *
+     * @param player Player to remove
+     * @return true if the player was removed
+     */
+    public boolean remove(Player player) {
+        Validate.notNull(player, "Player cannot be null");
+
+        String name = player.getName();
+        if (byPrefix.get(name) != player) {
+            return false;
+        }
+
+        byPrefix.remove(name);
+        byName.remove(name);
+        return true;
+    }
+
+    /**
+     * Removes every player from this index
+     */
+    public void clear() {
+        byPrefix.clear();
+        byName.clear();
+    }
+
+    /**
+     * Gets the amount of players in this index
+     *
+     * @return Amount of players
+     */
+    public int size() {
+        return byName.size();
+    }
+
+    /**
+     * Gets the player with the exact given name, ignoring case
+     *
+     * @param name Exact name of the player
+     * @return Player with the name, or null if there is none
+     */
+    public Player getPlayerExact(String name) {
+        Validate.notNull(name, "Name cannot be null");
+
+        // Names are usually given in the right case, which the hash lookup answers without walking the trie
+        Player player = byName.get(name);
+        return player != null ? player : byPrefix.get(name);
+    }
+
+    /**
+     * Gets the player with the given name or, if there is none, the player with the shortest name starting with it
+     *
+     * @param name Name or start of the name of the player
+     * @return The matching player, or null if no name starts with the given name
+     */
+    public Player getPlayer(String name) {
+        Validate.notNull(name, "Name cannot be null");
+
+        Player player = byName.get(name);
+        return player != null ? player : byPrefix.getShortestMatch(name);
+    }
+
+    /**
+     * Gets the player with the given name or, if there is none, every player whose name starts with it
+     * <p />
+     * Unlike {@link Server#matchPlayer(String)}, players whose name only contains the given name elsewhere are not
+     * matched.
+     *
+     * @param name Name or start of the name of the players
+     * @return List of matching players, ordered by name
+     */
+    public List<Player> matchPlayer(String name) {
+        Player player = getPlayerExact(name);
+
+        if (player != null) {
+            List<Player> match = new ArrayList<Player>(1);
+            match.add(player);
+            return match;
+        }
+        return byPrefix.getValuesWithPrefix(name, new ArrayList<Player>(byPrefix.countPrefix(name)));
+    }
+
+    /**
+     * Adds every player whose name starts with a prefix to a collection
+     *
+     * @param <C> The type of the collection
+     * @param prefix Prefix of the names
+     * @param destination Collection to add the players to, ordered by name
+     * @return The destination collection
+     */
+    public <C extends Collection<? super Player>> C getPlayersWithPrefix(String prefix, C destination) {
+        return byPrefix.getValuesWithPrefix(prefix, destination);
+    }
+}
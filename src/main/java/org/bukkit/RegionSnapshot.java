@@ -0,0 +1,322 @@
+package org.bukkit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Snapshots of the chunks in a rectangular region of a world, with a hash of every section so two captures of the
+ * same region can be compared cheaply.
+ * <p />
+ * Hashes only cover block types and data. They are computed the first time they are needed, which may be on any
+ * thread. Chunks which were not loaded when the region was captured are missing, and are treated as empty.
+ * <p />
+ * The hashes can be kept on their own through {@link #getHashes()}, so a later capture can be compared with an
+ * earlier one without keeping the blocks of the earlier one.
+ */
+public class RegionSnapshot {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int SECTION_SIZE = 16 * 16 * 16;
+
+    private final String worldName;
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+    private final Map<Long, ChunkSnapshot> chunks = new HashMap<Long, ChunkSnapshot>();
+    private Hashes hashes = null;
+
+    /**
+     * A section of a chunk, identified by the coordinates of the chunk and the section Y coordinate
+     */
+    public static final class Section {
+        private final int chunkX;
+        private final int chunkZ;
+        private final int sectionY;
+
+        public Section(int chunkX, int chunkZ, int sectionY) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.sectionY = sectionY;
+        }
+
+        public int getChunkX() {
+            return chunkX;
+        }
+
+        public int getChunkZ() {
+            return chunkZ;
+        }
+
+        public int getSectionY() {
+            return sectionY;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Section)) {
+                return false;
+            }
+
+            Section other = (Section) obj;
+            return chunkX == other.chunkX && chunkZ == other.chunkZ && sectionY == other.sectionY;
+        }
+
+        @Override
+        public int hashCode() {
+            return (chunkX * 31 + chunkZ) * 31 + sectionY;
+        }
+
+        @Override
+        public String toString() {
+            return "Section{chunkX=" + chunkX + ",chunkZ=" + chunkZ + ",sectionY=" + sectionY + "}";
+        }
+    }
+
+    /**
+     * The section hashes of a captured region, without the blocks they were computed from
+     */
+    public static final class Hashes {
+        private final String worldName;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+        private final Map<Long, long[]> sections;
+
+        private Hashes(String worldName, int minX, int minZ, int maxX, int maxZ, Map<Long, long[]> sections) {
+            this.worldName = worldName;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+            this.sections = sections;
+        }
+
+        public String getWorldName() {
+            return worldName;
+        }
+
+        /**
+         * Checks if a chunk is within the region these hashes were computed for
+         *
+         * @param x Chunk X coordinate
+         * @param z Chunk Z coordinate
+         * @return true if the chunk is within the region
+         */
+        public boolean contains(int x, int z) {
+            return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+        }
+
+        /**
+         * Gets the hash of the blocks in a section
+         *
+         * @param x Chunk X coordinate
+         * @param z Chunk Z coordinate
+         * @param sy Section Y coordinate (block Y / 16)
+         * @return Hash of the section, which is 0 for empty sections
+         */
+        public long getSectionHash(int x, int z, int sy) {
+            long[] hashes = sections.get(getKey(x, z));
+            return hashes == null || sy < 0 || sy >= hashes.length ? 0 : hashes[sy];
+        }
+
+        /**
+         * Finds every section within this region whose blocks differ from an earlier capture of the same region
+         *
+         * @param previous Hashes of the earlier capture to compare with
+         * @return Sections which changed, ordered by chunk X, chunk Z and section Y
+         */
+        public List<Section> getChangedSections(Hashes previous) {
+            Validate.notNull(previous, "Previous hashes cannot be null");
+            Validate.isTrue(worldName.equals(previous.worldName), "Snapshots are of different worlds");
+
+            List<Section> changed = new ArrayList<Section>();
+
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    Long key = getKey(x, z);
+                    long[] currentSections = sections.get(key);
+                    long[] oldSections = previous.contains(x, z) ? previous.sections.get(key) : null;
+
+                    if (currentSections == null && oldSections == null) {
+                        continue;
+                    }
+
+                    int count = Math.max(currentSections == null ? 0 : currentSections.length, oldSections == null ? 0 : oldSections.length);
+                    for (int sy = 0; sy < count; sy++) {
+                        if (getHash(currentSections, sy) != getHash(oldSections, sy)) {
+                            changed.add(new Section(x, z, sy));
+                        }
+                    }
+                }
+            }
+
+            return changed;
+        }
+    }
+
+    /**
+     * Creates a region from snapshots of its chunks
+     *
+     * @param worldName Name of the world the chunks are in
+     * @param minX Lowest chunk X coordinate of the region
+     * @param minZ Lowest chunk Z coordinate of the region
+     * @param maxX Highest chunk X coordinate of the region, inclusive
+     * @param maxZ Highest chunk Z coordinate of the region, inclusive
+     * @param snapshots Snapshots of the chunks which were loaded, all within the region
+     */
+    public RegionSnapshot(String worldName, int minX, int minZ, int maxX, int maxZ, Collection<ChunkSnapshot> snapshots) {
+        Validate.notNull(worldName, "World name cannot be null");
+        Validate.isTrue(minX <= maxX && minZ <= maxZ, "Minimum coordinates cannot be greater than maximum coordinates");
+        Validate.noNullElements(snapshots, "Snapshots cannot be null");
+
+        this.worldName = worldName;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+
+        for (ChunkSnapshot snapshot : snapshots) {
+            Validate.isTrue(contains(snapshot.getX(), snapshot.getZ()), "Snapshot is outside of the region");
+            chunks.put(getKey(snapshot.getX(), snapshot.getZ()), snapshot);
+        }
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    /**
+     * Checks if a chunk is within this region
+     *
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     * @return true if the chunk is within the region
+     */
+    public boolean contains(int x, int z) {
+        return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+    }
+
+    /**
+     * Gets the snapshot of a chunk
+     *
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     * @return Snapshot of the chunk, or null if it was not loaded
+     */
+    public ChunkSnapshot getChunkSnapshot(int x, int z) {
+        return chunks.get(getKey(x, z));
+    }
+
+    /**
+     * Gets the snapshots of every chunk which was loaded
+     *
+     * @return Unmodifiable collection of snapshots
+     */
+    public Collection<ChunkSnapshot> getChunkSnapshots() {
+        return Collections.unmodifiableCollection(chunks.values());
+    }
+
+    /**
+     * Gets the hash of the blocks in a section
+     *
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     * @param sy Section Y coordinate (block Y / 16)
+     * @return Hash of the section, which is 0 for empty sections
+     */
+    public long getSectionHash(int x, int z, int sy) {
+        return getHashes().getSectionHash(x, z, sy);
+    }
+
+    /**
+     * Finds every section within this region whose blocks differ from an earlier capture of the same region
+     *
+     * @param previous Earlier capture to compare with
+     * @return Sections which changed, ordered by chunk X, chunk Z and section Y
+     */
+    public List<Section> getChangedSections(RegionSnapshot previous) {
+        Validate.notNull(previous, "Previous snapshot cannot be null");
+
+        return getHashes().getChangedSections(previous.getHashes());
+    }
+
+    /**
+     * Finds every section within this region whose blocks differ from an earlier capture of the same region
+     *
+     * @param previous Hashes of the earlier capture to compare with
+     * @return Sections which changed, ordered by chunk X, chunk Z and section Y
+     */
+    public List<Section> getChangedSections(Hashes previous) {
+        return getHashes().getChangedSections(previous);
+    }
+
+    private static long getHash(long[] sections, int sy) {
+        return sections == null || sy >= sections.length ? 0 : sections[sy];
+    }
+
+    /**
+     * Gets the hashes of every section in this region, which do not reference the blocks of the region
+     *
+     * @return Hashes of the region
+     */
+    public synchronized Hashes getHashes() {
+        if (hashes == null) {
+            Map<Long, long[]> result = new HashMap<Long, long[]>();
+            char[] buffer = new char[SECTION_SIZE];
+
+            for (Map.Entry<Long, ChunkSnapshot> entry : chunks.entrySet()) {
+                ChunkSnapshot snapshot = entry.getValue();
+                long[] sections = new long[snapshot.getSectionCount()];
+
+                for (int sy : snapshot.getNonEmptySections()) {
+                    snapshot.copySectionBlocks(sy, buffer, 0);
+                    sections[sy] = hash(buffer);
+                }
+                result.put(entry.getKey(), sections);
+            }
+            hashes = new Hashes(worldName, minX, minZ, maxX, maxZ, result);
+        }
+        return hashes;
+    }
+
+    private static long hash(char[] blocks) {
+        long hash = FNV_OFFSET;
+        boolean empty = true;
+
+        for (char block : blocks) {
+            hash = (hash ^ block) * FNV_PRIME;
+            empty &= block == 0;
+        }
+
+        // A section which only holds air must compare equal to a missing one
+        return empty ? 0 : hash == 0 ? 1 : hash;
+    }
+
+    private static long getKey(int x, int z) {
+        return (long) x << 32 | (z & 0xFFFFFFFFL);
+    }
+}
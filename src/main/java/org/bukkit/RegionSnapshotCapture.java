@@ -0,0 +1,111 @@
+package org.bukkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Captures the chunks of a region a few at a time, so capturing a large region does not hold up a single tick.
+ * <p />
+ * Implementations of {@link World#captureRegionSnapshot(int, int, int, int, long, TimeUnit)} may run an instance of
+ * this class once per tick on the main thread, until {@link #isDone()} returns true.
+ */
+public class RegionSnapshotCapture implements Runnable {
+    private final World world;
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+    private final long budget;
+    private final List<ChunkSnapshot> snapshots = new ArrayList<ChunkSnapshot>();
+    private final FutureTask<RegionSnapshot> future;
+    private int nextX;
+    private int nextZ;
+
+    /**
+     * Creates a capture of a region
+     *
+     * @param world World to capture chunks of
+     * @param minX Lowest chunk X coordinate of the region
+     * @param minZ Lowest chunk Z coordinate of the region
+     * @param maxX Highest chunk X coordinate of the region, inclusive
+     * @param maxZ Highest chunk Z coordinate of the region, inclusive
+     * @param budget Time to spend capturing chunks each time this is run
+     * @param unit Unit of the budget
+     */
+    public RegionSnapshotCapture(final World world, final int minX, final int minZ, final int maxX, final int maxZ, long budget, TimeUnit unit) {
+        Validate.notNull(world, "World cannot be null");
+        Validate.isTrue(minX <= maxX && minZ <= maxZ, "Minimum coordinates cannot be greater than maximum coordinates");
+        Validate.isTrue(budget > 0, "Budget must be positive");
+        Validate.notNull(unit, "Unit cannot be null");
+
+        this.world = world;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+        this.budget = unit.toNanos(budget);
+        this.nextX = minX;
+        this.nextZ = minZ;
+        this.future = new FutureTask<RegionSnapshot>(new Callable<RegionSnapshot>() {
+            public RegionSnapshot call() {
+                return new RegionSnapshot(world.getName(), minX, minZ, maxX, maxZ, snapshots);
+            }
+        });
+    }
+
+    /**
+     * Gets the future which completes with the region once every chunk was captured
+     *
+     * @return Future of the region snapshot
+     */
+    public Future<RegionSnapshot> getFuture() {
+        return future;
+    }
+
+    /**
+     * Checks if every chunk was captured, or the capture was cancelled through its future
+     *
+     * @return true if there is nothing left to capture
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Captures loaded chunks until the budget is spent, capturing at least one chunk. Must be called on the main
+     * thread.
+     */
+    public void run() {
+        if (future.isDone()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        do {
+            if (nextX > maxX) {
+                future.run();
+                return;
+            }
+
+            if (world.isChunkLoaded(nextX, nextZ)) {
+                snapshots.add(world.getChunkAt(nextX, nextZ).getChunkSnapshot());
+            }
+
+            if (++nextZ > maxZ) {
+                nextZ = minZ;
+                nextX++;
+            }
+        } while (System.nanoTime() - start < budget);
+
+        if (nextX > maxX) {
+            future.run();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.bukkit;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -253,6 +254,17 @@ public interface Server extends PluginMessageRecipient {
      */
     public List<Player> matchPlayer(String name);
 
+    /**
+     * Gets every online player whose name starts with the given prefix, case insensitive
+     * <p />
+     * Unlike {@link #matchPlayer(String)}, an exact match does not exclude the other players starting with it, which
+     * makes this suited to completing partially typed names.
+     *
+     * @param prefix Prefix of the names to match
+     * @return List of matching players, ordered by name
+     */
+    public List<Player> matchPlayerPrefix(String prefix);
+
     /**
      * Gets the PluginManager for interfacing with plugins
      *
@@ -477,6 +489,17 @@ public interface Server extends PluginMessageRecipient {
      */
     public int broadcast(String message, String permission);
 
+    /**
+     * Sends a message to each of the given recipients
+     * <p />
+     * This behaves like calling {@link CommandSender#sendMessage(String)} on every recipient, but lets the server
+     * prepare the message once and deliver it to all recipients together.
+     *
+     * @param recipients Recipients of the message
+     * @param message Message to send
+     */
+    public void sendMessage(Collection<? extends CommandSender> recipients, String message);
+
     /**
      * Gets the player by the given name, regardless if they are offline or online.
      * <p />
@@ -558,6 +581,31 @@ public interface Server extends PluginMessageRecipient {
      */
     public OfflinePlayer[] getOfflinePlayers();
 
+    /**
+     * Gets a page of the players that have ever played on this server, ordered by name
+     *
+     * @param offset Amount of players to skip
+     * @param limit Maximum amount of players to return
+     * @return List of players
+     */
+    public List<OfflinePlayer> getOfflinePlayers(int offset, int limit);
+
+    /**
+     * Gets the amount of players that have ever played on this server
+     *
+     * @return Amount of players
+     */
+    public int getOfflinePlayerCount();
+
+    /**
+     * Gets the players that have ever played on this server whose name starts with the given prefix, case insensitive
+     *
+     * @param prefix Prefix of the names to match
+     * @param limit Maximum amount of players to return
+     * @return List of matching players, ordered by name
+     */
+    public List<OfflinePlayer> matchOfflinePlayerPrefix(String prefix, int limit);
+
     /**
      * Gets the {@link Messenger} responsible for this server.
      *
@@ -7,6 +7,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.block.Biome;
 import org.bukkit.block.Block;
@@ -14,7 +16,9 @@ import org.bukkit.entity.*;
 import org.bukkit.generator.BlockPopulator;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.metadata.Metadatable;
+import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.messaging.PluginMessageRecipient;
+import org.bukkit.util.BoundingBox;
 import org.bukkit.util.Vector;
 
 /**
@@ -173,6 +177,35 @@ public interface World extends PluginMessageRecipient, Metadatable {
      */
     public boolean loadChunk(int x, int z, boolean generate);
 
+    /**
+     * Loads the {@link Chunk} at the specified coordinates without blocking the main thread
+     * <p />
+     * The chunk is read from disk, and generated if allowed, on another thread. Loading a chunk which is already
+     * loaded completes immediately, and several requests for the same chunk share a single load.
+     *
+     * @param x X-coordinate of the chunk
+     * @param z Z-coordinate of the chunk
+     * @param generate Whether or not to generate a chunk if it doesn't already exist
+     * @param callback Callback to call on the main thread once the chunk is loaded, or null
+     * @return Future which completes with the chunk, or null if it did not exist and was not generated. Waiting for
+     *     it on the main thread never returns.
+     * @see ChunkLoadQueue
+     */
+    public Future<Chunk> loadChunkAsync(int x, int z, boolean generate, ChunkLoadCallback callback);
+
+    /**
+     * Loads every {@link Chunk} within a radius without blocking the main thread, closest to the center first
+     *
+     * @param x X-coordinate of the center chunk
+     * @param z Z-coordinate of the center chunk
+     * @param radius Radius in chunks, at most {@link ChunkLoadQueue#MAX_RADIUS}
+     * @param generate Whether or not to generate chunks which don't already exist
+     * @param callback Callback to call on the main thread once each chunk is loaded, or null
+     * @return Futures of every chunk, ordered by distance to the center
+     * @see #loadChunkAsync(int, int, boolean, ChunkLoadCallback)
+     */
+    public List<Future<Chunk>> loadChunksAsync(int x, int z, int radius, boolean generate, ChunkLoadCallback callback);
+
     /**
      * Safely unloads and saves the {@link Chunk} at the specified coordinates
      * <p />
@@ -378,6 +411,91 @@ public interface World extends PluginMessageRecipient, Metadatable {
      */
     public Collection<Entity> getEntitiesByClasses(Class<?>... classes);
 
+    /**
+     * Visits every entity in this World matching the given class/interface, without copying them into a collection.
+     * Only entities of an {@link EntityType} which may match the class are looked at.
+     * <p />
+     * The visitor may remove the entity it is visiting. Entities spawned by the visitor may or may not be visited.
+     *
+     * @param cls The class representing the type of entity to match
+     * @param visitor Visitor to call for every matching entity
+     * @return Amount of entities which were visited
+     * @see EntityTypeIndex
+     */
+    public <T extends Entity> int forEachEntity(Class<T> cls, EntityVisitor<? super T> visitor);
+
+    /**
+     * Gets the amount of entities of a type in this World, without counting them one by one
+     *
+     * @param type Type of the entities
+     * @return Amount of entities of the type
+     */
+    public int getEntityCount(EntityType type);
+
+    /**
+     * Finds the entities of a type within a box, without going through every entity of this World
+     *
+     * @param minX Lowest X-coordinate of the box
+     * @param minY Lowest Y-coordinate of the box
+     * @param minZ Lowest Z-coordinate of the box
+     * @param maxX Highest X-coordinate of the box, inclusive
+     * @param maxY Highest Y-coordinate of the box, inclusive
+     * @param maxZ Highest Z-coordinate of the box, inclusive
+     * @param type The class or interface the entities have to match
+     * @param result Collection to add the entities to
+     * @return Amount of entities which were added to the collection
+     * @see EntityGrid
+     */
+    public <T extends Entity> int getEntitiesInBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Class<T> type, Collection<? super T> result);
+
+    /**
+     * Finds the entities of a type within a sphere, without going through every entity of this World
+     *
+     * @param center Center of the sphere
+     * @param radius Radius of the sphere, inclusive
+     * @param type The class or interface the entities have to match
+     * @param result Collection to add the entities to
+     * @return Amount of entities which were added to the collection
+     */
+    public <T extends Entity> int getEntitiesInSphere(Location center, double radius, Class<T> type, Collection<? super T> result);
+
+    /**
+     * Finds the entities of a type within a rectangle of chunks, without going through every entity of this World
+     *
+     * @param minX Lowest chunk X-coordinate
+     * @param minZ Lowest chunk Z-coordinate
+     * @param maxX Highest chunk X-coordinate, inclusive
+     * @param maxZ Highest chunk Z-coordinate, inclusive
+     * @param type The class or interface the entities have to match
+     * @param result Collection to add the entities to
+     * @return Amount of entities which were added to the collection
+     */
+    public <T extends Entity> int getEntitiesInChunks(int minX, int minZ, int maxX, int maxZ, Class<T> type, Collection<? super T> result);
+
+    /**
+     * Finds the entities of a type whose bounding boxes overlap a box, without going through every entity of this
+     * World
+     *
+     * @param box The box to overlap
+     * @param type The class or interface the entities have to match
+     * @param result Collection to add the entities to
+     * @return Amount of entities which were added to the collection
+     */
+    public <T extends Entity> int getEntitiesInBox(BoundingBox box, Class<T> type, Collection<? super T> result);
+
+    /**
+     * Finds the entities of a type whose bounding boxes are hit by a ray, without going through every entity of this
+     * World. Blocks do not stop the ray.
+     *
+     * @param start Start of the ray
+     * @param direction Direction of the ray
+     * @param maxDistance Length of the ray
+     * @param type The class or interface the entities have to match
+     * @param result List to add the entities to, ordered by the distance at which the ray hits them
+     * @return Amount of entities which were added to the list
+     */
+    public <T extends Entity> int getEntitiesOnRay(Location start, Vector direction, double maxDistance, Class<T> type, List<? super T> result);
+
     /**
      * Get a list of all players in this World
      *
@@ -668,6 +786,40 @@ public interface World extends PluginMessageRecipient, Metadatable {
      */
     public ChunkSnapshot getEmptyChunkSnapshot(int x, int z, boolean includeBiome, boolean includeBiomeTempRain);
 
+    /**
+     * Captures snapshots of every loaded chunk in a rectangle at once, so they all reflect the same moment.
+     * <p />
+     * Chunks which are not loaded are skipped. The snapshots may be handed off to other threads for processing.
+     *
+     * @param minX - lowest chunk x coordinate
+     * @param minZ - lowest chunk z coordinate
+     * @param maxX - highest chunk x coordinate, inclusive
+     * @param maxZ - highest chunk z coordinate, inclusive
+     * @param includeMaxblocky - if true, snapshots include per-coordinate maximum Y values
+     * @param includeBiome - if true, snapshots include per-coordinate biome type
+     * @param includeBiomeTempRain - if true, snapshots include per-coordinate raw biome temperature and rainfall
+     * @return Snapshots of the loaded chunks
+     */
+    public List<ChunkSnapshot> getChunkSnapshots(int minX, int minZ, int maxX, int maxZ, boolean includeMaxblocky, boolean includeBiome, boolean includeBiomeTempRain);
+
+    /**
+     * Captures snapshots of the loaded chunks in a rectangle over the following ticks, spending at most the given
+     * time on it each tick.
+     * <p />
+     * As chunks may be captured during different ticks, the region does not reflect a single moment. Its section
+     * hashes can be compared with an earlier capture through {@link RegionSnapshot#getChangedSections(RegionSnapshot)}.
+     *
+     * @param minX - lowest chunk x coordinate
+     * @param minZ - lowest chunk z coordinate
+     * @param maxX - highest chunk x coordinate, inclusive
+     * @param maxZ - highest chunk z coordinate, inclusive
+     * @param budget - time to spend capturing chunks each tick
+     * @param unit - unit of the budget
+     * @return Future which completes with the region once every chunk was captured, and may be cancelled
+     * @see RegionSnapshotCapture
+     */
+    public Future<RegionSnapshot> captureRegionSnapshot(int minX, int minZ, int maxX, int maxZ, long budget, TimeUnit unit);
+
     /**
      * Sets the spawn flags for this.
      *
@@ -755,6 +907,78 @@ public interface World extends PluginMessageRecipient, Metadatable {
      */
     public void setKeepSpawnInMemory(boolean keepLoaded);
 
+    /**
+     * Adds a ticket which keeps a chunk loaded until it is removed. A plugin may hold several tickets for the same
+     * chunk, and every one of them has to be removed before the chunk may unload.
+     * <p />
+     * Adding a ticket does not load the chunk. Tickets are removed when the plugin is disabled.
+     *
+     * @param plugin Plugin holding the ticket
+     * @param x X-coordinate of the chunk
+     * @param z Z-coordinate of the chunk
+     * @see ChunkTicketTable
+     */
+    public void addChunkTicket(Plugin plugin, int x, int z);
+
+    /**
+     * Adds a ticket for every chunk in a square around a chunk
+     *
+     * @param plugin Plugin holding the tickets
+     * @param x X-coordinate of the center chunk
+     * @param z Z-coordinate of the center chunk
+     * @param radius Amount of chunks on each side of the center chunk, at most {@link ChunkTicketTable#MAX_RADIUS}
+     * @see #addChunkTicket(Plugin, int, int)
+     */
+    public void addChunkTickets(Plugin plugin, int x, int z, int radius);
+
+    /**
+     * Removes a ticket of a plugin for a chunk
+     *
+     * @param plugin Plugin holding the ticket
+     * @param x X-coordinate of the chunk
+     * @param z Z-coordinate of the chunk
+     * @return true if the plugin held a ticket for the chunk
+     */
+    public boolean removeChunkTicket(Plugin plugin, int x, int z);
+
+    /**
+     * Removes a ticket of a plugin for every chunk in a square around a chunk
+     *
+     * @param plugin Plugin holding the tickets
+     * @param x X-coordinate of the center chunk
+     * @param z Z-coordinate of the center chunk
+     * @param radius Amount of chunks on each side of the center chunk, at most {@link ChunkTicketTable#MAX_RADIUS}
+     * @return Amount of tickets which were removed
+     */
+    public int removeChunkTickets(Plugin plugin, int x, int z, int radius);
+
+    /**
+     * Removes every ticket a plugin holds in this world
+     *
+     * @param plugin Plugin holding the tickets
+     * @return Amount of tickets which were removed
+     */
+    public int removeChunkTickets(Plugin plugin);
+
+    /**
+     * Checks if any plugin holds a ticket for a chunk
+     *
+     * @param x X-coordinate of the chunk
+     * @param z Z-coordinate of the chunk
+     * @return true if the chunk is kept loaded by a ticket
+     */
+    public boolean hasChunkTicket(int x, int z);
+
+    /**
+     * Gets the amount of tickets a plugin holds for a chunk
+     *
+     * @param plugin Plugin holding the tickets
+     * @param x X-coordinate of the chunk
+     * @param z Z-coordinate of the chunk
+     * @return Amount of tickets
+     */
+    public int getChunkTicketCount(Plugin plugin, int x, int z);
+
     /**
      * Gets whether or not the world will automatically save
      *
@@ -22,6 +22,7 @@ public abstract class Command {
     protected String usageMessage;
     private String permission;
     private String permissionMessage;
+    private boolean asyncSafe = false;
 
     protected Command(String name) {
         this(name, "", "/" + name, new ArrayList<String>());
@@ -210,6 +211,18 @@ public abstract class Command {
         return permissionMessage;
     }
 
+    /**
+     * Checks if this command may be executed by a thread other than the main server thread.
+     * <p />
+     * Async safe commands received from chat or the remote console are executed immediately by the thread
+     * which received them, instead of being handed to the main thread.
+     *
+     * @return true if this command is async safe
+     */
+    public boolean isAsyncSafe() {
+        return asyncSafe;
+    }
+
     /**
      * Gets a brief description of this command
      *
@@ -264,6 +277,17 @@ public abstract class Command {
         return this;
     }
 
+    /**
+     * Sets whether this command may be executed by a thread other than the main server thread
+     *
+     * @param asyncSafe true if this command does not need to run on the main thread
+     * @return This command object, for linking
+     */
+    public Command setAsyncSafe(boolean asyncSafe) {
+        this.asyncSafe = asyncSafe;
+        return this;
+    }
+
     /**
      * Sets the example usage of this command
      *
@@ -62,4 +62,15 @@ public interface CommandMap {
      * @return Command with the specified name or null if a command with that label doesn't exist
      */
     public Command getCommand(String name);
+
+    /**
+     * Checks if the command that a command line would execute may be run outside of the main server thread.
+     * <p />
+     * Commands received by other threads, such as chat or remote console commands, may be dispatched from that
+     * thread if this returns true, and should otherwise be handed to the main thread.
+     *
+     * @param commandLine command + arguments. Example: "test abc 123"
+     * @return true if the command is known and async safe
+     */
+    public boolean isAsyncSafe(String commandLine);
 }
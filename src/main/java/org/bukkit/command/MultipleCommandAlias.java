@@ -15,6 +15,17 @@ public class MultipleCommandAlias extends Command {
         return commands;
     }
 
+    @Override
+    public boolean isAsyncSafe() {
+        for (Command command : commands) {
+            if (!command.isAsyncSafe()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     @Override
     public boolean execute(CommandSender sender, String commandLabel, String[] args) {
         boolean result = false;
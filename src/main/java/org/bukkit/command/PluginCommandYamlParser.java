@@ -25,6 +25,7 @@ public class PluginCommandYamlParser {
             Object aliases = entry.getValue().get("aliases");
             Object permission = entry.getValue().get("permission");
             Object permissionMessage = entry.getValue().get("permission-message");
+            Object asyncSafe = entry.getValue().get("async-safe");
 
             if (description != null) {
                 newCmd.setDescription(description.toString());
@@ -56,6 +57,10 @@ public class PluginCommandYamlParser {
                 newCmd.setPermissionMessage(permissionMessage.toString());
             }
 
+            if (asyncSafe != null) {
+                newCmd.setAsyncSafe(Boolean.valueOf(asyncSafe.toString()));
+            }
+
             pluginCmds.add(newCmd);
         }
         return pluginCmds;
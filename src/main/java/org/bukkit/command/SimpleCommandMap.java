@@ -3,42 +3,81 @@ package org.bukkit.command;
 import org.bukkit.command.defaults.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Server;
-import static org.bukkit.util.Java15Compat.Arrays_copyOfRange;
+import org.bukkit.util.PrefixTrie;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
 
 public class SimpleCommandMap implements CommandMap {
+    private static final String[] NO_ARGUMENTS = new String[0];
+    private static final int FALLBACK_CACHE_SIZE = 256;
+    // Marks labels in the fallback cache which are known not to match any fallback command
+    private static final Command NO_FALLBACK = new Command("") {
+        @Override
+        public boolean execute(CommandSender sender, String commandLabel, String[] args) {
+            return false;
+        }
+    };
+    // Only changed while holding the lock of this map. Lookups read the last published snapshot instead, so direct
+    // changes must be followed by a call to commandsChanged().
     protected final Map<String, Command> knownCommands = new HashMap<String, Command>();
-    protected final Set<String> aliases = new HashSet<String>();
+    protected final Set<String> aliases = Sets.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private volatile Snapshot snapshot;
+    private final Map<String, Command> fallbackCache = new ConcurrentHashMap<String, Command>();
     private final Server server;
-    protected static final Set<VanillaCommand> fallbackCommands = new HashSet<VanillaCommand>();
+    // Unmodifiable, as the fallback of every label is cached once it was looked up
+    protected static final Set<VanillaCommand> fallbackCommands;
 
     static {
-        fallbackCommands.add(new ListCommand());
-        fallbackCommands.add(new StopCommand());
-        fallbackCommands.add(new SaveCommand());
-        fallbackCommands.add(new SaveOnCommand());
-        fallbackCommands.add(new SaveOffCommand());
-        fallbackCommands.add(new OpCommand());
-        fallbackCommands.add(new DeopCommand());
-        fallbackCommands.add(new BanIpCommand());
-        fallbackCommands.add(new PardonIpCommand());
-        fallbackCommands.add(new BanCommand());
-        fallbackCommands.add(new PardonCommand());
-        fallbackCommands.add(new KickCommand());
-        fallbackCommands.add(new TeleportCommand());
-        fallbackCommands.add(new GiveCommand());
-        fallbackCommands.add(new TimeCommand());
-        fallbackCommands.add(new SayCommand());
-        fallbackCommands.add(new WhitelistCommand());
-        fallbackCommands.add(new TellCommand());
-        fallbackCommands.add(new MeCommand());
-        fallbackCommands.add(new KillCommand());
-        fallbackCommands.add(new GameModeCommand());
-        fallbackCommands.add(new HelpCommand());
-        fallbackCommands.add(new ExpCommand());
-        fallbackCommands.add(new ToggleDownfallCommand());
-        fallbackCommands.add(new BanListCommand());
+        Set<VanillaCommand> commands = new HashSet<VanillaCommand>();
+        commands.add(new ListCommand());
+        commands.add(new StopCommand());
+        commands.add(new SaveCommand());
+        commands.add(new SaveOnCommand());
+        commands.add(new SaveOffCommand());
+        commands.add(new OpCommand());
+        commands.add(new DeopCommand());
+        commands.add(new BanIpCommand());
+        commands.add(new PardonIpCommand());
+        commands.add(new BanCommand());
+        commands.add(new PardonCommand());
+        commands.add(new KickCommand());
+        commands.add(new TeleportCommand());
+        commands.add(new GiveCommand());
+        commands.add(new TimeCommand());
+        commands.add(new SayCommand());
+        commands.add(new WhitelistCommand());
+        commands.add(new TellCommand());
+        commands.add(new MeCommand());
+        commands.add(new KillCommand());
+        commands.add(new GameModeCommand());
+        commands.add(new HelpCommand());
+        commands.add(new ExpCommand());
+        commands.add(new ToggleDownfallCommand());
+        commands.add(new BanListCommand());
+        fallbackCommands = Collections.unmodifiableSet(commands);
+    }
+
+    /**
+     * Immutable copy of the registered commands and their labels, which is published whenever they change
+     */
+    private static final class Snapshot {
+        private final Map<String, Command> commands;
+        private final Collection<Command> values;
+        private final PrefixTrie<Command> labels = new PrefixTrie<Command>();
+
+        private Snapshot(Map<String, Command> commands) {
+            this.commands = ImmutableMap.copyOf(commands);
+            this.values = ImmutableList.copyOf(commands.values());
+
+            for (Map.Entry<String, Command> entry : commands.entrySet()) {
+                labels.put(entry.getKey(), entry.getValue());
+            }
+        }
     }
 
     public SimpleCommandMap(final Server server) {
@@ -46,21 +85,23 @@ public class SimpleCommandMap implements CommandMap {
         setDefaultCommands(server);
     }
 
-    private void setDefaultCommands(final Server server) {
-        register("bukkit", new VersionCommand("version"));
-        register("bukkit", new ReloadCommand("reload"));
-        register("bukkit", new PluginsCommand("plugins"));
-        register("bukkit", new TimingsCommand("timings"));
+    private synchronized void setDefaultCommands(final Server server) {
+        registerCommand(null, "bukkit", new VersionCommand("version"));
+        registerCommand(null, "bukkit", new ReloadCommand("reload"));
+        registerCommand(null, "bukkit", new PluginsCommand("plugins"));
+        registerCommand(null, "bukkit", new TimingsCommand("timings"));
+        commandsChanged();
     }
 
     /**
      * {@inheritDoc}
      */
-    public void registerAll(String fallbackPrefix, List<Command> commands) {
+    public synchronized void registerAll(String fallbackPrefix, List<Command> commands) {
         if (commands != null) {
             for (Command c : commands) {
-                register(fallbackPrefix, c);
+                registerCommand(null, fallbackPrefix, c);
             }
+            commandsChanged();
         }
     }
 
@@ -74,8 +115,22 @@ public class SimpleCommandMap implements CommandMap {
     /**
      * {@inheritDoc}
      */
-    public boolean register(String label, String fallbackPrefix, Command command) {
-        boolean registeredPassedLabel = register(label, fallbackPrefix, command, false);
+    public synchronized boolean register(String label, String fallbackPrefix, Command command) {
+        boolean registeredPassedLabel = registerCommand(label, fallbackPrefix, command);
+        commandsChanged();
+        return registeredPassedLabel;
+    }
+
+    /**
+     * Registers a command and its aliases
+     *
+     * @param label the name of the command, or null to use the name of the command
+     * @param fallbackPrefix a prefix which is prepended to the command to make it unique
+     * @param command the command to register
+     * @return true if command was registered with the passed in label, false otherwise
+     */
+    private boolean registerCommand(String label, String fallbackPrefix, Command command) {
+        boolean registeredPassedLabel = register(label == null ? command.getName() : label, fallbackPrefix, command, false);
 
         Iterator<String> iterator = command.getAliases().iterator();
         while (iterator.hasNext()) {
@@ -100,7 +155,7 @@ public class SimpleCommandMap implements CommandMap {
      *         If isAlias was true a return of false indicates no command was registerd
      *         If isAlias was false a return of false indicates the fallbackPrefix was used one or more times to create a unique name for the command
      */
-    private synchronized boolean register(String label, String fallbackPrefix, Command command, boolean isAlias) {
+    private boolean register(String label, String fallbackPrefix, Command command, boolean isAlias) {
         String lowerLabel = label.trim().toLowerCase();
 
         if (isAlias && knownCommands.containsKey(lowerLabel)) {
@@ -131,39 +186,49 @@ public class SimpleCommandMap implements CommandMap {
     }
 
     protected Command getFallback(String label) {
+        // Fallbacks match on arbitrary prefixes, so the outcome of the scan is remembered per label
+        Command cached = fallbackCache.get(label);
+        if (cached != null) {
+            return cached == NO_FALLBACK ? null : cached;
+        }
+
+        Command fallback = null;
         for (VanillaCommand cmd : fallbackCommands) {
             if (cmd.matches(label)) {
-                return cmd;
+                fallback = cmd;
+                break;
             }
         }
 
-        return null;
+        if (fallbackCache.size() >= FALLBACK_CACHE_SIZE) {
+            fallbackCache.clear();
+        }
+        fallbackCache.put(label, fallback == null ? NO_FALLBACK : fallback);
+
+        return fallback;
     }
     
     public Set<VanillaCommand> getFallbackCommands() {
-        return Collections.unmodifiableSet(fallbackCommands);
+        return fallbackCommands;
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean dispatch(CommandSender sender, String commandLine) throws CommandException {
-        String[] args = commandLine.split(" ");
-
-        if (args.length == 0) {
-            return false;
-        }
-
-        String sentCommandLabel = args[0].toLowerCase();
+        int labelEnd = commandLine.indexOf(' ');
+        String sentCommandLabel = (labelEnd == -1 ? commandLine : commandLine.substring(0, labelEnd)).toLowerCase();
         Command target = getCommand(sentCommandLabel);
 
         if (target == null) {
             return false;
         }
 
+        String[] args = labelEnd == -1 ? NO_ARGUMENTS : splitArguments(commandLine, labelEnd + 1);
+
         try {
             // Note: we don't return the result of target.execute as thats success / failure, we return handled (true) or not handled (false)
-            target.execute(sender, sentCommandLabel, Arrays_copyOfRange(args, 1, args.length));
+            target.execute(sender, sentCommandLabel, args);
         } catch (CommandException ex) {
             throw ex;
         } catch (Throwable ex) {
@@ -174,28 +239,104 @@ public class SimpleCommandMap implements CommandMap {
         return true;
     }
 
+    /**
+     * Splits the arguments of a command line on every space, in the same way as String.split(" ")
+     *
+     * @param commandLine The full command line
+     * @param start Index of the first character of the arguments
+     * @return The arguments, without trailing empty arguments
+     */
+    private static String[] splitArguments(String commandLine, int start) {
+        int end = commandLine.length();
+        while (end > start && commandLine.charAt(end - 1) == ' ') {
+            end--;
+        }
+
+        if (end == start) {
+            return NO_ARGUMENTS;
+        }
+
+        int count = 1;
+        for (int i = start; i < end; i++) {
+            if (commandLine.charAt(i) == ' ') {
+                count++;
+            }
+        }
+
+        String[] args = new String[count];
+        int argStart = start;
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            if (commandLine.charAt(i) == ' ') {
+                args[index++] = commandLine.substring(argStart, i);
+                argStart = i + 1;
+            }
+        }
+        args[index] = commandLine.substring(argStart, end);
+
+        return args;
+    }
+
     public synchronized void clearCommands() {
         for (Map.Entry<String, Command> entry : knownCommands.entrySet()) {
             entry.getValue().unregister(this);
         }
         knownCommands.clear();
         aliases.clear();
+        fallbackCache.clear();
         setDefaultCommands(server);
     }
 
+    /**
+     * Publishes the current contents of knownCommands, which are the commands found by lookups and dispatch from then
+     * on. Subclasses which change knownCommands directly must call this afterwards.
+     */
+    protected synchronized void commandsChanged() {
+        snapshot = new Snapshot(knownCommands);
+    }
+
     public Command getCommand(String name) {
-        Command target =  knownCommands.get(name.toLowerCase());
+        return findCommand(snapshot.commands, name);
+    }
+
+    private Command findCommand(Map<String, Command> commands, String name) {
+        Command target = commands.get(name.toLowerCase());
         if (target == null) {
             target = getFallback(name);
         }
         return target;
     }
 
+    /**
+     * Gets every registered command. The returned collection does not change when commands are registered afterwards.
+     *
+     * @return Registered commands, including one entry for every alias
+     */
     public Collection<Command> getCommands() {
-        return knownCommands.values();
+        return snapshot.values;
     }
 
-    public void registerServerAliases() {
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isAsyncSafe(String commandLine) {
+        int labelEnd = commandLine.indexOf(' ');
+        Command target = getCommand((labelEnd == -1 ? commandLine : commandLine.substring(0, labelEnd)).toLowerCase());
+
+        return target != null && target.isAsyncSafe();
+    }
+
+    /**
+     * Gets every registered label and alias starting with the given prefix, for example to tab-complete a command
+     *
+     * @param prefix The start of the label, without the '/'-prefix
+     * @return Matching labels in alphabetical order
+     */
+    public List<String> getCommandLabels(String prefix) {
+        return snapshot.labels.getKeysWithPrefix(prefix.toLowerCase());
+    }
+
+    public synchronized void registerServerAliases() {
         Map<String, String[]> values = server.getCommandAliases();
 
         for (String alias : values.keySet()) {
@@ -204,7 +345,7 @@ public class SimpleCommandMap implements CommandMap {
             StringBuilder bad = new StringBuilder();
 
             for (String name : targetNames) {
-                Command command = getCommand(name);
+                Command command = findCommand(knownCommands, name);
 
                 if (command == null) {
                     if (bad.length() > 0) {
@@ -218,15 +359,19 @@ public class SimpleCommandMap implements CommandMap {
 
             // We register these as commands so they have absolute priority.
 
+            String lowerAlias = alias.toLowerCase();
+
             if (targets.size() > 0) {
-                knownCommands.put(alias.toLowerCase(), new MultipleCommandAlias(alias.toLowerCase(), targets.toArray(new Command[0])));
+                Command command = new MultipleCommandAlias(lowerAlias, targets.toArray(new Command[0]));
+                knownCommands.put(lowerAlias, command);
             } else {
-                knownCommands.remove(alias.toLowerCase());
+                knownCommands.remove(lowerAlias);
             }
 
             if (bad.length() > 0) {
                 server.getLogger().warning("The following command(s) could not be aliased under '" + alias + "' because they do not exist: " + bad);
             }
         }
+        commandsChanged();
     }
 }
@@ -11,7 +11,8 @@ import org.bukkit.help.HelpMap;
 import org.bukkit.help.HelpTopic;
 import org.bukkit.util.ChatPaginator;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 
 public class HelpCommand extends VanillaCommand {
     public HelpCommand() {
@@ -56,17 +57,37 @@ public class HelpCommand extends VanillaCommand {
             topic = helpMap.getHelpTopic("/" + command);
         }
 
-        if (topic == null || !topic.canSee(sender)) {
-            sender.sendMessage(ChatColor.RED + "No help for " + command);
-            return true;
-        }
+        String title;
+        ChatPaginator.ChatPage page;
+
+        if (topic != null && topic.canSee(sender)) {
+            title = topic.getName();
+            page = topic.getFullTextPage(sender, pageNumber, pageWidth, pageHeight);
+        } else {
+            List<HelpTopic> matches = new ArrayList<HelpTopic>();
+            for (HelpTopic match : helpMap.matchHelpTopics(command)) {
+                if (match.canSee(sender)) {
+                    matches.add(match);
+                }
+            }
 
-        ChatPaginator.ChatPage page = ChatPaginator.paginate(topic.getFullText(sender), pageNumber, pageWidth, pageHeight);
+            if (matches.isEmpty()) {
+                sender.sendMessage(ChatColor.RED + "No help for " + command);
+                return true;
+            } else if (matches.size() == 1) {
+                topic = matches.get(0);
+                title = topic.getName();
+                page = topic.getFullTextPage(sender, pageNumber, pageWidth, pageHeight);
+            } else {
+                title = "Search: " + command;
+                page = ChatPaginator.paginate(getSearchResults(matches, pageWidth), pageNumber, pageHeight);
+            }
+        }
 
         StringBuilder header = new StringBuilder();
         header.append(ChatColor.GREEN);
         header.append("===== Help: ");
-        header.append(topic.getName());
+        header.append(title);
         header.append(" ");
         if (page.getTotalPages() > 1) {
             header.append("(");
@@ -85,6 +106,33 @@ public class HelpCommand extends VanillaCommand {
         return true;
     }
 
+    private String[] getSearchResults(List<HelpTopic> matches, int pageWidth) {
+        String[] lines = new String[matches.size()];
+
+        for (int i = 0; i < lines.length; i++) {
+            HelpTopic match = matches.get(i);
+            String line = ChatColor.GOLD + match.getName() + ": " + ChatColor.WHITE + match.getShortText();
+
+            lines[i] = truncate(line, pageWidth);
+        }
+
+        return lines;
+    }
+
+    private static String truncate(String line, int width) {
+        int visible = 0;
+
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == ChatColor.COLOR_CHAR) {
+                // Colour codes take no space, and must not be cut off from the character after them
+                i++;
+            } else if (++visible > width) {
+                return line.substring(0, i);
+            }
+        }
+        return line;
+    }
+
     @Override
     public boolean matches(String input) {
         return input.startsWith("help") || input.startsWith("?");
@@ -0,0 +1,18 @@
+package org.bukkit.entity;
+
+/**
+ * Visits entities one at a time, without collecting them first
+ *
+ * @param <T> Type of the entities being visited
+ * @see org.bukkit.World#forEachEntity(Class, EntityVisitor)
+ */
+public interface EntityVisitor<T extends Entity> {
+
+    /**
+     * Visits an entity
+     *
+     * @param entity The entity
+     * @return true to continue with the next entity, false to stop
+     */
+    public boolean visit(T entity);
+}
@@ -0,0 +1,359 @@
+package org.bukkit.generator;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.Material;
+import org.bukkit.material.MaterialData;
+
+/**
+ * The blocks of a chunk created by a {@link ChunkGenerator}, stored in sections of 16 blocks high.
+ * <p />
+ * A section is only allocated once a block other than air is placed in it, so empty sections cost no memory and
+ * can be skipped by whoever reads the data. Block IDs range from 0 to 4095 and data values from 0 to 15.
+ * <p />
+ * Setting or getting blocks outside of the chunk does nothing and returns air, respectively.
+ * This class is not thread safe.
+ */
+public class ChunkData {
+    /**
+     * Amount of blocks in a single section
+     */
+    public static final int SECTION_SIZE = 16 * 16 * 16;
+
+    private final int maxHeight;
+    private final char[][] sections;
+    // Amount of non-air blocks in each section, so sections which become empty can be released
+    private final int[] blockCounts;
+
+    /**
+     * Creates empty chunk data for a world of the given height
+     *
+     * @param maxHeight The maximum height of the world, which must be a multiple of 16
+     */
+    public ChunkData(int maxHeight) {
+        Validate.isTrue(maxHeight > 0 && maxHeight % 16 == 0, "Max height must be a positive multiple of 16");
+
+        this.maxHeight = maxHeight;
+        this.sections = new char[maxHeight >> 4][];
+        this.blockCounts = new int[maxHeight >> 4];
+    }
+
+    /**
+     * Creates chunk data from blocks in the format of {@link ChunkGenerator#generate(org.bukkit.World, java.util.Random, int, int)}
+     *
+     * @param blocks Block IDs, indexed by (x * 16 + z) * height + y
+     * @return New chunk data holding the blocks
+     */
+    public static ChunkData fromByteArray(byte[] blocks) {
+        Validate.notNull(blocks, "Blocks cannot be null");
+        Validate.isTrue(blocks.length % 256 == 0, "Blocks must hold a whole amount of layers");
+
+        int height = blocks.length / 256;
+        ChunkData data = new ChunkData(height);
+        int index = 0;
+
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                for (int y = 0; y < height; y++) {
+                    int id = blocks[index++] & 0xFF;
+
+                    if (id != 0) {
+                        data.set(x, y, z, id << 4);
+                    }
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Gets the maximum height of the chunk
+     *
+     * @return Maximum height
+     */
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * Sets the type of a block, clearing its data value
+     *
+     * @param x X-coordinate of the block, 0-15
+     * @param y Y-coordinate of the block
+     * @param z Z-coordinate of the block, 0-15
+     * @param material Type of the block
+     */
+    public void setBlock(int x, int y, int z, Material material) {
+        Validate.notNull(material, "Material cannot be null");
+
+        setBlock(x, y, z, material.getId(), (byte) 0);
+    }
+
+    /**
+     * Sets the type and data value of a block
+     *
+     * @param x X-coordinate of the block, 0-15
+     * @param y Y-coordinate of the block
+     * @param z Z-coordinate of the block, 0-15
+     * @param material Type and data value of the block
+     */
+    public void setBlock(int x, int y, int z, MaterialData material) {
+        Validate.notNull(material, "Material cannot be null");
+
+        setBlock(x, y, z, material.getItemTypeId(), material.getData());
+    }
+
+    /**
+     * Sets the type of a block, clearing its data value
+     *
+     * @param x X-coordinate of the block, 0-15
+     * @param y Y-coordinate of the block
+     * @param z Z-coordinate of the block, 0-15
+     * @param typeId Type ID of the block, 0-4095
+     */
+    public void setBlock(int x, int y, int z, int typeId) {
+        setBlock(x, y, z, typeId, (byte) 0);
+    }
+
+    /**
+     * Sets the type and data value of a block
+     *
+     * @param x X-coordinate of the block, 0-15
+     * @param y Y-coordinate of the block
+     * @param z Z-coordinate of the block, 0-15
+     * @param typeId Type ID of the block, 0-4095
+     * @param data Data value of the block, 0-15
+     */
+    public void setBlock(int x, int y, int z, int typeId, byte data) {
+        int block = pack(typeId, data);
+
+        if (x >= 0 && x < 16 && y >= 0 && y < maxHeight && z >= 0 && z < 16) {
+            set(x, y, z, block);
+        }
+    }
+
+    /**
+     * Gets the type ID of a block
+     *
+     * @param x X-coordinate of the block, 0-15
+     * @param y Y-coordinate of the block
+     * @param z Z-coordinate of the block, 0-15
+     * @return Type ID of the block, 0-4095
+     */
+    public int getTypeId(int x, int y, int z) {
+        return get(x, y, z) >> 4;
+    }
+
+    /**
+     * Gets the data value of a block
+     *
+     * @param x X-coordinate of the block, 0-15
+     * @param y Y-coordinate of the block
+     * @param z Z-coordinate of the block, 0-15
+     * @return Data value of the block, 0-15
+     */
+    public byte getData(int x, int y, int z) {
+        return (byte) (get(x, y, z) & 15);
+    }
+
+    /**
+     * Sets every block of a region to the given type and data value.
+     * The region is clipped to the chunk.
+     *
+     * @param xMin Lowest X-coordinate of the region, inclusive
+     * @param yMin Lowest Y-coordinate of the region, inclusive
+     * @param zMin Lowest Z-coordinate of the region, inclusive
+     * @param xMax Highest X-coordinate of the region, exclusive
+     * @param yMax Highest Y-coordinate of the region, exclusive
+     * @param zMax Highest Z-coordinate of the region, exclusive
+     * @param typeId Type ID of the blocks, 0-4095
+     * @param data Data value of the blocks, 0-15
+     */
+    public void setRegion(int xMin, int yMin, int zMin, int xMax, int yMax, int zMax, int typeId, byte data) {
+        int block = pack(typeId, data);
+
+        xMin = Math.max(xMin, 0);
+        yMin = Math.max(yMin, 0);
+        zMin = Math.max(zMin, 0);
+        xMax = Math.min(xMax, 16);
+        yMax = Math.min(yMax, maxHeight);
+        zMax = Math.min(zMax, 16);
+
+        if (xMin >= xMax || yMin >= yMax || zMin >= zMax) {
+            return;
+        }
+
+        for (int sy = yMin >> 4; sy <= (yMax - 1) >> 4; sy++) {
+            int sectionMin = Math.max(yMin, sy << 4);
+            int sectionMax = Math.min(yMax, (sy + 1) << 4);
+
+            if (block == 0 && sections[sy] == null) {
+                continue;
+            }
+
+            if (xMin == 0 && zMin == 0 && xMax == 16 && zMax == 16 && sectionMin == sy << 4 && sectionMax == (sy + 1) << 4) {
+                // The whole section is replaced, so it can be filled or released at once
+                if (block == 0) {
+                    sections[sy] = null;
+                    blockCounts[sy] = 0;
+                } else {
+                    if (sections[sy] == null) {
+                        sections[sy] = new char[SECTION_SIZE];
+                    }
+                    Arrays.fill(sections[sy], (char) block);
+                    blockCounts[sy] = SECTION_SIZE;
+                }
+                continue;
+            }
+
+            for (int y = sectionMin; y < sectionMax; y++) {
+                for (int z = zMin; z < zMax; z++) {
+                    for (int x = xMin; x < xMax; x++) {
+                        set(x, y, z, block);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets every block of a region to the given type, clearing their data values.
+     * The region is clipped to the chunk.
+     *
+     * @param xMin Lowest X-coordinate of the region, inclusive
+     * @param yMin Lowest Y-coordinate of the region, inclusive
+     * @param zMin Lowest Z-coordinate of the region, inclusive
+     * @param xMax Highest X-coordinate of the region, exclusive
+     * @param yMax Highest Y-coordinate of the region, exclusive
+     * @param zMax Highest Z-coordinate of the region, exclusive
+     * @param material Type of the blocks
+     */
+    public void setRegion(int xMin, int yMin, int zMin, int xMax, int yMax, int zMax, Material material) {
+        Validate.notNull(material, "Material cannot be null");
+
+        setRegion(xMin, yMin, zMin, xMax, yMax, zMax, material.getId(), (byte) 0);
+    }
+
+    /**
+     * Sets every block at a Y-coordinate to the given type and data value
+     *
+     * @param y Y-coordinate of the layer
+     * @param typeId Type ID of the blocks, 0-4095
+     * @param data Data value of the blocks, 0-15
+     */
+    public void fillLayer(int y, int typeId, byte data) {
+        setRegion(0, y, 0, 16, y + 1, 16, typeId, data);
+    }
+
+    /**
+     * Sets every block at a Y-coordinate to the given type, clearing their data values
+     *
+     * @param y Y-coordinate of the layer
+     * @param material Type of the blocks
+     */
+    public void fillLayer(int y, Material material) {
+        Validate.notNull(material, "Material cannot be null");
+
+        fillLayer(y, material.getId(), (byte) 0);
+    }
+
+    /**
+     * Gets the amount of sections in the chunk, which is the max height divided by 16
+     *
+     * @return Amount of sections
+     */
+    public int getSectionCount() {
+        return sections.length;
+    }
+
+    /**
+     * Checks if a section only contains air
+     *
+     * @param sy Section Y-coordinate (block Y / 16)
+     * @return true if the section is empty
+     */
+    public boolean isSectionEmpty(int sy) {
+        return sy < 0 || sy >= sections.length || sections[sy] == null;
+    }
+
+    /**
+     * Gets the raw blocks of a section, which are not copied.
+     * <p />
+     * Each block is stored as (type ID &lt;&lt; 4) | data value, at index (y &amp; 15) &lt;&lt; 8 | z &lt;&lt; 4 | x.
+     * Changes made to the array are not tracked, so it should only be read.
+     *
+     * @param sy Section Y-coordinate (block Y / 16)
+     * @return The blocks of the section, or null if it is empty
+     */
+    public char[] getSection(int sy) {
+        return isSectionEmpty(sy) ? null : sections[sy];
+    }
+
+    /**
+     * Converts the blocks to the format of {@link ChunkGenerator#generate(org.bukkit.World, java.util.Random, int, int)}.
+     * Only the lower 8 bits of each type ID are kept, and data values are lost.
+     *
+     * @return Block IDs, indexed by (x * 16 + z) * max height + y
+     */
+    public byte[] toByteArray() {
+        byte[] blocks = new byte[256 * maxHeight];
+
+        for (int sy = 0; sy < sections.length; sy++) {
+            char[] section = sections[sy];
+
+            if (section == null) {
+                continue;
+            }
+
+            for (int index = 0; index < SECTION_SIZE; index++) {
+                int x = index & 15;
+                int z = (index >> 4) & 15;
+                int y = (sy << 4) | (index >> 8);
+                blocks[(x * 16 + z) * maxHeight + y] = (byte) (section[index] >> 4);
+            }
+        }
+        return blocks;
+    }
+
+    private static int pack(int typeId, byte data) {
+        Validate.isTrue(typeId >= 0 && typeId < 4096, "Type ID must be between 0 and 4095");
+        Validate.isTrue(data >= 0 && data < 16, "Data value must be between 0 and 15");
+
+        // Air never keeps a data value, so every air block is stored as 0
+        return typeId == 0 ? 0 : typeId << 4 | data;
+    }
+
+    private int get(int x, int y, int z) {
+        if (x < 0 || x >= 16 || y < 0 || y >= maxHeight || z < 0 || z >= 16) {
+            return 0;
+        }
+
+        char[] section = sections[y >> 4];
+        return section == null ? 0 : section[(y & 15) << 8 | z << 4 | x];
+    }
+
+    private void set(int x, int y, int z, int block) {
+        int sy = y >> 4;
+        char[] section = sections[sy];
+
+        if (section == null) {
+            if (block == 0) {
+                return;
+            }
+            section = new char[SECTION_SIZE];
+            sections[sy] = section;
+        }
+
+        int index = (y & 15) << 8 | z << 4 | x;
+        boolean wasAir = section[index] == 0;
+        boolean isAir = block == 0;
+        section[index] = (char) block;
+
+        if (wasAir && !isAir) {
+            blockCounts[sy]++;
+        } else if (!wasAir && isAir && --blockCounts[sy] == 0) {
+            sections[sy] = null;
+        }
+    }
+}
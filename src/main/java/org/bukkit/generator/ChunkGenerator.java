@@ -30,6 +30,13 @@ public abstract class ChunkGenerator {
      *
      * Note that this method should <b>never</b> attempt to get the Chunk at
      * the passed coordinates, as doing so may cause an infinite loop
+     * <p />
+     * If {@link #isParallelCapable()} returns true, this method may be called
+     * for several chunks at once from threads other than the main thread.
+     * <p />
+     * Generators which need block IDs above 255 or data values may also override
+     * {@link #generateChunkData(World, Random, int, int)}, which servers call
+     * instead of this method.
      *
      * @param world The world this chunk will be used for
      * @param random The random generator to use
@@ -39,6 +46,42 @@ public abstract class ChunkGenerator {
      */
     public abstract byte[] generate(World world, Random random, int x, int z);
 
+    /**
+     * Shapes the chunk for the given coordinates, as sections of 16 blocks high.
+     * <p />
+     * Unlike {@link #generate(World, Random, int, int)}, this supports block IDs
+     * above 255 and data values, and sections left empty are never allocated.
+     * By default this wraps the result of generate.
+     * <p />
+     * The same restrictions as for generate apply.
+     *
+     * @param world The world this chunk will be used for
+     * @param random The random generator to use
+     * @param x The X-coordinate of the chunk
+     * @param z The Z-coordinate of the chunk
+     * @return ChunkData containing the blocks created by this generator, as high as {@link World#getMaxHeight()}
+     */
+    public ChunkData generateChunkData(World world, Random random, int x, int z) {
+        return ChunkData.fromByteArray(generate(world, random, x, z));
+    }
+
+    /**
+     * Checks if {@link #generate(World, Random, int, int)} and
+     * {@link #generateChunkData(World, Random, int, int)} may be called
+     * concurrently, from any thread.
+     * <p />
+     * A parallel capable generator must only use the Random it is given for
+     * each call, must return new blocks every time, and must not read or
+     * modify the world other than through thread safe methods such as
+     * {@link World#getSeed()}. Shared state, such as noise generators, must be
+     * safe to use from several threads.
+     *
+     * @return true if chunks may be generated in parallel, false by default
+     */
+    public boolean isParallelCapable() {
+        return false;
+    }
+
     /**
      * Tests if the specified location is valid for a natural spawn position
      *
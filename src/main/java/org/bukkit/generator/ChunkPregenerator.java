@@ -0,0 +1,212 @@
+package org.bukkit.generator;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.World;
+
+/**
+ * Generates the blocks of a rectangle of chunks ahead of time, using the given executor for generators which are
+ * {@link ChunkGenerator#isParallelCapable() parallel capable}.
+ * <p />
+ * Each chunk is generated with its own Random, seeded from the seed of the world and the coordinates of the chunk,
+ * so the result does not depend on the order or the thread chunks are generated in. Generators which are not
+ * parallel capable are called one chunk at a time on the thread calling {@link #generate(int, int, int, int, ChunkHandler)}.
+ */
+public class ChunkPregenerator {
+    private final World world;
+    private final ChunkGenerator generator;
+    private final Executor executor;
+    private final int maxPending;
+    private final ChunkSeeds seeds;
+    private final AtomicLong generated = new AtomicLong();
+    private volatile long startTime = 0;
+    private volatile long endTime = 0;
+    private volatile boolean cancelled = false;
+
+    /**
+     * Receives the chunks generated by a ChunkPregenerator
+     */
+    public interface ChunkHandler {
+        /**
+         * Called on the thread running the pregenerator for each generated chunk, in the order chunks complete
+         *
+         * @param x The X-coordinate of the chunk
+         * @param z The Z-coordinate of the chunk
+         * @param data The blocks returned by the generator
+         */
+        public void handleChunk(int x, int z, ChunkData data);
+    }
+
+    private static class GeneratedChunk {
+        private final int x;
+        private final int z;
+        private final ChunkData data;
+
+        private GeneratedChunk(int x, int z, ChunkData data) {
+            this.x = x;
+            this.z = z;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Creates a pregenerator for a world
+     *
+     * @param world World the chunks are generated for
+     * @param generator Generator creating the chunks
+     * @param executor Executor running the generator, if it is parallel capable
+     * @param parallelism Amount of chunks the executor can generate at once
+     */
+    public ChunkPregenerator(World world, ChunkGenerator generator, Executor executor, int parallelism) {
+        Validate.notNull(world, "World cannot be null");
+        Validate.notNull(generator, "Generator cannot be null");
+        Validate.notNull(executor, "Executor cannot be null");
+        Validate.isTrue(parallelism > 0, "Parallelism must be positive");
+
+        this.world = world;
+        this.generator = generator;
+        this.executor = executor;
+        // Keep every thread busy without holding on to more finished chunks than needed
+        this.maxPending = parallelism * 2;
+        this.seeds = new ChunkSeeds(world.getSeed());
+    }
+
+    /**
+     * Generates every chunk from (minX, minZ) up to and including (maxX, maxZ), passing them to a handler.
+     * <p />
+     * If generating a chunk fails, chunks which have not been generated yet are skipped and the exception is thrown.
+     *
+     * @param minX Lowest X-coordinate of the chunks
+     * @param minZ Lowest Z-coordinate of the chunks
+     * @param maxX Highest X-coordinate of the chunks
+     * @param maxZ Highest Z-coordinate of the chunks
+     * @param handler Handler receiving every generated chunk
+     * @return Amount of chunks generated
+     * @throws InterruptedException If the calling thread was interrupted while waiting for a chunk
+     * @throws ExecutionException If the generator or the executor threw an exception
+     */
+    public long generate(int minX, int minZ, int maxX, int maxZ, ChunkHandler handler) throws InterruptedException, ExecutionException {
+        Validate.isTrue(minX <= maxX && minZ <= maxZ, "Minimum coordinates cannot be greater than maximum coordinates");
+        Validate.notNull(handler, "Handler cannot be null");
+
+        generated.set(0);
+        cancelled = false;
+        startTime = System.nanoTime();
+        endTime = 0;
+
+        try {
+            if (generator.isParallelCapable()) {
+                generateParallel(minX, minZ, maxX, maxZ, handler);
+            } else {
+                for (int x = minX; x <= maxX && !cancelled; x++) {
+                    for (int z = minZ; z <= maxZ && !cancelled; z++) {
+                        handler.handleChunk(x, z, generateChunk(x, z));
+                        generated.incrementAndGet();
+                    }
+                }
+            }
+        } finally {
+            endTime = System.nanoTime();
+        }
+
+        return generated.get();
+    }
+
+    private void generateParallel(int minX, int minZ, int maxX, int maxZ, ChunkHandler handler) throws InterruptedException, ExecutionException {
+        CompletionService<GeneratedChunk> service = new ExecutorCompletionService<GeneratedChunk>(executor);
+        Set<Future<GeneratedChunk>> pending = new HashSet<Future<GeneratedChunk>>();
+
+        try {
+            for (int x = minX; x <= maxX && !cancelled; x++) {
+                for (int z = minZ; z <= maxZ && !cancelled; z++) {
+                    final int chunkX = x;
+                    final int chunkZ = z;
+
+                    pending.add(service.submit(new Callable<GeneratedChunk>() {
+                        public GeneratedChunk call() {
+                            return new GeneratedChunk(chunkX, chunkZ, generateChunk(chunkX, chunkZ));
+                        }
+                    }));
+
+                    if (pending.size() >= maxPending) {
+                        handleNext(service, pending, handler);
+                    }
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                handleNext(service, pending, handler);
+            }
+        } finally {
+            for (Future<GeneratedChunk> future : pending) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private void handleNext(CompletionService<GeneratedChunk> service, Set<Future<GeneratedChunk>> pending, ChunkHandler handler) throws InterruptedException, ExecutionException {
+        Future<GeneratedChunk> future = service.take();
+        pending.remove(future);
+
+        GeneratedChunk chunk = future.get();
+        handler.handleChunk(chunk.x, chunk.z, chunk.data);
+        generated.incrementAndGet();
+    }
+
+    private ChunkData generateChunk(int x, int z) {
+        return generator.generateChunkData(world, getChunkRandom(x, z), x, z);
+    }
+
+    /**
+     * Creates the Random used to generate a chunk, which only depends on the seed of the world and the coordinates
+     *
+     * @param x The X-coordinate of the chunk
+     * @param z The Z-coordinate of the chunk
+     * @return New Random for the chunk
+     */
+    public Random getChunkRandom(int x, int z) {
+        return seeds.getRandom(x, z);
+    }
+
+    /**
+     * Stops generating chunks. Chunks which are already being generated are still passed to the handler.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns the amount of chunks generated by the current or last run
+     *
+     * @return Amount of generated chunks
+     */
+    public long getGeneratedCount() {
+        return generated.get();
+    }
+
+    /**
+     * Returns the rate chunks were generated at during the current or last run
+     *
+     * @return Chunks generated per second, or 0 if nothing was generated yet
+     */
+    public double getChunksPerSecond() {
+        long start = startTime;
+        long end = endTime;
+        long elapsed = (end == 0 ? System.nanoTime() : end) - start;
+
+        if (start == 0 || elapsed <= 0) {
+            return 0;
+        }
+        return generated.get() * 1000000000.0 / elapsed;
+    }
+}
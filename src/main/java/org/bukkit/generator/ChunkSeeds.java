@@ -0,0 +1,25 @@
+package org.bukkit.generator;
+
+import java.util.Random;
+
+/**
+ * Creates a Random for each chunk of a world, which only depends on the seed of the world and the coordinates of
+ * the chunk, so the result does not depend on the order or the thread chunks are handled in.
+ */
+final class ChunkSeeds {
+    private final long seed;
+    private final long xSeed;
+    private final long zSeed;
+
+    ChunkSeeds(long seed) {
+        Random random = new Random(seed);
+
+        this.seed = seed;
+        this.xSeed = random.nextLong() / 2 * 2 + 1;
+        this.zSeed = random.nextLong() / 2 * 2 + 1;
+    }
+
+    Random getRandom(int x, int z) {
+        return new Random(x * xSeed + z * zSeed ^ seed);
+    }
+}
@@ -0,0 +1,36 @@
+package org.bukkit.generator;
+
+import java.util.Random;
+import org.bukkit.BlockChangeDelegate;
+import org.bukkit.World;
+
+/**
+ * A {@link BlockPopulator} which may populate several chunks at the same time, from any thread, as done by a
+ * {@link PopulationScheduler}.
+ * <p />
+ * A parallel populator must only use the Random it is given for each call, and must only access blocks through the
+ * delegate and within its footprint. Shared state must be safe to use from several threads.
+ */
+public interface ParallelBlockPopulator {
+    /**
+     * Populates an area of blocks at or around the given chunk, reading and writing blocks only through the given
+     * delegate.
+     * <p />
+     * Only blocks within {@link #getFootprintRadius()} chunks of the given chunk may be accessed.
+     *
+     * @param world The world to generate in, which must not be modified directly
+     * @param random The random generator to use
+     * @param chunkX The X-coordinate of the chunk to generate for
+     * @param chunkZ The Z-coordinate of the chunk to generate for
+     * @param delegate Delegate to read and write blocks with, using world coordinates
+     */
+    public void populate(World world, Random random, int chunkX, int chunkZ, BlockChangeDelegate delegate);
+
+    /**
+     * Gets the amount of chunks around the populated chunk this populator may read or write blocks in. Chunks whose
+     * footprints overlap are never populated at the same time.
+     *
+     * @return Radius of the footprint in chunks
+     */
+    public int getFootprintRadius();
+}
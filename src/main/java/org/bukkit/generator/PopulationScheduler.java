@@ -0,0 +1,258 @@
+package org.bukkit.generator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.BlockChangeDelegate;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+
+/**
+ * Runs the {@link ParallelBlockPopulator parallel} populators of a world for many chunks at once, using the given
+ * executor.
+ * <p />
+ * Chunks are populated at the same time only if the footprints of their populators do not overlap. Chunks whose
+ * footprints do overlap are populated in the order they were given, so the result does not depend on timing.
+ * Populators which are not parallel are skipped, and should be run by the caller afterwards.
+ * <p />
+ * This class is not thread safe.
+ */
+public class PopulationScheduler {
+    private final World world;
+    private final List<ParallelBlockPopulator> populators;
+    private final Executor executor;
+    private final int parallelism;
+    private final int radius;
+    private final ChunkSeeds seeds;
+
+    /**
+     * Supplies the delegates populators write through, and receives them once a chunk is populated
+     */
+    public interface PopulationHandler {
+        /**
+         * Creates the delegate the populators of a chunk use to access blocks, such as a
+         * {@link org.bukkit.BufferedBlockChangeDelegate} which is committed once the chunk is populated.
+         * Called on the thread which populates the chunk.
+         *
+         * @param chunkX The X-coordinate of the populated chunk
+         * @param chunkZ The Z-coordinate of the populated chunk
+         * @param radius Amount of chunks around the populated chunk the populators may access
+         * @return New delegate for the populators
+         */
+        public BlockChangeDelegate createDelegate(int chunkX, int chunkZ, int radius);
+
+        /**
+         * Called on the thread running the scheduler once every populator has been run for a chunk.
+         * No chunk overlapping the footprint is populated until this method returns.
+         *
+         * @param chunkX The X-coordinate of the populated chunk
+         * @param chunkZ The Z-coordinate of the populated chunk
+         * @param delegate The delegate the populators used
+         */
+        public void populated(int chunkX, int chunkZ, BlockChangeDelegate delegate);
+    }
+
+    private static class PopulatedChunk {
+        private final int x;
+        private final int z;
+        private final BlockChangeDelegate delegate;
+
+        private PopulatedChunk(int x, int z, BlockChangeDelegate delegate) {
+            this.x = x;
+            this.z = z;
+            this.delegate = delegate;
+        }
+    }
+
+    /**
+     * Creates a scheduler for the given populators
+     *
+     * @param world World the chunks are populated in
+     * @param populators Populators to run, in order, of which only the parallel ones are used
+     * @param executor Executor running the populators
+     * @param parallelism Maximum amount of chunks to populate at once
+     */
+    public PopulationScheduler(World world, List<BlockPopulator> populators, Executor executor, int parallelism) {
+        Validate.notNull(world, "World cannot be null");
+        Validate.noNullElements(populators, "Populators cannot be null");
+        Validate.notNull(executor, "Executor cannot be null");
+        Validate.isTrue(parallelism > 0, "Parallelism must be positive");
+
+        List<ParallelBlockPopulator> parallel = new ArrayList<ParallelBlockPopulator>();
+        int maxRadius = 0;
+
+        for (BlockPopulator populator : populators) {
+            if (populator instanceof ParallelBlockPopulator) {
+                ParallelBlockPopulator parallelPopulator = (ParallelBlockPopulator) populator;
+                Validate.isTrue(parallelPopulator.getFootprintRadius() >= 0, "Footprint radius of " + populator.getClass().getName() + " cannot be negative");
+
+                parallel.add(parallelPopulator);
+                maxRadius = Math.max(maxRadius, parallelPopulator.getFootprintRadius());
+            }
+        }
+
+        this.world = world;
+        this.populators = Collections.unmodifiableList(parallel);
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.radius = maxRadius;
+        this.seeds = new ChunkSeeds(world.getSeed());
+    }
+
+    /**
+     * Gets the populators run by this scheduler
+     *
+     * @return Unmodifiable list of the parallel populators
+     */
+    public List<ParallelBlockPopulator> getPopulators() {
+        return populators;
+    }
+
+    /**
+     * Gets the amount of chunks around a populated chunk which may be accessed, the largest footprint of the populators
+     *
+     * @return Radius of the footprint in chunks
+     */
+    public int getFootprintRadius() {
+        return radius;
+    }
+
+    /**
+     * Populates every given chunk, blocking until they are all done.
+     * <p />
+     * If a populator fails, chunks which have not been started yet are skipped and the exception is thrown.
+     *
+     * @param chunks Chunks to populate
+     * @param handler Handler supplying and receiving the delegates
+     * @return Amount of chunks populated
+     * @throws InterruptedException If the calling thread was interrupted while waiting for a chunk
+     * @throws ExecutionException If a populator, creating a delegate or the executor threw an exception
+     */
+    public int populate(Collection<? extends Chunk> chunks, final PopulationHandler handler) throws InterruptedException, ExecutionException {
+        Validate.noNullElements(chunks, "Chunks cannot be null");
+        Validate.notNull(handler, "Handler cannot be null");
+
+        if (populators.isEmpty()) {
+            return 0;
+        }
+
+        List<int[]> pending = new LinkedList<int[]>();
+        for (Chunk chunk : chunks) {
+            pending.add(new int[] {chunk.getX(), chunk.getZ()});
+        }
+
+        CompletionService<PopulatedChunk> service = new ExecutorCompletionService<PopulatedChunk>(executor);
+        Set<Future<PopulatedChunk>> running = new HashSet<Future<PopulatedChunk>>();
+        Set<Long> locked = new HashSet<Long>();
+        int populated = 0;
+
+        try {
+            while (!pending.isEmpty() || !running.isEmpty()) {
+                startChunks(pending, locked, running, service, handler);
+
+                Future<PopulatedChunk> future = service.take();
+                running.remove(future);
+
+                PopulatedChunk chunk = future.get();
+                try {
+                    handler.populated(chunk.x, chunk.z, chunk.delegate);
+                } finally {
+                    setLocked(locked, chunk.x, chunk.z, false);
+                }
+                populated++;
+            }
+        } finally {
+            for (Future<PopulatedChunk> future : running) {
+                future.cancel(false);
+            }
+        }
+
+        return populated;
+    }
+
+    private void startChunks(List<int[]> pending, Set<Long> locked, Set<Future<PopulatedChunk>> running, CompletionService<PopulatedChunk> service, final PopulationHandler handler) {
+        // Chunks passed over still claim their footprint, so later chunks cannot overtake them
+        Set<Long> claimed = new HashSet<Long>(locked);
+        Iterator<int[]> it = pending.iterator();
+
+        while (it.hasNext() && running.size() < parallelism) {
+            int[] coords = it.next();
+            final int x = coords[0];
+            final int z = coords[1];
+
+            if (overlaps(claimed, x, z)) {
+                setLocked(claimed, x, z, true);
+                continue;
+            }
+
+            it.remove();
+            setLocked(claimed, x, z, true);
+            setLocked(locked, x, z, true);
+
+            running.add(service.submit(new Callable<PopulatedChunk>() {
+                public PopulatedChunk call() {
+                    BlockChangeDelegate delegate = handler.createDelegate(x, z, radius);
+                    Random random = getChunkRandom(x, z);
+
+                    for (ParallelBlockPopulator populator : populators) {
+                        populator.populate(world, random, x, z, delegate);
+                    }
+                    return new PopulatedChunk(x, z, delegate);
+                }
+            }));
+        }
+    }
+
+    private boolean overlaps(Set<Long> chunks, int x, int z) {
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                if (chunks.contains(getKey(x + dx, z + dz))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void setLocked(Set<Long> chunks, int x, int z, boolean lock) {
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                if (lock) {
+                    chunks.add(getKey(x + dx, z + dz));
+                } else {
+                    chunks.remove(getKey(x + dx, z + dz));
+                }
+            }
+        }
+    }
+
+    private static long getKey(int x, int z) {
+        return (long) x << 32 | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Creates the Random the populators of a chunk share, which only depends on the seed of the world and the
+     * coordinates
+     *
+     * @param x The X-coordinate of the chunk
+     * @param z The Z-coordinate of the chunk
+     * @return New Random for the chunk
+     */
+    public Random getChunkRandom(int x, int z) {
+        return seeds.getRandom(x, z);
+    }
+}
@@ -1,5 +1,7 @@
 package org.bukkit.help;
 
+import java.util.List;
+
 /**
  * The HelpMap tracks all help topics registered in a Bukkit server. When the server starts up or is reloaded,
  * help is processed and topics are added in the following order:
@@ -18,6 +20,16 @@ public interface HelpMap {
      */
     public HelpTopic getHelpTopic(String topicName);
 
+    /**
+     * Returns every help topic whose name starts with or contains the query, ignoring case. Topics whose name
+     * starts with the query, or with the query preceded by a '/', are listed first.
+     *
+     * @param query The text to search for.
+     * @return A list of matching topics, which is empty if none can be found.
+     * @see HelpTopicIndex
+     */
+    public List<HelpTopic> matchHelpTopics(String query);
+
     /**
      * Adds a topic to the server's help index.
      *
@@ -1,7 +1,11 @@
 package org.bukkit.help;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.util.ChatPaginator;
 
 /**
  * HelpTopic implementations are displayed to the user when the user uses the /help command.
@@ -17,7 +21,25 @@ public abstract class HelpTopic {
     protected String name;
     protected String shortText;
     protected String fullText;
-    
+    private final Map<Integer, WrappedText> wrappedText = new HashMap<Integer, WrappedText>();
+
+    /**
+     * The result of word wrapping a full text to a line length
+     */
+    private static final class WrappedText {
+        private final String text;
+        private final String[] lines;
+
+        private WrappedText(String text, String[] lines) {
+            this.text = text;
+            this.lines = lines;
+        }
+
+        private boolean isFor(String other) {
+            return text == other || (text != null && text.equals(other));
+        }
+    }
+
     /**
      * Determines if a {@link Player} is allowed to see this help topic.
      *
@@ -55,6 +77,37 @@ public abstract class HelpTopic {
         return fullText;
     }
 
+    /**
+     * Returns a single page of the full description of this help topic, word wrapped to fit the user's client.
+     * <p />
+     * The word wrapped text is cached per line length, and is only wrapped again once {@link #getFullText(CommandSender)}
+     * returns a different text.
+     *
+     * @param forWho The player or console requesting the full text.
+     * @param pageNumber The page number to fetch.
+     * @param lineLength The desired width of a chat line.
+     * @param pageHeight The desired number of lines in a page.
+     * @return A single chat page.
+     */
+    public ChatPaginator.ChatPage getFullTextPage(CommandSender forWho, int pageNumber, int lineLength, int pageHeight) {
+        String text = getFullText(forWho);
+        WrappedText wrapped;
+
+        synchronized (wrappedText) {
+            wrapped = wrappedText.get(lineLength);
+        }
+
+        if (wrapped == null || !wrapped.isFor(text)) {
+            wrapped = new WrappedText(text, ChatPaginator.wordWrap(text, lineLength));
+
+            synchronized (wrappedText) {
+                wrappedText.put(lineLength, wrapped);
+            }
+        }
+
+        return ChatPaginator.paginate(wrapped.lines, pageNumber, pageHeight);
+    }
+
     /**
      * Allows the server admin (or another plugin) to add or replace the contents of a help topic. A null in
      * either parameter will leave that part of the topic unchanged. In either amending parameter, the string
@@ -67,6 +120,10 @@ public abstract class HelpTopic {
     public void amendTopic(String amendedShortText, String amendedFullText) {
         shortText = applyAmendment(shortText, amendedShortText);
         fullText = applyAmendment(fullText, amendedFullText);
+
+        synchronized (wrappedText) {
+            wrappedText.clear();
+        }
     }
 
     /**
@@ -0,0 +1,183 @@
+package org.bukkit.help;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.util.PrefixTrie;
+
+/**
+ * Indexes help topics by name, so that {@link HelpMap#matchHelpTopics(String)} does not need to compare the query
+ * with every topic. Implementations of HelpMap may keep an instance of this class next to their topics.
+ * <p />
+ * Names are matched ignoring case. Topics whose name contains the query are found through the three character
+ * sequences of their name, so only topics sharing the rarest sequence of the query are compared with it.
+ * <p />
+ * This class is not thread safe.
+ */
+public class HelpTopicIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final Comparator<IndexedTopic> BY_NAME = new Comparator<IndexedTopic>() {
+        public int compare(IndexedTopic a, IndexedTopic b) {
+            return a.key.compareTo(b.key);
+        }
+    };
+
+    private final Map<String, IndexedTopic> byName = new HashMap<String, IndexedTopic>();
+    private final PrefixTrie<IndexedTopic> byPrefix = new PrefixTrie<IndexedTopic>();
+    private final Map<String, Set<IndexedTopic>> byGram = new HashMap<String, Set<IndexedTopic>>();
+
+    private static final class IndexedTopic {
+        private final HelpTopic topic;
+        private final String lowerName;
+        // Lower case name followed by the exact name, so topics differing only in case get their own key
+        private final String key;
+
+        private IndexedTopic(HelpTopic topic) {
+            this.topic = topic;
+            this.lowerName = topic.getName().toLowerCase();
+            this.key = lowerName + '\u0000' + topic.getName();
+        }
+    }
+
+    /**
+     * Adds a topic to the index, replacing any topic with the same name
+     *
+     * @param topic The topic to add
+     */
+    public void addTopic(HelpTopic topic) {
+        Validate.notNull(topic, "Topic cannot be null");
+        Validate.notNull(topic.getName(), "Topic name cannot be null");
+
+        removeTopic(topic.getName());
+
+        IndexedTopic indexed = new IndexedTopic(topic);
+        byName.put(topic.getName(), indexed);
+        byPrefix.put(indexed.key, indexed);
+
+        for (int i = 0; i + GRAM_LENGTH <= indexed.lowerName.length(); i++) {
+            String gram = indexed.lowerName.substring(i, i + GRAM_LENGTH);
+            Set<IndexedTopic> topics = byGram.get(gram);
+
+            if (topics == null) {
+                topics = new HashSet<IndexedTopic>();
+                byGram.put(gram, topics);
+            }
+            topics.add(indexed);
+        }
+    }
+
+    /**
+     * Removes the topic with the given name from the index
+     *
+     * @param name The exact name of the topic
+     * @return The removed topic, or null if there was none
+     */
+    public HelpTopic removeTopic(String name) {
+        IndexedTopic indexed = byName.remove(name);
+
+        if (indexed == null) {
+            return null;
+        }
+
+        byPrefix.remove(indexed.key);
+
+        for (int i = 0; i + GRAM_LENGTH <= indexed.lowerName.length(); i++) {
+            String gram = indexed.lowerName.substring(i, i + GRAM_LENGTH);
+            Set<IndexedTopic> topics = byGram.get(gram);
+
+            if (topics != null) {
+                topics.remove(indexed);
+
+                if (topics.isEmpty()) {
+                    byGram.remove(gram);
+                }
+            }
+        }
+
+        return indexed.topic;
+    }
+
+    /**
+     * Removes every topic from the index
+     */
+    public void clear() {
+        byName.clear();
+        byPrefix.clear();
+        byGram.clear();
+    }
+
+    /**
+     * Gets the amount of indexed topics
+     *
+     * @return Amount of topics
+     */
+    public int size() {
+        return byName.size();
+    }
+
+    /**
+     * Finds every topic whose name starts with or contains the query, ignoring case.
+     * <p />
+     * Topics whose name starts with the query, or with the query preceded by a '/', come first. Both groups are
+     * ordered by name.
+     *
+     * @param query Text to search for
+     * @return Matching topics
+     */
+    public List<HelpTopic> match(String query) {
+        Validate.notNull(query, "Query cannot be null");
+
+        String lowerQuery = query.toLowerCase();
+        Set<IndexedTopic> found = new LinkedHashSet<IndexedTopic>();
+
+        List<IndexedTopic> prefixed = byPrefix.getValuesWithPrefix(lowerQuery, new ArrayList<IndexedTopic>());
+        if (!lowerQuery.startsWith("/")) {
+            byPrefix.getValuesWithPrefix("/" + lowerQuery, prefixed);
+            Collections.sort(prefixed, BY_NAME);
+        }
+        found.addAll(prefixed);
+
+        List<IndexedTopic> contained = new ArrayList<IndexedTopic>();
+        for (IndexedTopic indexed : getCandidates(lowerQuery)) {
+            if (!found.contains(indexed) && indexed.lowerName.contains(lowerQuery)) {
+                contained.add(indexed);
+            }
+        }
+        Collections.sort(contained, BY_NAME);
+        found.addAll(contained);
+
+        List<HelpTopic> result = new ArrayList<HelpTopic>(found.size());
+        for (IndexedTopic indexed : found) {
+            result.add(indexed.topic);
+        }
+        return result;
+    }
+
+    private Iterable<IndexedTopic> getCandidates(String lowerQuery) {
+        if (lowerQuery.length() < GRAM_LENGTH) {
+            return byName.values();
+        }
+
+        Set<IndexedTopic> smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= lowerQuery.length(); i++) {
+            Set<IndexedTopic> topics = byGram.get(lowerQuery.substring(i, i + GRAM_LENGTH));
+
+            if (topics == null) {
+                return Collections.emptySet();
+            }
+
+            if (smallest == null || topics.size() < smallest.size()) {
+                smallest = topics;
+            }
+        }
+        return smallest;
+    }
+}
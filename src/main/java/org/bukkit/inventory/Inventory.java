@@ -64,6 +64,24 @@ public interface Inventory extends Iterable<ItemStack> {
      */
     public HashMap<Integer, ItemStack> removeItem(ItemStack... items);
 
+    /**
+     * Stores all of the given ItemStacks in the inventory, or none of them if they don't all fit.
+     *
+     * @param items The ItemStacks to add
+     * @return True if the items were added, false if the inventory was left untouched.
+     * @see InventoryTransaction
+     */
+    public boolean addItemAtomically(ItemStack... items);
+
+    /**
+     * Removes all of the given ItemStacks from the inventory, or none of them if they can't all be found.
+     *
+     * @param items The ItemStacks to remove
+     * @return True if the items were removed, false if the inventory was left untouched.
+     * @see InventoryTransaction
+     */
+    public boolean removeItemAtomically(ItemStack... items);
+
     /**
      * Get all ItemStacks from the inventory
      *
@@ -95,6 +113,32 @@ public interface Inventory extends Iterable<ItemStack> {
      */
     public boolean contains(Material material);
 
+    /**
+     * Counts the items with the given materialId in every slot
+     *
+     * @param materialId The materialId to count
+     * @return The total amount of items
+     * @see MaterialSlotIndex
+     */
+    public int count(int materialId);
+
+    /**
+     * Counts the items with the given material in every slot
+     *
+     * @param material The material to count
+     * @return The total amount of items
+     */
+    public int count(Material material);
+
+    /**
+     * Counts the items similar to the given ItemStack in every slot, regardless of its amount
+     *
+     * @param item The ItemStack to match against
+     * @return The total amount of items
+     * @see ItemStack#isSimilar(ItemStack)
+     */
+    public int count(ItemStack item);
+
     /**
      * Check if the inventory contains any ItemStacks matching the given ItemStack
      * This will only match if both the type and the amount of the stack match
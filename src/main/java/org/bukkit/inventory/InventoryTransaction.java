@@ -0,0 +1,187 @@
+package org.bukkit.inventory;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * A set of changes to an inventory which are all made at once, or not at all.
+ * <p />
+ * Items are added to and removed from a copy of the contents of the inventory. Nothing changes in the inventory
+ * itself until {@link #commit()}, which only sets the slots which changed, and only if every change succeeded.
+ * <p />
+ * The copy is indexed by material when the transaction is opened, so adding or removing an item only visits the
+ * slots holding its material and the empty slots, rather than every slot of the inventory.
+ * <p />
+ * This class is not thread safe, and the inventory should not change while a transaction is open.
+ */
+public class InventoryTransaction {
+    private static final int DEFAULT_MAX_STACK_SIZE = 64;
+
+    private final Inventory inventory;
+    private final ItemStack[] contents;
+    private final boolean[] changed;
+    private final MaterialSlotIndex index;
+    private boolean failed = false;
+    private boolean committed = false;
+
+    /**
+     * Opens a transaction on an inventory
+     *
+     * @param inventory The inventory to change
+     */
+    public InventoryTransaction(Inventory inventory) {
+        Validate.notNull(inventory, "Inventory cannot be null");
+
+        this.inventory = inventory;
+        this.contents = inventory.getContents();
+        this.changed = new boolean[contents.length];
+        this.index = new MaterialSlotIndex(contents.length);
+        index.setAll(contents);
+    }
+
+    /**
+     * Adds items, first to stacks of the same item which are not full, then to empty slots
+     *
+     * @param items The items to add
+     * @return True if every item fit. If not, the transaction can no longer be committed.
+     */
+    public boolean add(ItemStack... items) {
+        Validate.noNullElements(items, "Items cannot be null");
+        checkOpen();
+
+        for (ItemStack item : items) {
+            int remaining = item.getAmount();
+            int maxStackSize = getMaxStackSize(item);
+            int type = item.getTypeId();
+
+            for (int slot = index.first(type); slot != -1 && remaining > 0; slot = index.next(type, slot + 1)) {
+                ItemStack stack = contents[slot];
+
+                if (stack != null && stack.getAmount() < maxStackSize && stack.isSimilar(item)) {
+                    int moved = Math.min(remaining, maxStackSize - stack.getAmount());
+                    getWritable(slot).setAmount(stack.getAmount() + moved);
+                    index.set(slot, contents[slot]);
+                    remaining -= moved;
+                }
+            }
+
+            for (int slot = index.firstEmpty(); slot != -1 && remaining > 0; slot = index.next(0, slot + 1)) {
+                int moved = Math.min(remaining, maxStackSize);
+                ItemStack stack = item.clone();
+                stack.setAmount(moved);
+                setSlot(slot, stack);
+                remaining -= moved;
+            }
+
+            if (remaining > 0) {
+                failed = true;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes items from the stacks of the same item, starting at the first slot
+     *
+     * @param items The items to remove
+     * @return True if every item was found. If not, the transaction can no longer be committed.
+     */
+    public boolean remove(ItemStack... items) {
+        Validate.noNullElements(items, "Items cannot be null");
+        checkOpen();
+
+        for (ItemStack item : items) {
+            int remaining = item.getAmount();
+            int type = item.getTypeId();
+
+            for (int slot = index.first(type); slot != -1 && remaining > 0; slot = index.next(type, slot + 1)) {
+                ItemStack stack = contents[slot];
+
+                if (stack == null || !stack.isSimilar(item)) {
+                    continue;
+                }
+
+                if (stack.getAmount() <= remaining) {
+                    remaining -= stack.getAmount();
+                    setSlot(slot, null);
+                } else {
+                    getWritable(slot).setAmount(stack.getAmount() - remaining);
+                    index.set(slot, contents[slot]);
+                    remaining = 0;
+                }
+            }
+
+            if (remaining > 0) {
+                failed = true;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if every change so far succeeded
+     *
+     * @return True if the transaction can be committed
+     */
+    public boolean isValid() {
+        return !failed;
+    }
+
+    /**
+     * Gets the item a slot will hold once this transaction is committed
+     *
+     * @param slot Index of the slot
+     * @return The item, or null if the slot will be empty
+     */
+    public ItemStack getItem(int slot) {
+        return contents[slot];
+    }
+
+    /**
+     * Makes every change on the inventory, unless any of them failed
+     *
+     * @return True if the changes were made, false if the inventory was left untouched
+     */
+    public boolean commit() {
+        checkOpen();
+        committed = true;
+
+        if (failed) {
+            return false;
+        }
+
+        for (int slot = 0; slot < contents.length; slot++) {
+            if (changed[slot]) {
+                inventory.setItem(slot, contents[slot]);
+            }
+        }
+        return true;
+    }
+
+    private void setSlot(int slot, ItemStack stack) {
+        contents[slot] = stack;
+        changed[slot] = true;
+        index.set(slot, stack);
+    }
+
+    private ItemStack getWritable(int slot) {
+        // Stacks from the inventory are only copied once they change, so the inventory is untouched until commit
+        if (!changed[slot]) {
+            contents[slot] = contents[slot].clone();
+            changed[slot] = true;
+        }
+        return contents[slot];
+    }
+
+    private void checkOpen() {
+        if (committed) {
+            throw new IllegalStateException("Transaction was already committed");
+        }
+    }
+
+    private static int getMaxStackSize(ItemStack item) {
+        int maxStackSize = item.getMaxStackSize();
+        return maxStackSize > 0 ? maxStackSize : DEFAULT_MAX_STACK_SIZE;
+    }
+}
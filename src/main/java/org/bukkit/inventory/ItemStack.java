@@ -1,7 +1,7 @@
 package org.bukkit.inventory;
 
 import com.google.common.collect.ImmutableMap;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import org.bukkit.Material;
@@ -17,7 +17,14 @@ public class ItemStack implements Cloneable, ConfigurationSerializable {
     private int amount = 0;
     private MaterialData data = null;
     private short durability = 0;
-    private Map<Enchantment, Integer> enchantments = new HashMap<Enchantment, Integer>();
+    private static final Enchantment[] NO_ENCHANTMENTS = new Enchantment[0];
+    private static final int[] NO_LEVELS = new int[0];
+
+    // Enchantments sorted by ID, with their levels at the same index. The arrays are never changed, only replaced,
+    // so clones may share them. Subclasses may keep their enchantments elsewhere, so the arrays are only read from
+    // stacks which are exactly an ItemStack.
+    private Enchantment[] enchantments = NO_ENCHANTMENTS;
+    private int[] levels = NO_LEVELS;
 
     public ItemStack(final int type) {
         this(type, 0);
@@ -64,7 +71,12 @@ public class ItemStack implements Cloneable, ConfigurationSerializable {
         if (stack.data != null) {
             this.data = stack.data.clone();
         }
-        this.addUnsafeEnchantments(stack.getEnchantments());
+        if (stack.getClass() == ItemStack.class) {
+            this.enchantments = stack.enchantments;
+            this.levels = stack.levels;
+        } else {
+            this.addUnsafeEnchantments(stack.getEnchantments());
+        }
     }
 
     /**
@@ -215,7 +227,36 @@ public class ItemStack implements Cloneable, ConfigurationSerializable {
 
         ItemStack item = (ItemStack) obj;
 
-        return item.getAmount() == getAmount() && item.getTypeId() == getTypeId() && getDurability() == item.getDurability() && getEnchantments().equals(item.getEnchantments());
+        return item.getAmount() == getAmount() && item.getTypeId() == getTypeId() && getDurability() == item.getDurability() && hasSameEnchantments(item);
+    }
+
+    /**
+     * Checks if another stack holds the same kind of item, ignoring the amount of items in either stack
+     *
+     * @param item ItemStack to compare with
+     * @return True if the type, durability and enchantments are the same
+     */
+    public boolean isSimilar(ItemStack item) {
+        if (item == null) {
+            return false;
+        }
+        return item.getTypeId() == getTypeId() && getDurability() == item.getDurability() && hasSameEnchantments(item);
+    }
+
+    private boolean hasSameEnchantments(ItemStack item) {
+        if (getClass() != ItemStack.class || item.getClass() != ItemStack.class) {
+            return getEnchantments().equals(item.getEnchantments());
+        }
+        if (enchantments.length != item.enchantments.length || !Arrays.equals(levels, item.levels)) {
+            return false;
+        }
+
+        for (int i = 0; i < enchantments.length; i++) {
+            if (enchantments[i].getId() != item.enchantments[i].getId()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -223,7 +264,6 @@ public class ItemStack implements Cloneable, ConfigurationSerializable {
         try {
             ItemStack itemStack = (ItemStack) super.clone();
 
-            itemStack.enchantments = new HashMap<Enchantment, Integer>(this.enchantments);
             if (this.data != null) {
                 itemStack.data = this.data.clone();
             }
@@ -250,7 +290,7 @@ public class ItemStack implements Cloneable, ConfigurationSerializable {
      * @return True if this has the given enchantment
      */
     public boolean containsEnchantment(Enchantment ench) {
-        return enchantments.containsKey(ench);
+        return indexOf(ench) >= 0;
     }
 
     /**
@@ -260,7 +300,8 @@ public class ItemStack implements Cloneable, ConfigurationSerializable {
      * @return Level of the enchantment, or 0
      */
     public int getEnchantmentLevel(Enchantment ench) {
-        return enchantments.get(ench);
+        int index = indexOf(ench);
+        return (index < 0) ? 0 : levels[index];
     }
 
     /**
@@ -269,7 +310,15 @@ public class ItemStack implements Cloneable, ConfigurationSerializable {
      * @return Map of enchantments.
      */
     public Map<Enchantment, Integer> getEnchantments() {
-        return ImmutableMap.copyOf(enchantments);
+        if (enchantments.length == 0) {
+            return ImmutableMap.of();
+        }
+
+        ImmutableMap.Builder<Enchantment, Integer> builder = ImmutableMap.builder();
+        for (int i = 0; i < enchantments.length; i++) {
+            builder.put(enchantments[i], levels[i]);
+        }
+        return builder.build();
     }
 
     /**
@@ -330,7 +379,35 @@ public class ItemStack implements Cloneable, ConfigurationSerializable {
      * @param level Level of the enchantment
      */
     public void addUnsafeEnchantment(Enchantment ench, int level) {
-        enchantments.put(ench, level);
+        if (ench == null) {
+            throw new IllegalArgumentException("Enchantment cannot be null");
+        }
+
+        int index = indexOf(ench);
+
+        if (index >= 0) {
+            Enchantment[] newEnchantments = enchantments.clone();
+            int[] newLevels = levels.clone();
+            newEnchantments[index] = ench;
+            newLevels[index] = level;
+            enchantments = newEnchantments;
+            levels = newLevels;
+            return;
+        }
+
+        index = -index - 1;
+        Enchantment[] newEnchantments = new Enchantment[enchantments.length + 1];
+        int[] newLevels = new int[levels.length + 1];
+
+        System.arraycopy(enchantments, 0, newEnchantments, 0, index);
+        System.arraycopy(levels, 0, newLevels, 0, index);
+        newEnchantments[index] = ench;
+        newLevels[index] = level;
+        System.arraycopy(enchantments, index, newEnchantments, index + 1, enchantments.length - index);
+        System.arraycopy(levels, index, newLevels, index + 1, levels.length - index);
+
+        enchantments = newEnchantments;
+        levels = newLevels;
     }
 
     /**
@@ -340,8 +417,61 @@ public class ItemStack implements Cloneable, ConfigurationSerializable {
      * @return Previous level, or 0
      */
     public int removeEnchantment(Enchantment ench) {
-        Integer previous = enchantments.remove(ench);
-        return (previous == null) ? 0 : previous;
+        int index = indexOf(ench);
+
+        if (index < 0) {
+            return 0;
+        }
+
+        int previous = levels[index];
+
+        if (enchantments.length == 1) {
+            enchantments = NO_ENCHANTMENTS;
+            levels = NO_LEVELS;
+            return previous;
+        }
+
+        Enchantment[] newEnchantments = new Enchantment[enchantments.length - 1];
+        int[] newLevels = new int[levels.length - 1];
+
+        System.arraycopy(enchantments, 0, newEnchantments, 0, index);
+        System.arraycopy(levels, 0, newLevels, 0, index);
+        System.arraycopy(enchantments, index + 1, newEnchantments, index, newEnchantments.length - index);
+        System.arraycopy(levels, index + 1, newLevels, index, newLevels.length - index);
+
+        enchantments = newEnchantments;
+        levels = newLevels;
+        return previous;
+    }
+
+    /**
+     * Finds an enchantment by its ID
+     *
+     * @param ench Enchantment to find
+     * @return Index of the enchantment, or (-(insertion point) - 1) if this item stack does not have it
+     */
+    private int indexOf(Enchantment ench) {
+        if (ench == null) {
+            return -1;
+        }
+
+        int id = ench.getId();
+        int low = 0;
+        int high = enchantments.length - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = enchantments[mid].getId();
+
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
     }
 
     public Map<String, Object> serialize() {
@@ -360,7 +490,7 @@ public class ItemStack implements Cloneable, ConfigurationSerializable {
         Map<Enchantment, Integer> enchants = getEnchantments();
 
         if (enchants.size() > 0) {
-            Map<String, Integer> safeEnchants = new HashMap<String, Integer>();
+            Map<String, Integer> safeEnchants = new LinkedHashMap<String, Integer>();
 
             for (Map.Entry<Enchantment, Integer> entry : enchants.entrySet()) {
                 safeEnchants.put(entry.getKey().getName(), entry.getValue());
@@ -0,0 +1,201 @@
+package org.bukkit.inventory;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.Material;
+
+/**
+ * The slots of an inventory grouped by material ID, with the total amount of each, so first, contains and count
+ * do not go through every slot. It only sees the changes it is given, and callers synchronize access themselves.
+ */
+public class MaterialSlotIndex {
+    private final int size;
+    private final int[] types;
+    private final int[] amounts;
+    // One bit per slot for every material in the inventory, and for the empty slots
+    private long[][] slotsByType = new long[0][];
+    private int[] totals = new int[0];
+    private final long[] emptySlots;
+
+    /**
+     * Creates an index of an empty inventory
+     *
+     * @param size Amount of slots of the inventory
+     */
+    public MaterialSlotIndex(int size) {
+        Validate.isTrue(size >= 0, "Size cannot be negative");
+
+        this.size = size;
+        this.types = new int[size];
+        this.amounts = new int[size];
+        this.emptySlots = new long[(size + 63) >> 6];
+
+        for (int slot = 0; slot < size; slot++) {
+            emptySlots[slot >> 6] |= 1L << slot;
+        }
+    }
+
+    /**
+     * Updates the item in a slot
+     *
+     * @param slot Index of the slot
+     * @param item The new item, or null if the slot is empty
+     */
+    public void set(int slot, ItemStack item) {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("Slot: " + slot + ", Size: " + size);
+        }
+
+        int type = (item == null) ? 0 : item.getTypeId();
+        Validate.isTrue(type >= 0, "Material ID cannot be negative");
+        int amount = (type == 0) ? 0 : item.getAmount();
+        long bit = 1L << slot;
+
+        if (types[slot] == 0) {
+            emptySlots[slot >> 6] &= ~bit;
+        } else {
+            slotsByType[types[slot]][slot >> 6] &= ~bit;
+            totals[types[slot]] -= amounts[slot];
+        }
+
+        types[slot] = type;
+        amounts[slot] = amount;
+
+        if (type == 0) {
+            emptySlots[slot >> 6] |= bit;
+        } else {
+            getSlots(type, true)[slot >> 6] |= bit;
+            totals[type] += amount;
+        }
+    }
+
+    /**
+     * Updates every slot
+     *
+     * @param contents The new items, with null for empty slots
+     */
+    public void setAll(ItemStack[] contents) {
+        Validate.isTrue(contents.length <= size, "Contents are larger than the inventory");
+
+        for (int slot = 0; slot < size; slot++) {
+            set(slot, slot < contents.length ? contents[slot] : null);
+        }
+    }
+
+    /**
+     * Gets the total amount of a material in every slot
+     *
+     * @param materialId The material to count
+     * @return Amount of items
+     */
+    public int count(int materialId) {
+        return materialId > 0 && materialId < totals.length ? totals[materialId] : 0;
+    }
+
+    /**
+     * Gets the total amount of a material in every slot
+     *
+     * @param material The material to count
+     * @return Amount of items
+     */
+    public int count(Material material) {
+        return count(material.getId());
+    }
+
+    /**
+     * Finds the first slot with a material in it
+     *
+     * @param materialId The material to look for
+     * @return Index of the slot, or -1 if there is none
+     */
+    public int first(int materialId) {
+        if (materialId == 0) {
+            return firstEmpty();
+        }
+        return next(getSlots(materialId, false), 0);
+    }
+
+    /**
+     * Finds the next slot with a material in it
+     *
+     * @param materialId The material to look for
+     * @param from Index of the first slot to look at
+     * @return Index of the slot, or -1 if there is none
+     */
+    public int next(int materialId, int from) {
+        return next(materialId == 0 ? emptySlots : getSlots(materialId, false), from);
+    }
+
+    /**
+     * Finds the first empty slot
+     *
+     * @return Index of the slot, or -1 if there is none
+     */
+    public int firstEmpty() {
+        return next(emptySlots, 0);
+    }
+
+    /**
+     * Gets the material in a slot
+     *
+     * @param slot Index of the slot
+     * @return ID of the material, or 0 if the slot is empty
+     */
+    public int getType(int slot) {
+        return types[slot];
+    }
+
+    /**
+     * Gets the amount of items in a slot
+     *
+     * @param slot Index of the slot
+     * @return Amount of items
+     */
+    public int getAmount(int slot) {
+        return amounts[slot];
+    }
+
+    private int next(long[] slots, int from) {
+        if (slots == null || from >= size) {
+            return -1;
+        }
+
+        from = Math.max(from, 0);
+        int word = from >> 6;
+        long bits = slots[word] & (-1L << from);
+
+        while (true) {
+            if (bits != 0) {
+                return word << 6 | Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == slots.length) {
+                return -1;
+            }
+            bits = slots[word];
+        }
+    }
+
+    private long[] getSlots(int type, boolean create) {
+        if (type < 0) {
+            return null;
+        }
+
+        if (type >= slotsByType.length) {
+            if (!create) {
+                return null;
+            }
+
+            int length = Math.max(type + 1, slotsByType.length * 2);
+            long[][] newSlots = new long[length][];
+            int[] newTotals = new int[length];
+            System.arraycopy(slotsByType, 0, newSlots, 0, slotsByType.length);
+            System.arraycopy(totals, 0, newTotals, 0, totals.length);
+            slotsByType = newSlots;
+            totals = newTotals;
+        }
+
+        if (slotsByType[type] == null && create) {
+            slotsByType[type] = new long[emptySlots.length];
+        }
+        return slotsByType[type];
+    }
+}
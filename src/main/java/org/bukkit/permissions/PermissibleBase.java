@@ -162,7 +162,11 @@ public class PermissibleBase implements Permissible {
         }
     }
 
-    private synchronized void clearPermissions() {
+    /**
+     * Removes all calculated permissions and unsubscribes from them. Servers should call this once the owner of this
+     * Permissible is gone, such as when a player quits, as the plugin manager keeps its subscribers reachable.
+     */
+    public synchronized void clearPermissions() {
         Set<String> perms = permissions.keySet();
 
         for (String name : perms) {
@@ -3,6 +3,7 @@ package org.bukkit.plugin;
 import java.io.File;
 import java.util.Set;
 
+import org.bukkit.command.CommandSender;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -228,6 +229,17 @@ public interface PluginManager {
      */
     public Set<Permissible> getPermissionSubscriptions(String permission);
 
+    /**
+     * Gets a set containing all subscribed {@link CommandSender}s who have the given permission, by name
+     * <p />
+     * The set is only recalculated when subscriptions to the permission change, which happens whenever a subscriber
+     * recalculates its permissions. This makes it suitable for resolving the recipients of frequent broadcasts.
+     *
+     * @param permission Permission to query for
+     * @return Unmodifiable set containing all subscribers with the permission
+     */
+    public Set<CommandSender> getPermissionRecipients(String permission);
+
     /**
      * Subscribes to the given Default permissions by operator status
      * <p />
@@ -22,7 +22,9 @@ import java.util.regex.Pattern;
 import org.apache.commons.lang.Validate;
 import org.bukkit.ChatColor;
 import org.bukkit.Server;
+import org.bukkit.World;
 import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
 import org.bukkit.command.PluginCommandYamlParser;
 import org.bukkit.command.SimpleCommandMap;
 import org.bukkit.event.Event;
@@ -30,6 +32,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.permissions.Permissible;
+import org.bukkit.permissions.PermissibleBase;
 import org.bukkit.permissions.Permission;
 import org.bukkit.permissions.PermissionDefault;
 import org.bukkit.util.FileUtil;
@@ -40,6 +43,46 @@ import com.google.common.collect.ImmutableSet;
  * Handles all plugin management from the Server
  */
 public final class SimplePluginManager implements PluginManager {
+
+    /**
+     * Subscribers to a single permission, with snapshots which are kept until the subscribers change
+     * <p />
+     * The snapshots hold their subscribers strongly, so subscribers must unsubscribe once they are gone. Permissibles
+     * do this through {@link PermissibleBase#clearPermissions()}.
+     */
+    private static final class Subscription {
+        final Map<Permissible, Boolean> subscribers = new WeakHashMap<Permissible, Boolean>();
+        Set<Permissible> snapshot = null;
+        Set<CommandSender> recipients = null;
+
+        void invalidate() {
+            snapshot = null;
+            recipients = null;
+        }
+
+        Set<Permissible> getSnapshot() {
+            if (snapshot == null) {
+                snapshot = ImmutableSet.copyOf(subscribers.keySet());
+            }
+            return snapshot;
+        }
+
+        Set<CommandSender> getRecipients(String name) {
+            if (recipients == null) {
+                ImmutableSet.Builder<CommandSender> builder = ImmutableSet.builder();
+
+                // Permissions are only final once a recalculation is done, so they are checked when first needed
+                for (Permissible subscriber : getSnapshot()) {
+                    if (subscriber instanceof CommandSender && subscriber.hasPermission(name)) {
+                        builder.add((CommandSender) subscriber);
+                    }
+                }
+                recipients = builder.build();
+            }
+            return recipients;
+        }
+    }
+
     private final Server server;
     private final Map<Pattern, PluginLoader> fileAssociations = new HashMap<Pattern, PluginLoader>();
     private final List<Plugin> plugins = new ArrayList<Plugin>();
@@ -48,7 +91,7 @@ public final class SimplePluginManager implements PluginManager {
     private final SimpleCommandMap commandMap;
     private final Map<String, Permission> permissions = new HashMap<String, Permission>();
     private final Map<Boolean, Set<Permission>> defaultPerms = new LinkedHashMap<Boolean, Set<Permission>>();
-    private final Map<String, Map<Permissible, Boolean>> permSubs = new HashMap<String, Map<Permissible, Boolean>>();
+    private final Map<String, Subscription> permSubs = new HashMap<String, Subscription>();
     private final Map<Boolean, Map<Permissible, Boolean>> defSubs = new HashMap<Boolean, Map<Permissible, Boolean>>();
     private boolean useTimings = false;
 
@@ -477,6 +520,14 @@ public final class SimplePluginManager implements PluginManager {
                 server.getLogger().log(Level.SEVERE, "Error occurred (in the plugin loader) while unregistering events for " + plugin.getDescription().getFullName() + " (Is it up to date?)", ex);
             }
 
+            try {
+                for (World world : server.getWorlds()) {
+                    world.removeChunkTickets(plugin);
+                }
+            } catch (Throwable ex) {
+                server.getLogger().log(Level.SEVERE, "Error occurred (in the plugin loader) while removing chunk tickets for " + plugin.getDescription().getFullName() + " (Is it up to date?)", ex);
+            }
+
             try {
                 server.getMessenger().unregisterIncomingPluginChannel(plugin);
                 server.getMessenger().unregisterOutgoingPluginChannel(plugin);
@@ -496,6 +547,8 @@ public final class SimplePluginManager implements PluginManager {
             permissions.clear();
             defaultPerms.get(true).clear();
             defaultPerms.get(false).clear();
+            permSubs.clear();
+            defSubs.clear();
         }
     }
 
@@ -663,24 +716,28 @@ public final class SimplePluginManager implements PluginManager {
 
     public void subscribeToPermission(String permission, Permissible permissible) {
         String name = permission.toLowerCase();
-        Map<Permissible, Boolean> map = permSubs.get(name);
+        Subscription subscription = permSubs.get(name);
 
-        if (map == null) {
-            map = new WeakHashMap<Permissible, Boolean>();
-            permSubs.put(name, map);
+        if (subscription == null) {
+            subscription = new Subscription();
+            permSubs.put(name, subscription);
         }
 
-        map.put(permissible, true);
+        if (subscription.subscribers.put(permissible, true) == null) {
+            subscription.invalidate();
+        }
     }
 
     public void unsubscribeFromPermission(String permission, Permissible permissible) {
         String name = permission.toLowerCase();
-        Map<Permissible, Boolean> map = permSubs.get(name);
+        Subscription subscription = permSubs.get(name);
 
-        if (map != null) {
-            map.remove(permissible);
+        if (subscription != null) {
+            if (subscription.subscribers.remove(permissible) != null) {
+                subscription.invalidate();
+            }
 
-            if (map.isEmpty()) {
+            if (subscription.subscribers.isEmpty()) {
                 permSubs.remove(name);
             }
         }
@@ -688,13 +745,22 @@ public final class SimplePluginManager implements PluginManager {
 
     public Set<Permissible> getPermissionSubscriptions(String permission) {
         String name = permission.toLowerCase();
-        Map<Permissible, Boolean> map = permSubs.get(name);
+        Subscription subscription = permSubs.get(name);
 
-        if (map == null) {
+        if (subscription == null) {
+            return ImmutableSet.of();
+        }
+        return subscription.getSnapshot();
+    }
+
+    public Set<CommandSender> getPermissionRecipients(String permission) {
+        String name = permission.toLowerCase();
+        Subscription subscription = permSubs.get(name);
+
+        if (subscription == null) {
             return ImmutableSet.of();
-        } else {
-            return ImmutableSet.copyOf(map.keySet());
         }
+        return subscription.getRecipients(name);
     }
 
     public void subscribeToDefaultPerms(boolean op, Permissible permissible) {
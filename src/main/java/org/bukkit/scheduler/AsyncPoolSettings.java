@@ -0,0 +1,151 @@
+package org.bukkit.scheduler;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Represents the limits placed on the pool of threads executing the async tasks of a single plugin.
+ */
+public class AsyncPoolSettings {
+    public static final int DEFAULT_MAX_THREADS = 16;
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+
+    private int maxThreads = DEFAULT_MAX_THREADS;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+    private Executor executor = null;
+
+    /**
+     * Copies the options from the specified {@link AsyncPoolSettings}
+     *
+     * @param settings Settings to copy options from
+     * @return This object, for chaining
+     */
+    public AsyncPoolSettings copy(AsyncPoolSettings settings) {
+        if (settings == null) {
+            throw new IllegalArgumentException("Settings cannot be null");
+        }
+
+        maxThreads = settings.maxThreads();
+        queueCapacity = settings.queueCapacity();
+        rejectionPolicy = settings.rejectionPolicy();
+        executor = settings.executor();
+
+        return this;
+    }
+
+    /**
+     * Gets the maximum amount of async tasks of the plugin that may be executed at the same time
+     *
+     * @return Maximum amount of threads
+     */
+    public int maxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * Sets the maximum amount of async tasks of the plugin that may be executed at the same time
+     *
+     * @param maxThreads Maximum amount of threads
+     * @return This object, for chaining
+     */
+    public AsyncPoolSettings maxThreads(int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("Max threads must be at least 1");
+        }
+
+        this.maxThreads = maxThreads;
+
+        return this;
+    }
+
+    /**
+     * Gets the maximum amount of async tasks of the plugin that may be waiting for a free thread
+     *
+     * @return Maximum amount of waiting tasks
+     */
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the maximum amount of async tasks of the plugin that may be waiting for a free thread
+     *
+     * @param queueCapacity Maximum amount of waiting tasks
+     * @return This object, for chaining
+     */
+    public AsyncPoolSettings queueCapacity(int queueCapacity) {
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("Queue capacity cannot be negative");
+        }
+
+        this.queueCapacity = queueCapacity;
+
+        return this;
+    }
+
+    /**
+     * Gets what happens to an async task which is scheduled while the queue is full
+     *
+     * @return Rejection policy
+     */
+    public RejectionPolicy rejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    /**
+     * Sets what happens to an async task which is scheduled while the queue is full
+     *
+     * @param rejectionPolicy Rejection policy
+     * @return This object, for chaining
+     */
+    public AsyncPoolSettings rejectionPolicy(RejectionPolicy rejectionPolicy) {
+        if (rejectionPolicy == null) {
+            throw new IllegalArgumentException("Rejection policy cannot be null");
+        }
+
+        this.rejectionPolicy = rejectionPolicy;
+
+        return this;
+    }
+
+    /**
+     * Gets the executor which will run the workers of the pool, or null if the server creates a thread for
+     * each worker
+     *
+     * @return Executor, or null
+     */
+    public Executor executor() {
+        return executor;
+    }
+
+    /**
+     * Sets the executor which will run the workers of the pool.
+     * <p />
+     * This allows a plugin to run its async tasks on lightweight threads, such as virtual threads, where the
+     * runtime provides them. The limits of the pool are still applied. A null value will make the server
+     * create a thread for each worker.
+     *
+     * @param executor Executor, or null
+     * @return This object, for chaining
+     */
+    public AsyncPoolSettings executor(Executor executor) {
+        this.executor = executor;
+
+        return this;
+    }
+
+    /**
+     * Represents what happens to an async task which is scheduled while the queue of its plugin is full
+     */
+    public enum RejectionPolicy {
+
+        /**
+         * The task is not scheduled, and the scheduling method returns -1
+         */
+        ABORT,
+        /**
+         * The task is executed immediately by the thread which tried to schedule it
+         */
+        CALLER_RUNS;
+    }
+}
@@ -0,0 +1,47 @@
+package org.bukkit.scheduler;
+
+import java.util.concurrent.Future;
+
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Represents the result of a chain of tasks, each of which is executed either by the main server thread
+ * or by a thread managed by the scheduler.
+ * <p />
+ * Every step is started once the step before it has completed. If a step fails or is cancelled, then
+ * every step chained after it will fail or be cancelled as well.
+ * <p />
+ * Note: The Future.get() methods must NOT be called from the main thread
+ *
+ * @param <T> The result type of this step
+ */
+public interface BukkitPipeline<T> extends Future<T> {
+
+    /**
+     * Chains a step which will be executed by the main server thread once this step has completed
+     * <p />
+     * Steps scheduled onto the main thread are batched, and all steps that are ready are executed
+     * together on the next server tick.
+     *
+     * @param <R> The result type of the new step
+     * @param stage Step to be executed
+     * @return Pipeline representing the result of the new step
+     */
+    public <R> BukkitPipeline<R> thenSync(PipelineStage<? super T, ? extends R> stage);
+
+    /**
+     * Chains a step which will be executed by a thread managed by the scheduler once this step has completed
+     *
+     * @param <R> The result type of the new step
+     * @param stage Step to be executed
+     * @return Pipeline representing the result of the new step
+     */
+    public <R> BukkitPipeline<R> thenAsync(PipelineStage<? super T, ? extends R> stage);
+
+    /**
+     * Returns the Plugin that owns this pipeline
+     *
+     * @return The Plugin that owns the pipeline
+     */
+    public Plugin getOwner();
+}
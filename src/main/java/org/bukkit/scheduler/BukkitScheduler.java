@@ -87,6 +87,34 @@ public interface BukkitScheduler {
      */
     public <T> Future<T> callSyncMethod(Plugin plugin, Callable<T> task);
 
+    /**
+     * Starts a pipeline with a task executed by a thread managed by the scheduler
+     * <p />
+     * Further steps may be chained onto the returned pipeline with {@link BukkitPipeline#thenSync(PipelineStage)}
+     * and {@link BukkitPipeline#thenAsync(PipelineStage)}. Unfinished pipelines are cancelled along with the
+     * tasks of their plugin.
+     *
+     * @param <T> The callable's return type
+     * @param plugin Plugin that owns the pipeline
+     * @param task Task to be executed
+     * @return Pipeline representing the result of the task
+     */
+    public <T> BukkitPipeline<T> supplyAsync(Plugin plugin, Callable<T> task);
+
+    /**
+     * Starts a pipeline with a task executed by the main server thread
+     * <p />
+     * Further steps may be chained onto the returned pipeline with {@link BukkitPipeline#thenSync(PipelineStage)}
+     * and {@link BukkitPipeline#thenAsync(PipelineStage)}. Unfinished pipelines are cancelled along with the
+     * tasks of their plugin.
+     *
+     * @param <T> The callable's return type
+     * @param plugin Plugin that owns the pipeline
+     * @param task Task to be executed
+     * @return Pipeline representing the result of the task
+     */
+    public <T> BukkitPipeline<T> supplySync(Plugin plugin, Callable<T> task);
+
     /**
      * Removes task from scheduler
      *
@@ -95,14 +123,15 @@ public interface BukkitScheduler {
     public void cancelTask(int taskId);
 
     /**
-     * Removes all tasks associated with a particular plugin from the scheduler
+     * Removes all tasks associated with a particular plugin from the scheduler, and cancels all of its
+     * unfinished pipelines
      *
      * @param plugin Owner of tasks to be removed
      */
     public void cancelTasks(Plugin plugin);
 
     /**
-     * Removes all tasks from the scheduler
+     * Removes all tasks from the scheduler, and cancels all unfinished pipelines
      */
     public void cancelAllTasks();
 
@@ -132,10 +161,30 @@ public interface BukkitScheduler {
      */
     public boolean isQueued(int taskId);
 
+    /**
+     * Sets the limits of the pool of threads which executes the async tasks of a plugin.
+     * <p />
+     * Async tasks of a plugin are never executed by more threads than allowed by its settings, and tasks
+     * scheduled while its queue is full are handled according to {@link AsyncPoolSettings#rejectionPolicy()}.
+     * The settings are copied, so changing them afterwards has no effect.
+     *
+     * @param plugin Plugin that owns the pool
+     * @param settings Limits of the pool
+     */
+    public void setAsyncPoolSettings(Plugin plugin, AsyncPoolSettings settings);
+
+    /**
+     * Gets a copy of the limits of the pool of threads which executes the async tasks of a plugin
+     *
+     * @param plugin Plugin that owns the pool
+     * @return Limits of the pool
+     */
+    public AsyncPoolSettings getAsyncPoolSettings(Plugin plugin);
+
     /**
      * Returns a list of all active workers.
      * <p />
-     * This list contains asynch tasks that are being executed by separate threads.
+     * This list contains asynch tasks that are being executed by the worker pools of their plugins.
      *
      * @return Active workers
      */
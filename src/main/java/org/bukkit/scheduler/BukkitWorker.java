@@ -32,4 +32,18 @@ public interface BukkitWorker {
      */
     public Thread getThread();
 
+    /**
+     * Returns the amount of async tasks of the owner which are waiting for a free worker
+     *
+     * @return Queue depth of the owner's pool
+     */
+    public int getQueueDepth();
+
+    /**
+     * Returns the total time spent executing the async tasks of the owner
+     *
+     * @return Run time in nanoseconds of the owner's pool
+     */
+    public long getRunTime();
+
 }
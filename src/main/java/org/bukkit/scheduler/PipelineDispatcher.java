@@ -0,0 +1,223 @@
+package org.bukkit.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Executes {@link BukkitPipeline}s using the task scheduling methods of a {@link BukkitScheduler}.
+ * <p />
+ * Steps which must run on the main thread are queued per plugin, and every queued step is executed by a
+ * single sync task on the next tick, rather than scheduling a task for each step.
+ * <p />
+ * Implementations of BukkitScheduler may delegate {@link BukkitScheduler#supplyAsync(Plugin, Callable)} and
+ * {@link BukkitScheduler#supplySync(Plugin, Callable)} to an instance of this class, and should call
+ * {@link #cancelPipelines(Plugin)} whenever the tasks of a plugin are cancelled.
+ */
+public class PipelineDispatcher {
+    private final BukkitScheduler scheduler;
+    private final Map<Plugin, SyncBatch> batches = new HashMap<Plugin, SyncBatch>();
+    private final Map<Plugin, Set<SimpleBukkitPipeline<?>>> pipelines = new HashMap<Plugin, Set<SimpleBukkitPipeline<?>>>();
+    private final Object lock = new Object();
+
+    public PipelineDispatcher(BukkitScheduler scheduler) {
+        Validate.notNull(scheduler, "Scheduler cannot be null");
+
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Starts a pipeline with a task executed by a thread managed by the scheduler
+     *
+     * @param <T> The task's return type
+     * @param plugin Plugin that owns the pipeline
+     * @param task Task to be executed
+     * @return Pipeline representing the result of the task
+     */
+    public <T> BukkitPipeline<T> supplyAsync(Plugin plugin, Callable<T> task) {
+        return supply(plugin, task, false);
+    }
+
+    /**
+     * Starts a pipeline with a task executed by the main server thread
+     *
+     * @param <T> The task's return type
+     * @param plugin Plugin that owns the pipeline
+     * @param task Task to be executed
+     * @return Pipeline representing the result of the task
+     */
+    public <T> BukkitPipeline<T> supplySync(Plugin plugin, Callable<T> task) {
+        return supply(plugin, task, true);
+    }
+
+    /**
+     * Cancels every unfinished pipeline owned by a plugin
+     *
+     * @param plugin Owner of the pipelines to be cancelled
+     */
+    public void cancelPipelines(Plugin plugin) {
+        Set<SimpleBukkitPipeline<?>> owned;
+
+        synchronized (lock) {
+            batches.remove(plugin);
+            owned = pipelines.remove(plugin);
+        }
+
+        if (owned != null) {
+            for (SimpleBukkitPipeline<?> pipeline : owned) {
+                pipeline.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Cancels every unfinished pipeline
+     */
+    public void cancelAllPipelines() {
+        List<Set<SimpleBukkitPipeline<?>>> owned;
+
+        synchronized (lock) {
+            batches.clear();
+            owned = new ArrayList<Set<SimpleBukkitPipeline<?>>>(pipelines.values());
+            pipelines.clear();
+        }
+
+        for (Set<SimpleBukkitPipeline<?>> set : owned) {
+            for (SimpleBukkitPipeline<?> pipeline : set) {
+                pipeline.cancel(false);
+            }
+        }
+    }
+
+    private <T> BukkitPipeline<T> supply(Plugin plugin, final Callable<T> task, boolean sync) {
+        Validate.notNull(plugin, "Plugin cannot be null");
+        Validate.notNull(task, "Task cannot be null");
+
+        final SimpleBukkitPipeline<T> pipeline = create(plugin);
+
+        execute(pipeline, new Runnable() {
+            public void run() {
+                pipeline.run(task);
+            }
+        }, sync);
+
+        return pipeline;
+    }
+
+    <T> SimpleBukkitPipeline<T> create(Plugin plugin) {
+        SimpleBukkitPipeline<T> pipeline = new SimpleBukkitPipeline<T>(this, plugin);
+
+        synchronized (lock) {
+            Set<SimpleBukkitPipeline<?>> owned = pipelines.get(plugin);
+
+            if (owned == null) {
+                owned = new HashSet<SimpleBukkitPipeline<?>>();
+                pipelines.put(plugin, owned);
+            }
+
+            owned.add(pipeline);
+        }
+
+        return pipeline;
+    }
+
+    void finished(SimpleBukkitPipeline<?> pipeline) {
+        synchronized (lock) {
+            Set<SimpleBukkitPipeline<?>> owned = pipelines.get(pipeline.getOwner());
+
+            if (owned != null) {
+                owned.remove(pipeline);
+
+                if (owned.isEmpty()) {
+                    pipelines.remove(pipeline.getOwner());
+                }
+            }
+        }
+    }
+
+    void execute(SimpleBukkitPipeline<?> pipeline, Runnable step, boolean sync) {
+        Plugin plugin = pipeline.getOwner();
+
+        if (!plugin.isEnabled()) {
+            pipeline.cancel(false);
+            return;
+        }
+
+        try {
+            boolean scheduled;
+
+            if (sync) {
+                scheduled = getBatch(plugin).submit(step);
+            } else {
+                scheduled = scheduler.scheduleAsyncDelayedTask(plugin, step) != -1;
+            }
+
+            if (!scheduled) {
+                pipeline.cancel(false);
+            }
+        } catch (IllegalPluginAccessException ex) {
+            pipeline.cancel(false);
+        }
+    }
+
+    private SyncBatch getBatch(Plugin plugin) {
+        synchronized (lock) {
+            SyncBatch batch = batches.get(plugin);
+
+            if (batch == null) {
+                batch = new SyncBatch(plugin);
+                batches.put(plugin, batch);
+            }
+
+            return batch;
+        }
+    }
+
+    /**
+     * Collects the steps of a plugin which are waiting for the main thread, executing all of them in one task
+     */
+    private class SyncBatch implements Runnable {
+        private final Plugin plugin;
+        private final Queue<Runnable> steps = new ConcurrentLinkedQueue<Runnable>();
+        private int taskId = -1;
+
+        SyncBatch(Plugin plugin) {
+            this.plugin = plugin;
+        }
+
+        boolean submit(Runnable step) {
+            steps.add(step);
+
+            synchronized (this) {
+                // The task may have been removed by BukkitScheduler.cancelTasks, in which case it is rescheduled
+                if (taskId != -1 && scheduler.isQueued(taskId)) {
+                    return true;
+                }
+
+                taskId = scheduler.scheduleSyncDelayedTask(plugin, this);
+                return taskId != -1;
+            }
+        }
+
+        public void run() {
+            synchronized (this) {
+                taskId = -1;
+            }
+
+            Runnable step;
+            while ((step = steps.poll()) != null) {
+                step.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.bukkit.scheduler;
+
+/**
+ * Represents a single step of a {@link BukkitPipeline}, transforming the result of the previous step
+ *
+ * @param <I> The type of the result of the previous step
+ * @param <O> The type of the result of this step
+ */
+public interface PipelineStage<I, O> {
+
+    /**
+     * Performs this step of the pipeline
+     * <p />
+     * Any exception thrown by this method will fail the pipeline, and every step after it
+     *
+     * @param input Result of the previous step
+     * @return Result of this step
+     * @throws Exception If this step could not be completed
+     */
+    public O call(I input) throws Exception;
+}
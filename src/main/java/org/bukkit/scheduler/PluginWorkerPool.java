@@ -0,0 +1,279 @@
+package org.bukkit.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * A bounded pool of workers executing the async tasks of a single plugin, according to its {@link AsyncPoolSettings}.
+ * <p />
+ * Implementations of {@link BukkitScheduler} may keep one pool per plugin, so that a plugin flooding the scheduler
+ * with async tasks can only ever occupy its own threads.
+ */
+public class PluginWorkerPool {
+    private final Plugin plugin;
+    private final AsyncPoolSettings settings;
+    private final Queue<QueuedTask> queue = new LinkedList<QueuedTask>();
+    private final AtomicLong runTime = new AtomicLong();
+    private final Object lock = new Object();
+    private int workers = 0;
+    private int running = 0;
+    private long rejected = 0;
+    private boolean shutdown = false;
+
+    /**
+     * A single submission of a task. Queued tasks are removed by identity, which tasks overriding equals or submitted
+     * more than once cannot offer themselves.
+     */
+    private static final class QueuedTask {
+        private final Runnable task;
+
+        private QueuedTask(Runnable task) {
+            this.task = task;
+        }
+    }
+
+    /**
+     * Creates a pool for the async tasks of a plugin
+     *
+     * @param plugin Plugin that owns the tasks
+     * @param settings Limits of the pool, which are copied
+     */
+    public PluginWorkerPool(Plugin plugin, AsyncPoolSettings settings) {
+        Validate.notNull(plugin, "Plugin cannot be null");
+        Validate.notNull(settings, "Settings cannot be null");
+
+        this.plugin = plugin;
+        this.settings = new AsyncPoolSettings().copy(settings);
+    }
+
+    /**
+     * Returns the Plugin that owns this pool
+     *
+     * @return The Plugin that owns the pool
+     */
+    public Plugin getOwner() {
+        return plugin;
+    }
+
+    /**
+     * Returns a copy of the limits of this pool
+     *
+     * @return Settings of the pool
+     */
+    public AsyncPoolSettings getSettings() {
+        return new AsyncPoolSettings().copy(settings);
+    }
+
+    /**
+     * Queues a task to be executed by a worker of this pool
+     * <p />
+     * If no worker can be started for the task, it waits for the workers which are already running. If there are none,
+     * it is rejected along with every other queued task. Should starting the worker throw anything but a
+     * {@link RejectedExecutionException}, those tasks are discarded and the exception is passed on.
+     *
+     * @param task Task to be executed
+     * @return false if the task was rejected, true otherwise
+     */
+    public boolean execute(Runnable task) {
+        Validate.notNull(task, "Task cannot be null");
+
+        boolean callerRuns = false;
+        QueuedTask queued = new QueuedTask(task);
+
+        synchronized (lock) {
+            if (shutdown) {
+                return false;
+            }
+
+            if (queue.size() >= settings.queueCapacity() && workers >= settings.maxThreads()) {
+                rejected++;
+
+                if (settings.rejectionPolicy() != AsyncPoolSettings.RejectionPolicy.CALLER_RUNS) {
+                    return false;
+                }
+                callerRuns = true;
+            } else {
+                queue.add(queued);
+
+                if (workers >= settings.maxThreads()) {
+                    return true;
+                }
+                workers++;
+            }
+        }
+
+        List<QueuedTask> stranded = null;
+
+        if (!callerRuns) {
+            boolean started = false;
+
+            try {
+                started = startWorker();
+            } finally {
+                if (!started) {
+                    stranded = workerNotStarted();
+                }
+            }
+        }
+
+        if (stranded != null) {
+            if (settings.rejectionPolicy() != AsyncPoolSettings.RejectionPolicy.CALLER_RUNS) {
+                return !stranded.contains(queued);
+            }
+
+            for (QueuedTask other : stranded) {
+                runTask(other.task);
+            }
+        } else if (callerRuns) {
+            // Rejected, but the policy has the calling thread run it instead
+            runTask(task);
+        }
+        return true;
+    }
+
+    /**
+     * Takes back the count of a worker which could not be started. Queued tasks are left to the remaining workers,
+     * unless there are none, in which case every queued task is rejected.
+     *
+     * @return Rejected tasks, in the order they were queued
+     */
+    private List<QueuedTask> workerNotStarted() {
+        synchronized (lock) {
+            workers--;
+
+            if (workers > 0) {
+                return Collections.emptyList();
+            }
+
+            List<QueuedTask> stranded = new ArrayList<QueuedTask>(queue);
+            rejected += stranded.size();
+            queue.clear();
+            return stranded;
+        }
+    }
+
+    /**
+     * Stops accepting tasks and discards every task which is still waiting for a worker.
+     * Tasks which are currently running are not interrupted.
+     *
+     * @return Amount of tasks discarded
+     */
+    public int shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            int discarded = queue.size();
+            queue.clear();
+            return discarded;
+        }
+    }
+
+    /**
+     * Returns the amount of tasks waiting for a worker
+     *
+     * @return Queue depth
+     */
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Returns the amount of tasks currently being executed
+     *
+     * @return Amount of running tasks
+     */
+    public int getRunningCount() {
+        synchronized (lock) {
+            return running;
+        }
+    }
+
+    /**
+     * Returns the amount of tasks which were rejected because the queue was full, or because no worker could be
+     * started to run them
+     *
+     * @return Amount of rejected tasks
+     */
+    public long getRejectedCount() {
+        synchronized (lock) {
+            return rejected;
+        }
+    }
+
+    /**
+     * Returns the total time spent executing the tasks of this pool
+     *
+     * @return Run time in nanoseconds
+     */
+    public long getRunTime() {
+        return runTime.get();
+    }
+
+    private boolean startWorker() {
+        Runnable worker = new Runnable() {
+            public void run() {
+                work();
+            }
+        };
+
+        try {
+            Executor executor = settings.executor();
+
+            if (executor != null) {
+                executor.execute(worker);
+            } else {
+                new Thread(worker, plugin.getDescription().getName() + " Worker").start();
+            }
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    private void work() {
+        while (true) {
+            QueuedTask task;
+
+            synchronized (lock) {
+                task = queue.poll();
+
+                if (task == null) {
+                    workers--;
+                    return;
+                }
+                running++;
+            }
+
+            try {
+                runTask(task.task);
+            } finally {
+                synchronized (lock) {
+                    running--;
+                }
+            }
+        }
+    }
+
+    private void runTask(Runnable task) {
+        long start = System.nanoTime();
+
+        try {
+            task.run();
+        } catch (Throwable ex) {
+            plugin.getLogger().log(Level.WARNING, "Async task of " + plugin.getDescription().getFullName() + " generated an exception", ex);
+        } finally {
+            runTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.bukkit.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Standard implementation of {@link BukkitPipeline}, driven by a {@link PipelineDispatcher}
+ *
+ * @param <T> The result type of this step
+ */
+class SimpleBukkitPipeline<T> implements BukkitPipeline<T> {
+    private static final int PENDING = 0;
+    private static final int SUCCEEDED = 1;
+    private static final int FAILED = 2;
+    private static final int CANCELLED = 3;
+
+    private final PipelineDispatcher dispatcher;
+    private final Plugin owner;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private List<Runnable> listeners = new ArrayList<Runnable>();
+    private int state = PENDING;
+    private T result;
+    private Throwable cause;
+
+    SimpleBukkitPipeline(PipelineDispatcher dispatcher, Plugin owner) {
+        this.dispatcher = dispatcher;
+        this.owner = owner;
+    }
+
+    public Plugin getOwner() {
+        return owner;
+    }
+
+    public <R> BukkitPipeline<R> thenSync(PipelineStage<? super T, ? extends R> stage) {
+        return chain(stage, true);
+    }
+
+    public <R> BukkitPipeline<R> thenAsync(PipelineStage<? super T, ? extends R> stage) {
+        return chain(stage, false);
+    }
+
+    private <R> BukkitPipeline<R> chain(final PipelineStage<? super T, ? extends R> stage, final boolean sync) {
+        Validate.notNull(stage, "Stage cannot be null");
+
+        final SimpleBukkitPipeline<R> next = dispatcher.create(owner);
+
+        addListener(new Runnable() {
+            public void run() {
+                final int outcome;
+                final T input;
+                final Throwable failure;
+
+                synchronized (SimpleBukkitPipeline.this) {
+                    outcome = state;
+                    input = result;
+                    failure = cause;
+                }
+
+                if (outcome == FAILED) {
+                    next.fail(failure);
+                    return;
+                } else if (outcome == CANCELLED) {
+                    next.cancel(false);
+                    return;
+                }
+
+                dispatcher.execute(next, new Runnable() {
+                    public void run() {
+                        next.run(stage, input);
+                    }
+                }, sync);
+            }
+        });
+
+        return next;
+    }
+
+    void run(Callable<? extends T> task) {
+        if (isDone()) {
+            return;
+        }
+
+        try {
+            complete(task.call());
+        } catch (Throwable ex) {
+            fail(ex);
+        }
+    }
+
+    <I> void run(PipelineStage<? super I, ? extends T> stage, I input) {
+        if (isDone()) {
+            return;
+        }
+
+        try {
+            complete(stage.call(input));
+        } catch (Throwable ex) {
+            fail(ex);
+        }
+    }
+
+    boolean complete(T value) {
+        return finish(SUCCEEDED, value, null);
+    }
+
+    boolean fail(Throwable ex) {
+        return finish(FAILED, null, ex);
+    }
+
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return finish(CANCELLED, null, null);
+    }
+
+    public synchronized boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    public synchronized boolean isDone() {
+        return state != PENDING;
+    }
+
+    public T get() throws InterruptedException, ExecutionException {
+        done.await();
+        return report();
+    }
+
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!done.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return report();
+    }
+
+    private synchronized T report() throws ExecutionException {
+        if (state == CANCELLED) {
+            throw new CancellationException();
+        } else if (state == FAILED) {
+            throw new ExecutionException(cause);
+        }
+        return result;
+    }
+
+    private void addListener(Runnable listener) {
+        synchronized (this) {
+            if (listeners != null) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    private boolean finish(int newState, T value, Throwable ex) {
+        List<Runnable> toNotify;
+
+        synchronized (this) {
+            if (state != PENDING) {
+                return false;
+            }
+
+            state = newState;
+            result = value;
+            cause = ex;
+            toNotify = listeners;
+            listeners = null;
+        }
+
+        done.countDown();
+        dispatcher.finished(this);
+
+        for (Runnable listener : toNotify) {
+            listener.run();
+        }
+        return true;
+    }
+}
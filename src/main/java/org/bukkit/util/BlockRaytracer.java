@@ -0,0 +1,407 @@
+package org.bukkit.util;
+
+import static org.bukkit.util.NumberConversions.*;
+
+import java.util.Set;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+import org.bukkit.block.BlockFace;
+
+/**
+ * Traces rays through the block grid using integer coordinates only, without creating a
+ * {@link org.bukkit.block.Block} for each block visited. {@link BlockIterator} iterates over the blocks of a ray
+ * traced this way.
+ * <p />
+ * A raytracer can be reused for any number of traces, and does not allocate anything while tracing. It is not thread
+ * safe.
+ */
+public class BlockRaytracer {
+    private static final int gridSize = 1 << 24;
+    private static final BlockFace[] ENTRY_FACES = { BlockFace.NORTH, BlockFace.SOUTH, BlockFace.DOWN, BlockFace.UP, BlockFace.EAST, BlockFace.WEST };
+
+    private final boolean[] transparent;
+
+    private final double[] start = new double[3];
+    private final double[] direction = new double[3];
+    private final int[] sign = new int[3];
+    private double directionLength;
+
+    private int mainAxis;
+    private int secondAxis;
+    private int thirdAxis;
+    private int secondError;
+    private int thirdError;
+    private int secondStep;
+    private int thirdStep;
+
+    // Up to three blocks waiting to be visited, with the axis each was entered along
+    private final int[] queue = new int[9];
+    private final int[] queueAxis = new int[3];
+    private int currentBlock;
+    private int currentDistance;
+    private int maxDistance;
+    private int maxDistanceInt;
+    private boolean end;
+
+    private final int[] block = new int[3];
+    private int enteredAxis = -1;
+    private int typeId = -1;
+
+    /**
+     * Creates a raytracer which only considers air transparent
+     */
+    public BlockRaytracer() {
+        this(getTransparency(null));
+    }
+
+    /**
+     * Creates a raytracer
+     *
+     * @param transparent Transparency of every block type ID. Type IDs beyond the end of the array are opaque.
+     */
+    public BlockRaytracer(boolean[] transparent) {
+        Validate.notNull(transparent, "Transparency cannot be null");
+
+        this.transparent = transparent.clone();
+    }
+
+    /**
+     * Converts a set of transparent block type IDs, as taken by {@link org.bukkit.entity.LivingEntity#getTargetBlock(java.util.HashSet, int)}
+     *
+     * @param transparent Transparent type IDs. If null, only air is transparent.
+     * @return Transparency of every block type ID below 256
+     */
+    public static boolean[] getTransparency(Set<Byte> transparent) {
+        boolean[] result = new boolean[256];
+
+        if (transparent == null) {
+            result[0] = true;
+        } else {
+            for (Byte id : transparent) {
+                result[id & 0xFF] = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets an accessor for the blocks of a world. Blocks outside of the height of the world are not available.
+     *
+     * @param world The world
+     * @return Accessor for the blocks of the world
+     */
+    public static BlockTypeAccessor forWorld(final World world) {
+        Validate.notNull(world, "World cannot be null");
+
+        final int maxHeight = world.getMaxHeight();
+        return new BlockTypeAccessor() {
+            public int getTypeId(int x, int y, int z) {
+                return y < 0 || y >= maxHeight ? -1 : world.getBlockTypeIdAt(x, y, z);
+            }
+        };
+    }
+
+    /**
+     * Gets an accessor for the blocks of a chunk snapshot, by world coordinates. Blocks outside of the chunk are not
+     * available.
+     *
+     * @param snapshot The chunk snapshot
+     * @return Accessor for the blocks of the snapshot
+     */
+    public static BlockTypeAccessor forChunkSnapshot(final ChunkSnapshot snapshot) {
+        Validate.notNull(snapshot, "Snapshot cannot be null");
+
+        final int chunkX = snapshot.getX();
+        final int chunkZ = snapshot.getZ();
+        final int height = snapshot.getSectionCount() << 4;
+        return new BlockTypeAccessor() {
+            public int getTypeId(int x, int y, int z) {
+                if (x >> 4 != chunkX || z >> 4 != chunkZ || y < 0 || y >= height) {
+                    return -1;
+                }
+                return snapshot.getBlockTypeId(x & 15, y, z & 15);
+            }
+        };
+    }
+
+    /**
+     * Traces a ray until it hits a block which is not transparent
+     *
+     * @param blocks Accessor of the blocks to trace through
+     * @param x X-coordinate of the start of the ray
+     * @param y Y-coordinate of the start of the ray
+     * @param z Z-coordinate of the start of the ray
+     * @param dx X component of the direction of the ray
+     * @param dy Y component of the direction of the ray
+     * @param dz Z component of the direction of the ray
+     * @param maxDistance Maximum distance in blocks, as for {@link BlockIterator}
+     * @return true if a block was hit, which is then described by the getters of this raytracer
+     */
+    public boolean trace(BlockTypeAccessor blocks, double x, double y, double z, double dx, double dy, double dz, int maxDistance) {
+        Validate.notNull(blocks, "Blocks cannot be null");
+        Validate.isTrue(maxDistance > 0, "Max distance must be positive");
+
+        start(x, y, z, dx, dy, dz, maxDistance);
+
+        while (next()) {
+            int id = blocks.getTypeId(block[0], block[1], block[2]);
+
+            if (id < 0) {
+                break;
+            }
+            if (id >= transparent.length || !transparent[id]) {
+                typeId = id;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Starts a ray, without visiting any block yet
+     *
+     * @param x X-coordinate of the start of the ray
+     * @param y Y-coordinate of the start of the ray
+     * @param z Z-coordinate of the start of the ray
+     * @param dx X component of the direction of the ray
+     * @param dy Y component of the direction of the ray
+     * @param dz Z component of the direction of the ray
+     * @param maxDistance Maximum distance in blocks, as for {@link BlockIterator}. A value of 0 indicates no limit
+     * @see #next()
+     */
+    public void start(double x, double y, double z, double dx, double dy, double dz, int maxDistance) {
+        Validate.isTrue(dx != 0 || dy != 0 || dz != 0, "Direction cannot be zero");
+
+        start[0] = x;
+        start[1] = y;
+        start[2] = z;
+        direction[0] = dx;
+        direction[1] = dy;
+        direction[2] = dz;
+        directionLength = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        this.maxDistance = maxDistance;
+        typeId = -1;
+
+        int startX = floor(x);
+        int startY = floor(y);
+        int startZ = floor(z);
+        block[0] = startX;
+        block[1] = startY;
+        block[2] = startZ;
+
+        // The main axis is the one the ray moves along fastest, ties going to the first of them
+        double mainDirection = 0;
+        if (Math.abs(dx) > mainDirection) {
+            setAxes(0, 1, 2);
+            mainDirection = Math.abs(dx);
+        }
+        if (Math.abs(dy) > mainDirection) {
+            setAxes(1, 2, 0);
+            mainDirection = Math.abs(dy);
+        }
+        if (Math.abs(dz) > mainDirection) {
+            setAxes(2, 0, 1);
+            mainDirection = Math.abs(dz);
+        }
+
+        for (int axis = 0; axis < 3; axis++) {
+            sign[axis] = direction[axis] > 0 ? 1 : -1;
+        }
+
+        double secondDirection = Math.abs(direction[secondAxis]);
+        double thirdDirection = Math.abs(direction[thirdAxis]);
+
+        // trace line backwards to find intercept with plane perpendicular to the main axis
+        double d = getPosition(mainAxis) / mainDirection;
+        double secondd = getPosition(secondAxis) - secondDirection * d;
+        double thirdd = getPosition(thirdAxis) - thirdDirection * d;
+
+        secondError = floor(secondd * gridSize);
+        secondStep = round(secondDirection / mainDirection * gridSize);
+        thirdError = floor(thirdd * gridSize);
+        thirdStep = round(thirdDirection / mainDirection * gridSize);
+
+        if (secondError + secondStep <= 0) {
+            secondError = -secondStep + 1;
+        }
+
+        if (thirdError + thirdStep <= 0) {
+            thirdError = -thirdStep + 1;
+        }
+
+        queue[0] = startX;
+        queue[1] = startY;
+        queue[2] = startZ;
+        queue[mainAxis] -= sign[mainAxis];
+
+        if (secondError < 0) {
+            secondError += gridSize;
+            queue[secondAxis] -= sign[secondAxis];
+        }
+
+        if (thirdError < 0) {
+            thirdError += gridSize;
+            queue[thirdAxis] -= sign[thirdAxis];
+        }
+
+        secondError -= gridSize;
+        thirdError -= gridSize;
+
+        currentBlock = -1;
+        currentDistance = 0;
+        end = false;
+
+        scan();
+
+        boolean startBlockFound = false;
+
+        for (int cnt = currentBlock; cnt >= 0; cnt--) {
+            if (queue[cnt * 3] == startX && queue[cnt * 3 + 1] == startY && queue[cnt * 3 + 2] == startZ) {
+                currentBlock = cnt;
+                queueAxis[cnt] = -1;
+                startBlockFound = true;
+                break;
+            }
+        }
+
+        if (!startBlockFound) {
+            throw new IllegalStateException("Start block missed in BlockRaytracer");
+        }
+
+        maxDistanceInt = round(maxDistance / (Math.sqrt(mainDirection * mainDirection + secondDirection * secondDirection + thirdDirection * thirdDirection) / mainDirection));
+    }
+
+    /**
+     * Moves to the next block of the ray
+     *
+     * @return true if there is a next block, which is then described by the getters of this raytracer
+     */
+    public boolean next() {
+        scan();
+
+        if (currentBlock <= -1) {
+            return false;
+        }
+
+        block[0] = queue[currentBlock * 3];
+        block[1] = queue[currentBlock * 3 + 1];
+        block[2] = queue[currentBlock * 3 + 2];
+        enteredAxis = queueAxis[currentBlock];
+        currentBlock--;
+        return true;
+    }
+
+    public int getBlockX() {
+        return block[0];
+    }
+
+    public int getBlockY() {
+        return block[1];
+    }
+
+    public int getBlockZ() {
+        return block[2];
+    }
+
+    /**
+     * Gets the face of the current block the ray entered it through
+     *
+     * @return The face, or {@link BlockFace#SELF} if the ray started in the block
+     */
+    public BlockFace getFace() {
+        if (enteredAxis < 0) {
+            return BlockFace.SELF;
+        }
+        return ENTRY_FACES[enteredAxis * 2 + (sign[enteredAxis] > 0 ? 0 : 1)];
+    }
+
+    /**
+     * Gets the distance from the start of the ray to where it entered the current block
+     *
+     * @return Distance in blocks, or 0 if the ray started in the block
+     */
+    public double getDistance() {
+        if (enteredAxis < 0) {
+            return 0;
+        }
+
+        int boundary = sign[enteredAxis] > 0 ? block[enteredAxis] : block[enteredAxis] + 1;
+        double t = (boundary - start[enteredAxis]) / direction[enteredAxis];
+        return Math.max(0, t) * directionLength;
+    }
+
+    /**
+     * Gets the type ID of the block hit by the last trace
+     *
+     * @return Type ID of the block, or -1 if no block was hit
+     */
+    public int getTypeId() {
+        return typeId;
+    }
+
+    private void setAxes(int main, int second, int third) {
+        mainAxis = main;
+        secondAxis = second;
+        thirdAxis = third;
+    }
+
+    private double getPosition(int axis) {
+        int blockPosition = block[axis];
+        return direction[axis] > 0 ? (start[axis] - blockPosition) : (blockPosition + 1 - start[axis]);
+    }
+
+    private void step(int from, int to, int axis) {
+        queue[to * 3] = queue[from * 3];
+        queue[to * 3 + 1] = queue[from * 3 + 1];
+        queue[to * 3 + 2] = queue[from * 3 + 2];
+        queue[to * 3 + axis] += sign[axis];
+        queueAxis[to] = axis;
+    }
+
+    private void scan() {
+        if (currentBlock >= 0) {
+            return;
+        }
+        if (maxDistance != 0 && currentDistance > maxDistanceInt) {
+            end = true;
+            return;
+        }
+        if (end) {
+            return;
+        }
+
+        currentDistance++;
+
+        secondError += secondStep;
+        thirdError += thirdStep;
+
+        if (secondError > 0 && thirdError > 0) {
+            step(0, 2, mainAxis);
+            if (((long) secondStep) * ((long) thirdError) < ((long) thirdStep) * ((long) secondError)) {
+                step(2, 1, secondAxis);
+                step(1, 0, thirdAxis);
+            } else {
+                step(2, 1, thirdAxis);
+                step(1, 0, secondAxis);
+            }
+            thirdError -= gridSize;
+            secondError -= gridSize;
+            currentBlock = 2;
+        } else if (secondError > 0) {
+            step(0, 1, mainAxis);
+            step(1, 0, secondAxis);
+            secondError -= gridSize;
+            currentBlock = 1;
+        } else if (thirdError > 0) {
+            step(0, 1, mainAxis);
+            step(1, 0, thirdAxis);
+            thirdError -= gridSize;
+            currentBlock = 1;
+        } else {
+            step(0, 0, mainAxis);
+            currentBlock = 0;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.bukkit.util;
+
+/**
+ * Gives the type IDs of blocks by their coordinates, without creating a {@link org.bukkit.block.Block} for each
+ *
+ * @see BlockRaytracer#forWorld(org.bukkit.World)
+ * @see BlockRaytracer#forChunkSnapshot(org.bukkit.ChunkSnapshot)
+ */
+public interface BlockTypeAccessor {
+
+    /**
+     * Gets the type ID of a block
+     *
+     * @param x X-coordinate of the block
+     * @param y Y-coordinate of the block
+     * @param z Z-coordinate of the block
+     * @return Type ID of the block, or -1 if the block is not available
+     */
+    public int getTypeId(int x, int y, int z);
+}
@@ -0,0 +1,240 @@
+package org.bukkit.util;
+
+/**
+ * An axis-aligned box, given by its lowest and highest corner.
+ * <p />
+ * Boxes are mutable, so a single box may be reused for many queries. The
+ * methods testing points, other boxes and rays take plain coordinates, so
+ * they do not need any {@link Vector} to be created.
+ */
+public class BoundingBox implements Cloneable {
+    private double minX;
+    private double minY;
+    private double minZ;
+    private double maxX;
+    private double maxY;
+    private double maxZ;
+
+    /**
+     * Creates a box from two opposite corners, in any order.
+     *
+     * @param x1 X coordinate of the first corner
+     * @param y1 Y coordinate of the first corner
+     * @param z1 Z coordinate of the first corner
+     * @param x2 X coordinate of the second corner
+     * @param y2 Y coordinate of the second corner
+     * @param z2 Z coordinate of the second corner
+     */
+    public BoundingBox(double x1, double y1, double z1, double x2, double y2, double z2) {
+        set(x1, y1, z1, x2, y2, z2);
+    }
+
+    /**
+     * Creates a box from two opposite corners, in any order.
+     *
+     * @param corner1 The first corner
+     * @param corner2 The second corner
+     */
+    public BoundingBox(Vector corner1, Vector corner2) {
+        this(corner1.x, corner1.y, corner1.z, corner2.x, corner2.y, corner2.z);
+    }
+
+    /**
+     * Creates the box of an entity, which is centered on the X and Z
+     * coordinates of the entity and extends upwards from its Y coordinate.
+     *
+     * @param x X coordinate of the entity
+     * @param y Y coordinate of the entity
+     * @param z Z coordinate of the entity
+     * @param width Width of the entity
+     * @param height Height of the entity
+     * @return the box of the entity
+     */
+    public static BoundingBox ofEntity(double x, double y, double z, double width, double height) {
+        return new BoundingBox(x - width / 2, y, z - width / 2, x + width / 2, y + height, z + width / 2);
+    }
+
+    /**
+     * Moves the corners of this box.
+     *
+     * @param x1 X coordinate of the first corner
+     * @param y1 Y coordinate of the first corner
+     * @param z1 Z coordinate of the first corner
+     * @param x2 X coordinate of the second corner
+     * @param y2 Y coordinate of the second corner
+     * @param z2 Z coordinate of the second corner
+     * @return the same box
+     */
+    public BoundingBox set(double x1, double y1, double z1, double x2, double y2, double z2) {
+        minX = Math.min(x1, x2);
+        minY = Math.min(y1, y2);
+        minZ = Math.min(z1, z2);
+        maxX = Math.max(x1, x2);
+        maxY = Math.max(y1, y2);
+        maxZ = Math.max(z1, z2);
+        return this;
+    }
+
+    /**
+     * Grows this box by the same amount on every side.
+     *
+     * @param amount The amount to grow by
+     * @return the same box
+     */
+    public BoundingBox expand(double amount) {
+        return set(minX - amount, minY - amount, minZ - amount, maxX + amount, maxY + amount, maxZ + amount);
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMinZ() {
+        return minZ;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
+    public double getMaxZ() {
+        return maxZ;
+    }
+
+    /**
+     * Returns whether a point is within this box, including its edges.
+     *
+     * @param x X coordinate of the point
+     * @param y Y coordinate of the point
+     * @param z Z coordinate of the point
+     * @return whether the point is in the box
+     */
+    public boolean contains(double x, double y, double z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    /**
+     * Returns whether another box shares any point with this box.
+     *
+     * @param minX Lowest X coordinate of the other box
+     * @param minY Lowest Y coordinate of the other box
+     * @param minZ Lowest Z coordinate of the other box
+     * @param maxX Highest X coordinate of the other box
+     * @param maxY Highest Y coordinate of the other box
+     * @param maxZ Highest Z coordinate of the other box
+     * @return whether the boxes overlap
+     */
+    public boolean overlaps(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        return minX <= this.maxX && maxX >= this.minX && minY <= this.maxY && maxY >= this.minY && minZ <= this.maxZ && maxZ >= this.minZ;
+    }
+
+    /**
+     * Returns whether another box shares any point with this box.
+     *
+     * @param other The other box
+     * @return whether the boxes overlap
+     */
+    public boolean overlaps(BoundingBox other) {
+        return overlaps(other.minX, other.minY, other.minZ, other.maxX, other.maxY, other.maxZ);
+    }
+
+    /**
+     * Finds where a ray enters this box.
+     *
+     * @param x X coordinate of the start of the ray
+     * @param y Y coordinate of the start of the ray
+     * @param z Z coordinate of the start of the ray
+     * @param dx X component of the direction of the ray
+     * @param dy Y component of the direction of the ray
+     * @param dz Z component of the direction of the ray
+     * @param maxDistance Length of the ray
+     * @return Distance from the start of the ray to where it enters the box,
+     *     0 if it starts inside the box, or -1 if it misses the box
+     */
+    public double rayTrace(double x, double y, double z, double dx, double dy, double dz, double maxDistance) {
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        double near = 0;
+        double far = maxDistance / length;
+
+        // Clip the ray against the two planes of every axis in turn
+        if (dx == 0) {
+            if (x < minX || x > maxX) {
+                return -1;
+            }
+        } else {
+            double t1 = (minX - x) / dx;
+            double t2 = (maxX - x) / dx;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+
+        if (dy == 0) {
+            if (y < minY || y > maxY) {
+                return -1;
+            }
+        } else {
+            double t1 = (minY - y) / dy;
+            double t2 = (maxY - y) / dy;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+
+        if (dz == 0) {
+            if (z < minZ || z > maxZ) {
+                return -1;
+            }
+        } else {
+            double t1 = (minZ - z) / dz;
+            double t2 = (maxZ - z) / dz;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+
+        return near > far ? -1 : near * length;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof BoundingBox)) {
+            return false;
+        }
+
+        BoundingBox other = (BoundingBox) obj;
+        return minX == other.minX && minY == other.minY && minZ == other.minZ && maxX == other.maxX && maxY == other.maxY && maxZ == other.maxZ;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+
+        hash = 79 * hash + (int) (Double.doubleToLongBits(minX) ^ (Double.doubleToLongBits(minX) >>> 32));
+        hash = 79 * hash + (int) (Double.doubleToLongBits(minY) ^ (Double.doubleToLongBits(minY) >>> 32));
+        hash = 79 * hash + (int) (Double.doubleToLongBits(minZ) ^ (Double.doubleToLongBits(minZ) >>> 32));
+        hash = 79 * hash + (int) (Double.doubleToLongBits(maxX) ^ (Double.doubleToLongBits(maxX) >>> 32));
+        hash = 79 * hash + (int) (Double.doubleToLongBits(maxY) ^ (Double.doubleToLongBits(maxY) >>> 32));
+        hash = 79 * hash + (int) (Double.doubleToLongBits(maxZ) ^ (Double.doubleToLongBits(maxZ) >>> 32));
+        return hash;
+    }
+
+    @Override
+    public BoundingBox clone() {
+        try {
+            return (BoundingBox) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new Error(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return minX + "," + minY + "," + minZ + " -> " + maxX + "," + maxY + "," + maxZ;
+    }
+}
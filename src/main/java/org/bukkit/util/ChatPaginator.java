@@ -1,6 +1,6 @@
 package org.bukkit.util;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -34,8 +34,17 @@ public class ChatPaginator {
      * @return A single chat page.
      */
     public static ChatPage paginate(String unpaginatedString, int pageNumber, int lineLength, int pageHeight) {
-        String[] lines = wordWrap(unpaginatedString, lineLength);
+        return paginate(wordWrap(unpaginatedString, lineLength), pageNumber, pageHeight);
+    }
 
+    /**
+     * Breaks already word-wrapped lines up into pages using a provided height.
+     * @param lines The word-wrapped lines to break, which are not modified.
+     * @param pageNumber The page number to fetch.
+     * @param pageHeight The desired number of lines in a page.
+     * @return A single chat page.
+     */
+    public static ChatPage paginate(String[] lines, int pageNumber, int pageHeight) {
         int totalPages = lines.length / pageHeight + (lines.length % pageHeight == 0 ? 0 : 1);
         int actualPageNumber = pageNumber <= totalPages ? pageNumber : totalPages;
 
@@ -67,22 +76,23 @@ public class ChatPaginator {
         char[] rawChars = (rawString + ' ').toCharArray(); // add a trailing space to trigger pagination
         StringBuilder word = new StringBuilder();
         StringBuilder line = new StringBuilder();
-        List<String> lines = new LinkedList<String>();
+        List<String> lines = new ArrayList<String>();
 
         for (char c : rawChars) {
             if (c == ' ' || c == '\n') {
                 if (line.length() == 0 && word.length() > lineLength) { // special case: extremely long word begins a line
-                    for (String partialWord : word.toString().split("(?<=\\G.{" + lineLength + "})")) {
-                        lines.add(partialWord);
+                    for (int i = 0; i < word.length(); i += lineLength) {
+                        lines.add(word.substring(i, Math.min(word.length(), i + lineLength)));
                     }
                 } else if (line.length() + word.length() ==  lineLength) { // Line exactly the correct length...newline
                     line.append(word);
                     lines.add(line.toString());
-                    line = new StringBuilder();
+                    line.setLength(0);
                 } else if (line.length() + 1 + word.length() > lineLength) { // Line too long...break the line
-                    for (String partialWord : word.toString().split("(?<=\\G.{" + lineLength + "})")) {
+                    for (int i = 0; i < word.length(); i += lineLength) {
                         lines.add(line.toString());
-                        line = new StringBuilder(partialWord);
+                        line.setLength(0);
+                        line.append(word, i, Math.min(word.length(), i + lineLength));
                     }
                 } else {
                     if (line.length() > 0) {
@@ -90,11 +100,11 @@ public class ChatPaginator {
                     }
                     line.append(word);
                 }
-                word = new StringBuilder();
+                word.setLength(0);
 
                 if (c == '\n') { // Newline forces the line to flush
                     lines.add(line.toString());
-                    line = new StringBuilder();
+                    line.setLength(0);
                 }
             } else {
                 word.append(c);
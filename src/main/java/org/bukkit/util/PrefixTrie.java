@@ -0,0 +1,371 @@
+package org.bukkit.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Maps strings to values, and finds every key starting with a prefix in time proportional to the length of the
+ * prefix and the amount of matches rather than the amount of keys.
+ * <p />
+ * Keys are compared exactly unless the trie was created to ignore case, in which case every character is compared
+ * in lower case. Matches are always returned in the natural order of their keys.
+ * <p />
+ * This class is not thread safe.
+ *
+ * @param <V> The type of the mapped values
+ */
+public class PrefixTrie<V> {
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    private final Node root = new Node();
+    private final boolean ignoreCase;
+
+    private static final class Node {
+        private char[] chars = NO_CHARS;
+        private Node[] children = NO_NODES;
+        private int childCount = 0;
+        private String key = null;
+        private Object value = null;
+        private int size = 0;
+
+        private int indexOf(char c) {
+            int low = 0;
+            int high = childCount - 1;
+
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = chars[mid];
+
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private Node getChild(char c) {
+            int index = indexOf(c);
+            return index < 0 ? null : children[index];
+        }
+
+        private Node getOrAddChild(char c) {
+            int index = indexOf(c);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            index = -(index + 1);
+            if (childCount == chars.length) {
+                int capacity = childCount == 0 ? 2 : childCount * 2;
+                char[] newChars = new char[capacity];
+                Node[] newChildren = new Node[capacity];
+                System.arraycopy(chars, 0, newChars, 0, childCount);
+                System.arraycopy(children, 0, newChildren, 0, childCount);
+                chars = newChars;
+                children = newChildren;
+            }
+
+            System.arraycopy(chars, index, chars, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+
+            Node child = new Node();
+            chars[index] = c;
+            children[index] = child;
+            childCount++;
+            return child;
+        }
+
+        private void removeChild(char c) {
+            int index = indexOf(c);
+            if (index < 0) {
+                return;
+            }
+
+            System.arraycopy(chars, index + 1, chars, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+    }
+
+    /**
+     * Creates a trie which compares keys exactly
+     */
+    public PrefixTrie() {
+        this(false);
+    }
+
+    /**
+     * Creates a trie
+     *
+     * @param ignoreCase Whether keys and prefixes are compared ignoring their case
+     */
+    public PrefixTrie(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Maps a key to a value, replacing any value previously mapped to the key
+     *
+     * @param key Key of the value
+     * @param value Value to map, which may not be null
+     * @return The value previously mapped to the key, or null if there was none
+     */
+    public V put(String key, V value) {
+        Validate.notNull(key, "Key cannot be null");
+        Validate.notNull(value, "Value cannot be null");
+
+        boolean added = get(key) == null;
+        Node node = root;
+
+        if (added) {
+            node.size++;
+        }
+
+        for (int i = 0; i < key.length(); i++) {
+            node = node.getOrAddChild(charAt(key, i));
+
+            if (added) {
+                node.size++;
+            }
+        }
+
+        V previous = cast(node.value);
+        node.key = key;
+        node.value = value;
+        return previous;
+    }
+
+    /**
+     * Gets the value mapped to a key
+     *
+     * @param key Key of the value
+     * @return Value mapped to the key, or null if there is none
+     */
+    public V get(String key) {
+        Node node = find(key);
+        return node == null ? null : PrefixTrie.<V>cast(node.value);
+    }
+
+    /**
+     * Checks if a value is mapped to a key
+     *
+     * @param key Key to check
+     * @return true if a value is mapped to the key
+     */
+    public boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Removes the value mapped to a key
+     *
+     * @param key Key of the value
+     * @return The value which was mapped to the key, or null if there was none
+     */
+    public V remove(String key) {
+        V previous = get(key);
+
+        if (previous == null) {
+            return null;
+        }
+
+        Node node = root;
+        node.size--;
+
+        for (int i = 0; i < key.length(); i++) {
+            char c = charAt(key, i);
+            Node child = node.getChild(c);
+
+            if (--child.size == 0) {
+                // Nothing else is stored below this node, so it can be dropped entirely
+                node.removeChild(c);
+                return previous;
+            }
+            node = child;
+        }
+
+        node.key = null;
+        node.value = null;
+        return previous;
+    }
+
+    /**
+     * Removes every key and value
+     */
+    public void clear() {
+        root.chars = NO_CHARS;
+        root.children = NO_NODES;
+        root.childCount = 0;
+        root.key = null;
+        root.value = null;
+        root.size = 0;
+    }
+
+    /**
+     * Gets the amount of keys in this trie
+     *
+     * @return Amount of keys
+     */
+    public int size() {
+        return root.size;
+    }
+
+    /**
+     * Checks if this trie contains no keys
+     *
+     * @return true if there are no keys
+     */
+    public boolean isEmpty() {
+        return root.size == 0;
+    }
+
+    /**
+     * Gets the amount of keys starting with a prefix
+     *
+     * @param prefix Prefix to match
+     * @return Amount of matching keys
+     */
+    public int countPrefix(String prefix) {
+        Node node = find(prefix);
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Gets the value of the only key starting with a prefix. This method does not allocate.
+     *
+     * @param prefix Prefix to match
+     * @return The value, or null if no key or more than one key starts with the prefix
+     */
+    public V getOnlyMatch(String prefix) {
+        Node node = find(prefix);
+
+        if (node == null || node.size != 1) {
+            return null;
+        }
+
+        // Empty nodes are pruned, so a subtree holding one value is a single chain leading to it
+        while (node.value == null) {
+            node = node.children[0];
+        }
+        return cast(node.value);
+    }
+
+    /**
+     * Gets the value of the shortest key starting with a prefix, which is the key itself if it is mapped. Of several
+     * keys which are equally short, the first in natural order is used. This method does not allocate.
+     *
+     * @param prefix Prefix to match
+     * @return The value, or null if no key starts with the prefix
+     */
+    public V getShortestMatch(String prefix) {
+        Node node = find(prefix);
+
+        if (node == null || node.size == 0) {
+            return null;
+        }
+        return cast(findShortest(node, prefix.length(), Integer.MAX_VALUE).value);
+    }
+
+    /**
+     * Adds the values of every key starting with a prefix to a collection
+     *
+     * @param <C> The type of the collection
+     * @param prefix Prefix to match
+     * @param destination Collection to add the values to
+     * @return The destination collection
+     */
+    public <C extends Collection<? super V>> C getValuesWithPrefix(String prefix, C destination) {
+        Validate.notNull(destination, "Destination cannot be null");
+
+        Node node = find(prefix);
+        if (node != null) {
+            collectValues(node, destination);
+        }
+        return destination;
+    }
+
+    /**
+     * Gets every key starting with a prefix
+     *
+     * @param prefix Prefix to match
+     * @return List of matching keys
+     */
+    public List<String> getKeysWithPrefix(String prefix) {
+        Node node = find(prefix);
+
+        if (node == null) {
+            return new ArrayList<String>(0);
+        }
+
+        List<String> keys = new ArrayList<String>(node.size);
+        collectKeys(node, keys);
+        return keys;
+    }
+
+    private Node find(String key) {
+        Validate.notNull(key, "Key cannot be null");
+
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.getChild(charAt(key, i));
+        }
+        return node;
+    }
+
+    private char charAt(String key, int index) {
+        char c = key.charAt(index);
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    private static Node findShortest(Node node, int depth, int maxLength) {
+        if (node.value != null) {
+            return node;
+        }
+
+        Node shortest = null;
+        for (int i = 0; i < node.childCount && depth < maxLength; i++) {
+            Node found = findShortest(node.children[i], depth + 1, maxLength);
+
+            if (found != null) {
+                // Keys are as long as the depth of their node, so later keys must be strictly shorter to win
+                shortest = found;
+                maxLength = found.key.length() - 1;
+            }
+        }
+        return shortest;
+    }
+
+    private void collectValues(Node node, Collection<? super V> destination) {
+        if (node.value != null) {
+            destination.add(PrefixTrie.<V>cast(node.value));
+        }
+
+        for (int i = 0; i < node.childCount; i++) {
+            collectValues(node.children[i], destination);
+        }
+    }
+
+    private void collectKeys(Node node, List<String> destination) {
+        if (node.key != null) {
+            destination.add(node.key);
+        }
+
+        for (int i = 0; i < node.childCount; i++) {
+            collectKeys(node.children[i], destination);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V cast(Object value) {
+        return (V) value;
+    }
+}
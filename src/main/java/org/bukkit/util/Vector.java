@@ -226,6 +226,21 @@ public class Vector implements Cloneable, ConfigurationSerializable {
         return new Vector(x, y, z);
     }
 
+    /**
+     * Sets another vector to the midpoint between this vector and another,
+     * without changing this vector.
+     *
+     * @param other The other vector
+     * @param dst The vector to store the midpoint in
+     * @return the destination vector
+     */
+    public Vector getMidpoint(Vector other, Vector dst) {
+        dst.x = (x + other.x) / 2;
+        dst.y = (y + other.y) / 2;
+        dst.z = (z + other.z) / 2;
+        return dst;
+    }
+
     /**
      * Performs scalar multiplication, multiplying all components with a scalar.
      *
@@ -298,6 +313,27 @@ public class Vector implements Cloneable, ConfigurationSerializable {
         return this;
     }
 
+    /**
+     * Calculates the cross product of this vector with another, and stores it
+     * in a destination vector without changing this vector. The destination
+     * may be either of the two vectors.
+     *
+     * @see #crossProduct(Vector)
+     * @param o The other vector
+     * @param dst The vector to store the cross product in
+     * @return the destination vector
+     */
+    public Vector crossProduct(Vector o, Vector dst) {
+        double newX = y * o.z - o.y * z;
+        double newY = z * o.x - o.z * x;
+        double newZ = x * o.y - o.x * y;
+
+        dst.x = newX;
+        dst.y = newY;
+        dst.z = newZ;
+        return dst;
+    }
+
     /**
      * Converts this vector to a unit vector (a vector with length of 1).
      *
@@ -611,6 +647,22 @@ public class Vector implements Cloneable, ConfigurationSerializable {
         return new Vector(Math.min(v1.x, v2.x), Math.min(v1.y, v2.y), Math.min(v1.z, v2.z));
     }
 
+    /**
+     * Stores the minimum components of two vectors in a destination vector,
+     * which may be either of the two vectors.
+     *
+     * @param v1 The first vector.
+     * @param v2 The second vector.
+     * @param dst The vector to store the minimum in.
+     * @return the destination vector
+     */
+    public static Vector getMinimum(Vector v1, Vector v2, Vector dst) {
+        dst.x = Math.min(v1.x, v2.x);
+        dst.y = Math.min(v1.y, v2.y);
+        dst.z = Math.min(v1.z, v2.z);
+        return dst;
+    }
+
     /**
      * Gets the maximum components of two vectors.
      *
@@ -622,6 +674,22 @@ public class Vector implements Cloneable, ConfigurationSerializable {
         return new Vector(Math.max(v1.x, v2.x), Math.max(v1.y, v2.y), Math.max(v1.z, v2.z));
     }
 
+    /**
+     * Stores the maximum components of two vectors in a destination vector,
+     * which may be either of the two vectors.
+     *
+     * @param v1 The first vector.
+     * @param v2 The second vector.
+     * @param dst The vector to store the maximum in.
+     * @return the destination vector
+     */
+    public static Vector getMaximum(Vector v1, Vector v2, Vector dst) {
+        dst.x = Math.max(v1.x, v2.x);
+        dst.y = Math.max(v1.y, v2.y);
+        dst.z = Math.max(v1.z, v2.z);
+        return dst;
+    }
+
     /**
      * Gets a random vector with components having a random value between
      * 0 and 1.
@@ -0,0 +1,264 @@
+package org.bukkit.util;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * A growable list of vectors, stored as one array per component instead of one object per vector.
+ * <p />
+ * Operations on the whole buffer, such as {@link #addScaled(VectorBuffer, double)} for moving many positions by their
+ * velocities, run over the arrays directly. Vectors are read through {@link #get(int, Vector)} into a vector of the
+ * caller, so nothing is allocated unless the buffer has to grow.
+ */
+public class VectorBuffer {
+    private double[] x;
+    private double[] y;
+    private double[] z;
+    private int size = 0;
+
+    /**
+     * Creates an empty buffer
+     *
+     * @param capacity Amount of vectors the buffer holds before it has to grow
+     */
+    public VectorBuffer(int capacity) {
+        Validate.isTrue(capacity >= 0, "Capacity cannot be negative");
+
+        x = new double[capacity];
+        y = new double[capacity];
+        z = new double[capacity];
+    }
+
+    /**
+     * Gets the amount of vectors in this buffer
+     *
+     * @return Amount of vectors
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every vector, keeping the arrays for reuse
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a vector
+     *
+     * @param x X component
+     * @param y Y component
+     * @param z Z component
+     * @return Index of the vector
+     */
+    public int add(double x, double y, double z) {
+        if (size == this.x.length) {
+            int capacity = Math.max(8, size * 2);
+            this.x = grow(this.x, capacity);
+            this.y = grow(this.y, capacity);
+            this.z = grow(this.z, capacity);
+        }
+
+        this.x[size] = x;
+        this.y[size] = y;
+        this.z[size] = z;
+        return size++;
+    }
+
+    /**
+     * Appends the components of a vector
+     *
+     * @param vector The vector to copy
+     * @return Index of the vector
+     */
+    public int add(Vector vector) {
+        return add(vector.x, vector.y, vector.z);
+    }
+
+    /**
+     * Replaces a vector
+     *
+     * @param index Index of the vector
+     * @param x X component
+     * @param y Y component
+     * @param z Z component
+     */
+    public void set(int index, double x, double y, double z) {
+        checkIndex(index);
+
+        this.x[index] = x;
+        this.y[index] = y;
+        this.z[index] = z;
+    }
+
+    /**
+     * Replaces a vector with the components of another vector
+     *
+     * @param index Index of the vector
+     * @param vector The vector to copy
+     */
+    public void set(int index, Vector vector) {
+        set(index, vector.x, vector.y, vector.z);
+    }
+
+    /**
+     * Removes a vector by moving the last vector into its place
+     *
+     * @param index Index of the vector
+     */
+    public void removeSwap(int index) {
+        checkIndex(index);
+
+        size--;
+        x[index] = x[size];
+        y[index] = y[size];
+        z[index] = z[size];
+    }
+
+    public double getX(int index) {
+        checkIndex(index);
+        return x[index];
+    }
+
+    public double getY(int index) {
+        checkIndex(index);
+        return y[index];
+    }
+
+    public double getZ(int index) {
+        checkIndex(index);
+        return z[index];
+    }
+
+    /**
+     * Copies a vector into another vector
+     *
+     * @param index Index of the vector
+     * @param dst The vector to store the components in
+     * @return the destination vector
+     */
+    public Vector get(int index, Vector dst) {
+        checkIndex(index);
+
+        dst.x = x[index];
+        dst.y = y[index];
+        dst.z = z[index];
+        return dst;
+    }
+
+    /**
+     * Adds the same offset to every vector
+     *
+     * @param dx X offset
+     * @param dy Y offset
+     * @param dz Z offset
+     * @return this buffer
+     */
+    public VectorBuffer translate(double dx, double dy, double dz) {
+        for (int i = 0; i < size; i++) {
+            x[i] += dx;
+            y[i] += dy;
+            z[i] += dz;
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies every vector with a scalar
+     *
+     * @param m The factor
+     * @return this buffer
+     */
+    public VectorBuffer multiply(double m) {
+        for (int i = 0; i < size; i++) {
+            x[i] *= m;
+            y[i] *= m;
+            z[i] *= m;
+        }
+        return this;
+    }
+
+    /**
+     * Adds every vector of another buffer, multiplied with a scalar, to the vector with the same index in this buffer
+     *
+     * @param other Buffer with the same size as this buffer
+     * @param m The factor
+     * @return this buffer
+     */
+    public VectorBuffer addScaled(VectorBuffer other, double m) {
+        Validate.isTrue(other.size == size, "Buffers must have the same size");
+
+        for (int i = 0; i < size; i++) {
+            x[i] += other.x[i] * m;
+            y[i] += other.y[i] * m;
+            z[i] += other.z[i] * m;
+        }
+        return this;
+    }
+
+    /**
+     * Converts every vector to a unit vector
+     *
+     * @see Vector#normalize()
+     * @return this buffer
+     */
+    public VectorBuffer normalize() {
+        for (int i = 0; i < size; i++) {
+            double length = Math.sqrt(x[i] * x[i] + y[i] * y[i] + z[i] * z[i]);
+
+            x[i] /= length;
+            y[i] /= length;
+            z[i] /= length;
+        }
+        return this;
+    }
+
+    /**
+     * Calculates the dot product of every vector with another vector
+     *
+     * @param other The other vector
+     * @param out Array to store the products in, at the index of each vector
+     * @return the output array
+     */
+    public double[] dot(Vector other, double[] out) {
+        Validate.isTrue(out.length >= size, "Output array is too small");
+
+        for (int i = 0; i < size; i++) {
+            out[i] = x[i] * other.x + y[i] * other.y + z[i] * other.z;
+        }
+        return out;
+    }
+
+    /**
+     * Calculates the squared distance of every vector to a point
+     *
+     * @param point The point
+     * @param out Array to store the distances in, at the index of each vector
+     * @return the output array
+     */
+    public double[] distanceSquared(Vector point, double[] out) {
+        Validate.isTrue(out.length >= size, "Output array is too small");
+
+        for (int i = 0; i < size; i++) {
+            double dx = x[i] - point.x;
+            double dy = y[i] - point.y;
+            double dz = z[i] - point.z;
+
+            out[i] = dx * dx + dy * dy + dz * dz;
+        }
+        return out;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static double[] grow(double[] array, int capacity) {
+        double[] result = new double[capacity];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+}
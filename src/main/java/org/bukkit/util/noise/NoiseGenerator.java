@@ -1,5 +1,7 @@
 package org.bukkit.util.noise;
 
+import org.apache.commons.lang.Validate;
+
 /**
  * Base class for all noise generators
  */
@@ -65,6 +67,115 @@ public abstract class NoiseGenerator {
      */
     public abstract double noise(double x, double y, double z);
 
+    /**
+     * Computes the 2D noise for every point of a regular grid, storing the results in a buffer.
+     * <p />
+     * The value at index {@code i * sizeY + j} is exactly the value of {@code noise(x + i * stepX, y + j * stepY)}.
+     *
+     * @param buffer Buffer to fill, holding at least sizeX * sizeY values
+     * @param x X coordinate of the first point
+     * @param y Y coordinate of the first point
+     * @param sizeX Amount of points along the X axis
+     * @param sizeY Amount of points along the Y axis
+     * @param stepX Distance between points along the X axis
+     * @param stepY Distance between points along the Y axis
+     * @return The buffer
+     */
+    public double[] fillNoise(double[] buffer, double x, double y, int sizeX, int sizeY, double stepX, double stepY) {
+        checkBuffer(buffer, sizeX, sizeY, 1);
+
+        fillNoise(buffer, getAxis(x, sizeX, stepX), getAxis(y, sizeY, stepY));
+        return buffer;
+    }
+
+    /**
+     * Computes the 3D noise for every point of a regular grid, storing the results in a buffer.
+     * <p />
+     * The value at index {@code (i * sizeZ + k) * sizeY + j} is exactly the value of
+     * {@code noise(x + i * stepX, y + j * stepY, z + k * stepZ)}, which is the order blocks are stored in a chunk.
+     *
+     * @param buffer Buffer to fill, holding at least sizeX * sizeY * sizeZ values
+     * @param x X coordinate of the first point
+     * @param y Y coordinate of the first point
+     * @param z Z coordinate of the first point
+     * @param sizeX Amount of points along the X axis
+     * @param sizeY Amount of points along the Y axis
+     * @param sizeZ Amount of points along the Z axis
+     * @param stepX Distance between points along the X axis
+     * @param stepY Distance between points along the Y axis
+     * @param stepZ Distance between points along the Z axis
+     * @return The buffer
+     */
+    public double[] fillNoise(double[] buffer, double x, double y, double z, int sizeX, int sizeY, int sizeZ, double stepX, double stepY, double stepZ) {
+        checkBuffer(buffer, sizeX, sizeY, sizeZ);
+
+        fillNoise(buffer, getAxis(x, sizeX, stepX), getAxis(y, sizeY, stepY), getAxis(z, sizeZ, stepZ));
+        return buffer;
+    }
+
+    /**
+     * Stores the 2D noise of every combination of the given coordinates in a buffer, with
+     * {@code noise(xs[i], ys[j])} at index {@code i * ys.length + j}.
+     * <p />
+     * Generators may override this to share work between points, as long as every value stays exactly the same as
+     * the one returned by {@link #noise(double, double)}.
+     *
+     * @param buffer Buffer to fill
+     * @param xs X coordinates
+     * @param ys Y coordinates
+     */
+    protected void fillNoise(double[] buffer, double[] xs, double[] ys) {
+        int index = 0;
+
+        for (int i = 0; i < xs.length; i++) {
+            for (int j = 0; j < ys.length; j++) {
+                buffer[index++] = noise(xs[i], ys[j]);
+            }
+        }
+    }
+
+    /**
+     * Stores the 3D noise of every combination of the given coordinates in a buffer, with
+     * {@code noise(xs[i], ys[j], zs[k])} at index {@code (i * zs.length + k) * ys.length + j}.
+     * <p />
+     * Generators may override this to share work between points, as long as every value stays exactly the same as
+     * the one returned by {@link #noise(double, double, double)}.
+     *
+     * @param buffer Buffer to fill
+     * @param xs X coordinates
+     * @param ys Y coordinates
+     * @param zs Z coordinates
+     */
+    protected void fillNoise(double[] buffer, double[] xs, double[] ys, double[] zs) {
+        int index = 0;
+
+        for (int i = 0; i < xs.length; i++) {
+            for (int k = 0; k < zs.length; k++) {
+                for (int j = 0; j < ys.length; j++) {
+                    buffer[index++] = noise(xs[i], ys[j], zs[k]);
+                }
+            }
+        }
+    }
+
+    static int checkBuffer(double[] buffer, int sizeX, int sizeY, int sizeZ) {
+        Validate.notNull(buffer, "Buffer cannot be null");
+        Validate.isTrue(sizeX >= 0 && sizeY >= 0 && sizeZ >= 0, "Sizes cannot be negative");
+
+        int size = sizeX * sizeY * sizeZ;
+        Validate.isTrue(buffer.length >= size, "Buffer must hold at least " + size + " values");
+        return size;
+    }
+
+    static double[] getAxis(double start, int size, double step) {
+        double[] axis = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            axis[i] = start + i * step;
+        }
+        return axis;
+    }
+
     /**
      * Generates noise for the 1D coordinates using the specified number of octaves and parameters
      *
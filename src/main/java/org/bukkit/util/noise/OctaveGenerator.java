@@ -189,4 +189,118 @@ public abstract class OctaveGenerator {
 
         return result;
     }
+
+    /**
+     * Generates noise for every point of a regular 2D grid using the specified parameters, storing the results in a
+     * buffer.
+     * <p />
+     * The value at index {@code i * sizeY + j} is exactly the value of
+     * {@code noise(x + i * stepX, y + j * stepY, frequency, amplitude, normalized)}.
+     *
+     * @param buffer Buffer to fill, holding at least sizeX * sizeY values
+     * @param x X-coordinate of the first point
+     * @param y Y-coordinate of the first point
+     * @param sizeX Amount of points along the X axis
+     * @param sizeY Amount of points along the Y axis
+     * @param stepX Distance between points along the X axis
+     * @param stepY Distance between points along the Y axis
+     * @param frequency How much to alter the frequency by each octave
+     * @param amplitude How much to alter the amplitude by each octave
+     * @param normalized If true, normalize the value to [-1, 1]
+     * @return The buffer
+     */
+    public double[] fillNoise(double[] buffer, double x, double y, int sizeX, int sizeY, double stepX, double stepY, double frequency, double amplitude, boolean normalized) {
+        int size = NoiseGenerator.checkBuffer(buffer, sizeX, sizeY, 1);
+        double[] xs = getScaledAxis(x, sizeX, stepX, xScale);
+        double[] ys = getScaledAxis(y, sizeY, stepY, yScale);
+        // The scalar methods sample 2D noise as 3D noise at a Z-coordinate of 0
+        double[] zs = {0 * zScale};
+
+        return fillOctaves(buffer, size, xs, ys, zs, frequency, amplitude, normalized);
+    }
+
+    /**
+     * Generates noise for every point of a regular 3D grid using the specified parameters, storing the results in a
+     * buffer.
+     * <p />
+     * The value at index {@code (i * sizeZ + k) * sizeY + j} is exactly the value of
+     * {@code noise(x + i * stepX, y + j * stepY, z + k * stepZ, frequency, amplitude, normalized)}, which is the order
+     * blocks are stored in a chunk.
+     *
+     * @param buffer Buffer to fill, holding at least sizeX * sizeY * sizeZ values
+     * @param x X-coordinate of the first point
+     * @param y Y-coordinate of the first point
+     * @param z Z-coordinate of the first point
+     * @param sizeX Amount of points along the X axis
+     * @param sizeY Amount of points along the Y axis
+     * @param sizeZ Amount of points along the Z axis
+     * @param stepX Distance between points along the X axis
+     * @param stepY Distance between points along the Y axis
+     * @param stepZ Distance between points along the Z axis
+     * @param frequency How much to alter the frequency by each octave
+     * @param amplitude How much to alter the amplitude by each octave
+     * @param normalized If true, normalize the value to [-1, 1]
+     * @return The buffer
+     */
+    public double[] fillNoise(double[] buffer, double x, double y, double z, int sizeX, int sizeY, int sizeZ, double stepX, double stepY, double stepZ, double frequency, double amplitude, boolean normalized) {
+        int size = NoiseGenerator.checkBuffer(buffer, sizeX, sizeY, sizeZ);
+        double[] xs = getScaledAxis(x, sizeX, stepX, xScale);
+        double[] ys = getScaledAxis(y, sizeY, stepY, yScale);
+        double[] zs = getScaledAxis(z, sizeZ, stepZ, zScale);
+
+        return fillOctaves(buffer, size, xs, ys, zs, frequency, amplitude, normalized);
+    }
+
+    private double[] fillOctaves(double[] buffer, int size, double[] xs, double[] ys, double[] zs, double frequency, double amplitude, boolean normalized) {
+        double[] octaveXs = new double[xs.length];
+        double[] octaveYs = new double[ys.length];
+        double[] octaveZs = new double[zs.length];
+        double[] sample = new double[size];
+        double amp = 1;
+        double freq = 1;
+        double max = 0;
+
+        for (int n = 0; n < size; n++) {
+            buffer[n] = 0;
+        }
+
+        // Sums every point in the same order as the scalar methods, so the results are identical
+        for (NoiseGenerator octave : octaves) {
+            multiply(xs, freq, octaveXs);
+            multiply(ys, freq, octaveYs);
+            multiply(zs, freq, octaveZs);
+            octave.fillNoise(sample, octaveXs, octaveYs, octaveZs);
+
+            for (int n = 0; n < size; n++) {
+                buffer[n] += sample[n] * amp;
+            }
+
+            max += amp;
+            freq *= frequency;
+            amp *= amplitude;
+        }
+
+        if (normalized) {
+            for (int n = 0; n < size; n++) {
+                buffer[n] /= max;
+            }
+        }
+
+        return buffer;
+    }
+
+    private static double[] getScaledAxis(double start, int size, double step, double scale) {
+        double[] axis = NoiseGenerator.getAxis(start, size, step);
+
+        for (int i = 0; i < size; i++) {
+            axis[i] *= scale;
+        }
+        return axis;
+    }
+
+    private static void multiply(double[] values, double factor, double[] destination) {
+        for (int i = 0; i < values.length; i++) {
+            destination[i] = values[i] * factor;
+        }
+    }
 }
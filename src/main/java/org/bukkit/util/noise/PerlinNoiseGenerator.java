@@ -45,16 +45,18 @@ public class PerlinNoiseGenerator extends NoiseGenerator {
      * @param world World to construct this generator for
      */
     public PerlinNoiseGenerator(World world) {
-        this(new Random(world.getSeed()));
+        this(world.getSeed());
     }
 
     /**
      * Creates a seeded perlin noise generator for the given seed
+     * <p />
+     * The permutation table of each seed is cached, so creating several generators for the same seed is cheap.
      *
      * @param seed Seed to construct this generator for
      */
     public PerlinNoiseGenerator(long seed) {
-        this(new Random(seed));
+        this(PermutationTable.get(seed, 1, false)[0]);
     }
 
     /**
@@ -63,22 +65,11 @@ public class PerlinNoiseGenerator extends NoiseGenerator {
      * @param rand Random to construct with
      */
     public PerlinNoiseGenerator(Random rand) {
-        offsetX = rand.nextDouble() * 256;
-        offsetY = rand.nextDouble() * 256;
-        offsetZ = rand.nextDouble() * 256;
-
-        for (int i = 0; i < 256; i++) {
-            perm[i] = rand.nextInt(256);
-        }
-
-        for (int i = 0; i < 256; i++) {
-            int pos = rand.nextInt(256 - i) + i;
-            int old = perm[i];
+        this(new PermutationTable(rand, false));
+    }
 
-            perm[i] = perm[pos];
-            perm[pos] = old;
-            perm[i + 256] = perm[i];
-        }
+    PerlinNoiseGenerator(PermutationTable table) {
+        table.copyTo(this);
     }
 
     /**
@@ -166,6 +157,87 @@ public class PerlinNoiseGenerator extends NoiseGenerator {
                         grad(perm[BB + 1], x - 1, y - 1, z - 1))));
     }
 
+    @Override
+    protected void fillNoise(double[] buffer, double[] xs, double[] ys) {
+        // Subclasses such as the simplex generator compute different noise, so only use this for plain perlin noise
+        if (getClass() != PerlinNoiseGenerator.class) {
+            super.fillNoise(buffer, xs, ys);
+            return;
+        }
+
+        fillNoise(buffer, xs, ys, new double[] {0});
+    }
+
+    @Override
+    protected void fillNoise(double[] buffer, double[] xs, double[] ys, double[] zs) {
+        if (getClass() != PerlinNoiseGenerator.class) {
+            super.fillNoise(buffer, xs, ys, zs);
+            return;
+        }
+
+        // Everything up to the hashing depends on a single coordinate, so it is done once per axis value
+        int[] cellY = new int[ys.length];
+        double[] relY = new double[ys.length];
+        double[] fadeY = new double[ys.length];
+        for (int j = 0; j < ys.length; j++) {
+            double y = ys[j] + offsetY;
+            int floorY = floor(y);
+            cellY[j] = floorY & 255;
+            relY[j] = y - floorY;
+            fadeY[j] = fade(relY[j]);
+        }
+
+        int[] cellZ = new int[zs.length];
+        double[] relZ = new double[zs.length];
+        double[] fadeZ = new double[zs.length];
+        for (int k = 0; k < zs.length; k++) {
+            double z = zs[k] + offsetZ;
+            int floorZ = floor(z);
+            cellZ[k] = floorZ & 255;
+            relZ[k] = z - floorZ;
+            fadeZ[k] = fade(relZ[k]);
+        }
+
+        int index = 0;
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i] + offsetX;
+            int floorX = floor(x);
+            int X = floorX & 255;
+            x -= floorX;
+            double fX = fade(x);
+            int permX = perm[X];
+            int permX1 = perm[X + 1];
+
+            for (int k = 0; k < zs.length; k++) {
+                int Z = cellZ[k];
+                double z = relZ[k];
+                double fZ = fadeZ[k];
+
+                for (int j = 0; j < ys.length; j++) {
+                    int Y = cellY[j];
+                    double y = relY[j];
+                    double fY = fadeY[j];
+
+                    int A = permX + Y;
+                    int AA = perm[A] + Z;
+                    int AB = perm[A + 1] + Z;
+                    int B = permX1 + Y;
+                    int BA = perm[B] + Z;
+                    int BB = perm[B + 1] + Z;
+
+                    buffer[index++] = lerp(fZ, lerp(fY, lerp(fX, grad(perm[AA], x, y, z),
+                                    grad(perm[BA], x - 1, y, z)),
+                                lerp(fX, grad(perm[AB], x, y - 1, z),
+                                    grad(perm[BB], x - 1, y - 1, z))),
+                            lerp(fY, lerp(fX, grad(perm[AA + 1], x, y, z - 1),
+                                    grad(perm[BA + 1], x - 1, y, z - 1)),
+                                lerp(fX, grad(perm[AB + 1], x, y - 1, z - 1),
+                                    grad(perm[BB + 1], x - 1, y - 1, z - 1))));
+                }
+            }
+        }
+    }
+
     /**
      * Generates noise for the 1D coordinates using the specified number of octaves and parameters
      *
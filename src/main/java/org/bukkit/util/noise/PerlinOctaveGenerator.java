@@ -14,17 +14,19 @@ public class PerlinOctaveGenerator extends OctaveGenerator {
      * @param octaves Amount of octaves to create
      */
     public PerlinOctaveGenerator(World world, int octaves) {
-        this(new Random(world.getSeed()), octaves);
+        this(world.getSeed(), octaves);
     }
 
     /**
      * Creates a perlin octave generator for the given world
+     * <p />
+     * The octaves of each seed are cached, so creating several generators for the same seed is cheap.
      *
      * @param seed Seed to construct this generator for
      * @param octaves Amount of octaves to create
      */
     public PerlinOctaveGenerator(long seed, int octaves) {
-        this(new Random(seed), octaves);
+        super(createOctaves(PermutationTable.get(seed, octaves, false)));
     }
 
     /**
@@ -46,4 +48,14 @@ public class PerlinOctaveGenerator extends OctaveGenerator {
 
         return result;
     }
+
+    private static NoiseGenerator[] createOctaves(PermutationTable[] tables) {
+        NoiseGenerator[] result = new NoiseGenerator[tables.length];
+
+        for (int i = 0; i < tables.length; i++) {
+            result[i] = new PerlinNoiseGenerator(tables[i]);
+        }
+
+        return result;
+    }
 }
@@ -0,0 +1,137 @@
+package org.bukkit.util.noise;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The seeded state of a single noise generator, which is shared between every generator created for the same seed.
+ * Tables are never modified once created, so they are safe to share between threads.
+ */
+final class PermutationTable {
+    private static final int CACHE_SIZE = 64;
+    private static final Map<Key, PermutationTable[]> cache = new LinkedHashMap<Key, PermutationTable[]>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, PermutationTable[]> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final int[] perm = new int[512];
+    private final double offsetX;
+    private final double offsetY;
+    private final double offsetZ;
+    private final double offsetW;
+
+    private static final class Key {
+        private final long seed;
+        private final int octaves;
+        private final boolean simplex;
+
+        private Key(long seed, int octaves, boolean simplex) {
+            this.seed = seed;
+            this.octaves = octaves;
+            this.simplex = simplex;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return seed == other.seed && octaves == other.octaves && simplex == other.simplex;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (seed ^ (seed >>> 32)) * 31 + octaves * 2 + (simplex ? 1 : 0);
+        }
+    }
+
+    /**
+     * Creates a table, using the Random exactly like the generators always have
+     *
+     * @param rand Random to create the table with
+     * @param simplex Whether a W offset is taken from the Random after the permutation
+     */
+    PermutationTable(Random rand, boolean simplex) {
+        offsetX = rand.nextDouble() * 256;
+        offsetY = rand.nextDouble() * 256;
+        offsetZ = rand.nextDouble() * 256;
+
+        for (int i = 0; i < 256; i++) {
+            perm[i] = rand.nextInt(256);
+        }
+
+        for (int i = 0; i < 256; i++) {
+            int pos = rand.nextInt(256 - i) + i;
+            int old = perm[i];
+
+            perm[i] = perm[pos];
+            perm[pos] = old;
+            perm[i + 256] = perm[i];
+        }
+
+        offsetW = simplex ? rand.nextDouble() * 256 : 0;
+    }
+
+    /**
+     * Gets the tables of the octaves created from a Random with the given seed, creating them if they are not cached.
+     * The returned array must not be modified.
+     *
+     * @param seed Seed of the Random
+     * @param octaves Amount of octaves
+     * @param simplex Whether the tables are for simplex generators
+     * @return Tables of each octave
+     */
+    static PermutationTable[] get(long seed, int octaves, boolean simplex) {
+        Key key = new Key(seed, octaves, simplex);
+        PermutationTable[] tables;
+
+        synchronized (cache) {
+            tables = cache.get(key);
+        }
+
+        if (tables == null) {
+            // Created outside of the lock, as this is the slow part which the cache avoids
+            Random rand = new Random(seed);
+            tables = new PermutationTable[octaves];
+
+            for (int i = 0; i < octaves; i++) {
+                tables[i] = new PermutationTable(rand, simplex);
+            }
+
+            synchronized (cache) {
+                PermutationTable[] existing = cache.get(key);
+
+                if (existing != null) {
+                    tables = existing;
+                } else {
+                    cache.put(key, tables);
+                }
+            }
+        }
+
+        return tables;
+    }
+
+    /**
+     * Copies this table into a generator, which may then be modified freely
+     *
+     * @param generator Generator to copy into
+     */
+    void copyTo(NoiseGenerator generator) {
+        System.arraycopy(perm, 0, generator.perm, 0, perm.length);
+        generator.offsetX = offsetX;
+        generator.offsetY = offsetY;
+        generator.offsetZ = offsetZ;
+    }
+
+    double getOffsetW() {
+        return offsetW;
+    }
+}
@@ -52,16 +52,18 @@ public class SimplexNoiseGenerator extends PerlinNoiseGenerator {
      * @param world World to construct this generator for
      */
     public SimplexNoiseGenerator(World world) {
-        this(new Random(world.getSeed()));
+        this(world.getSeed());
     }
 
     /**
      * Creates a seeded simplex noise generator for the given seed
+     * <p />
+     * The permutation table of each seed is cached, so creating several generators for the same seed is cheap.
      *
      * @param seed Seed to construct this generator for
      */
     public SimplexNoiseGenerator(long seed) {
-        this(new Random(seed));
+        this(PermutationTable.get(seed, 1, true)[0]);
     }
 
     /**
@@ -70,8 +72,12 @@ public class SimplexNoiseGenerator extends PerlinNoiseGenerator {
      * @param rand Random to construct with
      */
     public SimplexNoiseGenerator(Random rand) {
-        super(rand);
-        offsetW = rand.nextDouble() * 256;
+        this(new PermutationTable(rand, true));
+    }
+
+    SimplexNoiseGenerator(PermutationTable table) {
+        super(table);
+        offsetW = table.getOffsetW();
     }
 
     protected static double dot(int g[], double x, double y) {
@@ -0,0 +1,121 @@
+package org.bukkit;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class BufferedBlockChangeDelegateTest {
+
+    private static class MapDelegate implements BlockChangeDelegate {
+        final Map<String, Integer> blocks = new HashMap<String, Integer>();
+        int sets = 0;
+
+        public boolean setRawTypeId(int x, int y, int z, int typeId) {
+            return setRawTypeIdAndData(x, y, z, typeId, 0);
+        }
+
+        public boolean setRawTypeIdAndData(int x, int y, int z, int typeId, int data) {
+            sets++;
+            blocks.put(x + "," + y + "," + z, typeId << 4 | data);
+            return true;
+        }
+
+        public int getTypeId(int x, int y, int z) {
+            Integer block = blocks.get(x + "," + y + "," + z);
+            return block == null ? 0 : block >> 4;
+        }
+
+        public int getHeight() {
+            return 128;
+        }
+
+        public boolean isEmpty(int x, int y, int z) {
+            return getTypeId(x, y, z) == 0;
+        }
+    }
+
+    private static class BulkDelegate extends MapDelegate implements BulkBlockChangeDelegate {
+        final List<String> calls = new ArrayList<String>();
+
+        public int setBlocks(int chunkX, int chunkZ, int[] positions, char[] blocks, int count) {
+            calls.add(chunkX + "," + chunkZ + ":" + count);
+
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    assertTrue(positions[i - 1] < positions[i]);
+                }
+                this.blocks.put((chunkX * 16 + (positions[i] & 15)) + "," + (positions[i] >> 8) + "," + (chunkZ * 16 + (positions[i] >> 4 & 15)), (int) blocks[i]);
+            }
+            return count;
+        }
+
+        public void finishChanges() {
+            calls.add("finish");
+        }
+    }
+
+    @Test
+    public void testChangesAreBuffered() {
+        MapDelegate target = new MapDelegate();
+        target.setRawTypeId(1, 2, 3, 4);
+        BufferedBlockChangeDelegate buffer = new BufferedBlockChangeDelegate(target);
+
+        assertEquals(4, buffer.getTypeId(1, 2, 3));
+        assertEquals(-1, buffer.getChangedData(1, 2, 3));
+        assertTrue(buffer.setRawTypeIdAndData(1, 2, 3, 5, 6));
+        assertTrue(buffer.setRawTypeId(1, 2, 3, 7));
+        assertTrue(buffer.setRawTypeId(-20, 127, -1, 0));
+        assertFalse(buffer.setRawTypeId(0, 128, 0, 1));
+
+        assertEquals(7, buffer.getTypeId(1, 2, 3));
+        assertEquals(0, buffer.getChangedData(1, 2, 3));
+        assertTrue(buffer.isEmpty(-20, 127, -1));
+        assertEquals(4, target.getTypeId(1, 2, 3));
+        assertEquals(2, buffer.getChangeCount());
+        assertEquals(2, buffer.getChangedChunkCount());
+
+        target.sets = 0;
+        assertEquals(2, buffer.commit());
+        assertEquals(2, target.sets);
+        assertEquals(7, target.getTypeId(1, 2, 3));
+        assertEquals(0, buffer.getChangeCount());
+    }
+
+    @Test
+    public void testBulkCommit() {
+        BulkDelegate target = new BulkDelegate();
+        BufferedBlockChangeDelegate buffer = new BufferedBlockChangeDelegate(target);
+
+        for (int y = 100; y >= 0; y--) {
+            for (int x = 0; x < 32; x++) {
+                buffer.setRawTypeIdAndData(x, y, 5, 1 + x, y % 16);
+                buffer.setRawTypeIdAndData(x, y, 5, 2 + x, y % 16);
+            }
+        }
+
+        assertEquals(101 * 32, buffer.commit());
+        assertEquals(0, target.sets);
+        assertEquals(3, target.calls.size());
+        assertEquals("0,0:" + 101 * 16, target.calls.get(0));
+        assertEquals("1,0:" + 101 * 16, target.calls.get(1));
+        assertEquals("finish", target.calls.get(2));
+        assertEquals(2 + 17, target.getTypeId(17, 50, 5));
+        assertEquals((2 + 31) << 4 | 100 % 16, (int) target.blocks.get("31,100,5"));
+    }
+
+    @Test
+    public void testDiscard() {
+        MapDelegate target = new MapDelegate();
+        BufferedBlockChangeDelegate buffer = new BufferedBlockChangeDelegate(target);
+
+        buffer.setRawTypeId(0, 0, 0, 1);
+        buffer.discard();
+        assertEquals(0, buffer.commit());
+        assertTrue(target.blocks.isEmpty());
+    }
+}
@@ -154,4 +154,29 @@ public class ChatPaginatorTest {
         assertThat(page.getLines().length, is(1));
         assertThat(page.getLines()[0], is("789"));
     }
+
+    @Test
+    public void testWordWrapLongWords() {
+        String rawString = "12345678901234567890123 12 1234567890123456";
+        String[] lines = ChatPaginator.wordWrap(rawString, 8);
+
+        assertThat(lines.length, is(6));
+        assertThat(lines[0], is("12345678"));
+        assertThat(lines[1], is("90123456"));
+        assertThat(lines[2], is("7890123"));
+        assertThat(lines[3], is("12"));
+        assertThat(lines[4], is("12345678"));
+        assertThat(lines[5], is("90123456"));
+    }
+
+    @Test
+    public void testPaginateLines() {
+        String[] lines = ChatPaginator.wordWrap("123456789 123456789 123456789", 9);
+        ChatPaginator.ChatPage page = ChatPaginator.paginate(lines, 2, 2);
+
+        assertThat(page.getPageNumber(), is(2));
+        assertThat(page.getTotalPages(), is(2));
+        assertThat(page.getLines().length, is(1));
+        assertThat(page.getLines()[0], is("123456789"));
+    }
 }
@@ -0,0 +1,165 @@
+package org.bukkit;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ChunkLoadQueueTest {
+
+    private static Chunk createChunk(int x, int z) {
+        return TestProxies.create(Chunk.class, ImmutableMap.of("getX", x, "getZ", z));
+    }
+
+    @Test
+    public void testRequestsAreMerged() throws Exception {
+        ChunkLoadQueue queue = new ChunkLoadQueue();
+        final List<Chunk> loaded = new ArrayList<Chunk>();
+        ChunkLoadCallback callback = new ChunkLoadCallback() {
+            public void onChunkLoad(Chunk chunk) {
+                loaded.add(chunk);
+            }
+        };
+
+        Future<Chunk> first = queue.request(3, -4, false, 10, callback);
+        Future<Chunk> second = queue.request(3, -4, true, 2, callback);
+        assertEquals(1, queue.getRequestCount());
+
+        ChunkLoadQueue.Request request = queue.poll();
+        assertEquals(3, request.getX());
+        assertEquals(-4, request.getZ());
+        assertTrue(request.isGenerate());
+        assertEquals(2, request.getDistance());
+        assertNull(queue.poll());
+
+        // Joins the load in progress
+        Future<Chunk> third = queue.request(3, -4, false, 0, null);
+        assertNull(queue.poll());
+        assertFalse(first.isDone());
+
+        Chunk chunk = createChunk(3, -4);
+        queue.complete(request, chunk);
+        assertSame(chunk, first.get());
+        assertSame(chunk, second.get());
+        assertSame(chunk, third.get());
+        assertEquals(2, loaded.size());
+        assertFalse(queue.isRequested(3, -4));
+    }
+
+    @Test
+    public void testGenerateDuringLoad() throws Exception {
+        ChunkLoadQueue queue = new ChunkLoadQueue();
+        Future<Chunk> load = queue.request(5, 5, false, 3, null);
+        ChunkLoadQueue.Request request = queue.poll();
+        assertFalse(request.isGenerate());
+
+        // The running load does not generate, so these wait for it instead of sharing a missing result
+        Future<Chunk> generate = queue.request(5, 5, true, 4, null);
+        Future<Chunk> closer = queue.request(5, 5, true, 1, null);
+        assertNull(queue.poll());
+
+        queue.complete(request, null);
+        assertNull(load.get());
+        assertFalse(generate.isDone());
+        assertTrue(queue.isRequested(5, 5));
+
+        ChunkLoadQueue.Request retry = queue.poll();
+        assertTrue(retry.isGenerate());
+        assertEquals(1, retry.getDistance());
+
+        Chunk chunk = createChunk(5, 5);
+        queue.complete(retry, chunk);
+        assertSame(chunk, generate.get());
+        assertSame(chunk, closer.get());
+        assertEquals(0, queue.getRequestCount());
+
+        // A chunk which already exists completes the waiting requests at once
+        load = queue.request(6, 6, false, 0, null);
+        request = queue.poll();
+        generate = queue.request(6, 6, true, 0, null);
+
+        chunk = createChunk(6, 6);
+        queue.complete(request, chunk);
+        assertSame(chunk, load.get());
+        assertSame(chunk, generate.get());
+        assertEquals(0, queue.getRequestCount());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testClosestFirst() {
+        ChunkLoadQueue queue = new ChunkLoadQueue();
+        List<Future<Chunk>> futures = queue.requestRadius(10, 10, 2, true, null);
+        queue.request(50, 50, false, 0, null);
+
+        assertEquals(13, futures.size());
+        assertEquals(14, queue.getPendingCount());
+
+        ChunkLoadQueue.Request request = queue.poll();
+        assertEquals(10, request.getX());
+        assertEquals(10, request.getZ());
+        assertEquals(50, queue.poll().getX());
+
+        int last = 0;
+        for (int i = 0; i < 12; i++) {
+            request = queue.poll();
+            int dx = request.getX() - 10;
+            int dz = request.getZ() - 10;
+            assertEquals(dx * dx + dz * dz, request.getDistance());
+            assertTrue(request.getDistance() >= last);
+            last = request.getDistance();
+        }
+        assertNull(queue.poll());
+        assertEquals(4, last);
+    }
+
+    @Test
+    public void testLargestRadius() {
+        ChunkLoadQueue queue = new ChunkLoadQueue();
+        int radius = ChunkLoadQueue.MAX_RADIUS;
+        List<Future<Chunk>> futures = queue.requestRadius(0, 0, radius, false, null);
+
+        assertEquals(futures.size(), queue.getPendingCount());
+        int last = 0;
+        for (ChunkLoadQueue.Request request = queue.poll(); request != null; request = queue.poll()) {
+            int x = request.getX();
+            int z = request.getZ();
+            assertEquals(x * x + z * z, request.getDistance());
+            assertTrue(request.getDistance() >= last);
+            last = request.getDistance();
+        }
+        assertEquals(radius * radius, last);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRadiusIsBounded() {
+        new ChunkLoadQueue().requestRadius(0, 0, ChunkLoadQueue.MAX_RADIUS + 1, false, null);
+    }
+
+    @Test
+    public void testCancelAndFail() throws Exception {
+        ChunkLoadQueue queue = new ChunkLoadQueue();
+
+        queue.request(0, 0, false, 0, null).cancel(false);
+        Future<Chunk> future = queue.request(1, 0, false, 1, null);
+        ChunkLoadQueue.Request request = queue.poll();
+        assertEquals(1, request.getX());
+        assertFalse(queue.isRequested(0, 0));
+
+        IllegalStateException cause = new IllegalStateException();
+        queue.fail(request, cause);
+        try {
+            future.get();
+            fail("Expected the load to fail");
+        } catch (ExecutionException e) {
+            assertSame(cause, e.getCause());
+        }
+        assertEquals(0, queue.getRequestCount());
+    }
+}
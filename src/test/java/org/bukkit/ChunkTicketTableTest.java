@@ -0,0 +1,66 @@
+package org.bukkit;
+
+import static org.junit.Assert.*;
+
+import org.bukkit.plugin.TestPlugin;
+import org.junit.Test;
+
+public class ChunkTicketTableTest {
+
+    @Test
+    public void testReferenceCounting() {
+        ChunkTicketTable table = new ChunkTicketTable();
+        TestPlugin first = new TestPlugin("first");
+        TestPlugin second = new TestPlugin("second");
+
+        assertTrue(table.add(first, 1, -1));
+        assertFalse(table.add(first, 1, -1));
+        assertFalse(table.add(second, 1, -1));
+        assertEquals(2, table.getTicketCount(first, 1, -1));
+        assertEquals(3, table.getTicketCount(1, -1));
+        assertFalse(table.hasTicket(-1, 1));
+
+        assertTrue(table.remove(first, 1, -1));
+        assertTrue(table.remove(second, 1, -1));
+        assertFalse(table.remove(second, 1, -1));
+        assertTrue(table.hasTicket(1, -1));
+        assertTrue(table.remove(first, 1, -1));
+        assertFalse(table.hasTicket(1, -1));
+        assertEquals(0, table.getChunkCount());
+    }
+
+    @Test
+    public void testRadiusAndRemoveAll() {
+        ChunkTicketTable table = new ChunkTicketTable();
+        TestPlugin first = new TestPlugin("first");
+        TestPlugin second = new TestPlugin("second");
+
+        assertEquals(25, table.add(first, 0, 0, 2));
+        assertEquals(16, table.add(second, 2, 2, 2));
+        assertEquals(41, table.getChunkCount());
+
+        assertEquals(9, table.remove(second, 1, 1, 1));
+        assertEquals(25, table.removeAll(first));
+        assertEquals(0, table.removeAll(first));
+        assertFalse(table.hasTicket(0, 0));
+        assertTrue(table.hasTicket(2, 3));
+        assertEquals(16, table.getChunkCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRadiusIsBounded() {
+        new ChunkTicketTable().add(new TestPlugin("first"), 0, 0, ChunkTicketTable.MAX_RADIUS + 1);
+    }
+
+    @Test
+    public void testRadiusAtEdgeOfCoordinates() {
+        ChunkTicketTable table = new ChunkTicketTable();
+        TestPlugin first = new TestPlugin("first");
+
+        assertEquals(4, table.add(first, Integer.MAX_VALUE, Integer.MIN_VALUE, 1));
+        assertTrue(table.hasTicket(Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1));
+        assertFalse(table.hasTicket(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(4, table.remove(first, Integer.MAX_VALUE, Integer.MIN_VALUE, 1));
+        assertEquals(0, table.getChunkCount());
+    }
+}
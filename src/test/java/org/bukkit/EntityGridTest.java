@@ -0,0 +1,166 @@
+package org.bukkit;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.bukkit.entity.Arrow;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Item;
+import org.bukkit.util.BoundingBox;
+import org.junit.Test;
+
+public class EntityGridTest {
+
+    @Test
+    public void testQueriesMatchScan() {
+        Random random = new Random(1);
+        EntityGrid grid = new EntityGrid();
+        List<Entity> entities = new ArrayList<Entity>();
+        List<double[]> positions = new ArrayList<double[]>();
+
+        for (int i = 0; i < 2000; i++) {
+            Entity entity = i % 3 == 0 ? TestProxies.create(Item.class) : TestProxies.create(Arrow.class);
+            double[] position = { random.nextDouble() * 400 - 200, random.nextDouble() * 140 - 10, random.nextDouble() * 400 - 200 };
+            grid.add(entity, position[0], position[1], position[2]);
+            entities.add(entity);
+            positions.add(position);
+        }
+
+        // Move some entities around and remove others
+        for (int i = 0; i < 500; i++) {
+            double[] position = positions.get(i);
+            position[0] += random.nextDouble() * 40 - 20;
+            position[2] += random.nextDouble() * 40 - 20;
+            grid.move(entities.get(i), position[0], position[1], position[2]);
+        }
+        for (int i = 1999; i >= 1900; i--) {
+            assertTrue(grid.remove(entities.remove(i)));
+            positions.remove(i);
+        }
+        assertEquals(1900, grid.size());
+
+        for (int query = 0; query < 50; query++) {
+            double x = random.nextDouble() * 400 - 200;
+            double y = random.nextDouble() * 128;
+            double z = random.nextDouble() * 400 - 200;
+            double size = random.nextDouble() * (query < 25 ? 30 : 500);
+            Set<Entity> box = new HashSet<Entity>();
+            Set<Entity> sphere = new HashSet<Entity>();
+            Set<Entity> items = new HashSet<Entity>();
+
+            assertEquals(grid.getEntitiesInBox(x - size, y - size, z - size, x + size, y + size, z + size, Entity.class, box), box.size());
+            assertEquals(grid.getEntitiesInSphere(x, y, z, size, Entity.class, sphere), sphere.size());
+            assertEquals(grid.getEntitiesInBox(x - size, y - size, z - size, x + size, y + size, z + size, Item.class, items), items.size());
+
+            for (int i = 0; i < entities.size(); i++) {
+                double[] position = positions.get(i);
+                double dx = position[0] - x;
+                double dy = position[1] - y;
+                double dz = position[2] - z;
+                boolean inBox = Math.abs(dx) <= size && Math.abs(dy) <= size && Math.abs(dz) <= size;
+
+                assertEquals(inBox, box.contains(entities.get(i)));
+                assertEquals(dx * dx + dy * dy + dz * dz <= size * size, sphere.contains(entities.get(i)));
+                assertEquals(inBox && entities.get(i) instanceof Item, items.contains(entities.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void testChunks() {
+        EntityGrid grid = new EntityGrid();
+        Entity inside = TestProxies.create(Item.class);
+        Entity edge = TestProxies.create(Item.class);
+        Entity outside = TestProxies.create(Item.class);
+
+        grid.add(inside, -16, -40, 0);
+        grid.add(edge, 31.99, 300, 31.99);
+        grid.add(outside, 32, 64, 0);
+
+        Set<Entity> result = new HashSet<Entity>();
+        assertEquals(2, grid.getEntitiesInChunks(-1, 0, 1, 1, Entity.class, result));
+        assertTrue(result.contains(inside));
+        assertTrue(result.contains(edge));
+
+        grid.move(outside, 0, 64, 0);
+        assertEquals(1, grid.getEntitiesInChunks(0, 0, 0, 0, Item.class, result));
+        assertEquals(3, result.size());
+        assertEquals(0, grid.getEntitiesInChunks(0, 0, 0, 0, Arrow.class, result));
+    }
+
+    @Test
+    public void testBoxesMatchScan() {
+        Random random = new Random(2);
+        EntityGrid grid = new EntityGrid();
+        List<Entity> entities = new ArrayList<Entity>();
+        List<BoundingBox> boxes = new ArrayList<BoundingBox>();
+
+        for (int i = 0; i < 1000; i++) {
+            Entity entity = i % 4 == 0 ? TestProxies.create(Item.class) : TestProxies.create(Arrow.class);
+            double x = random.nextDouble() * 60 - 30;
+            double y = random.nextDouble() * 30;
+            double z = random.nextDouble() * 60 - 30;
+            double width = i % 50 == 0 ? 8 : random.nextDouble() * 2;
+            double height = i % 50 == 0 ? 20 : random.nextDouble() * 3;
+
+            grid.add(entity, x, y, z, width, height);
+            entities.add(entity);
+            boxes.add(BoundingBox.ofEntity(x, y, z, width, height));
+        }
+
+        for (int query = 0; query < 50; query++) {
+            BoundingBox area = new BoundingBox(random.nextDouble() * 60 - 30, random.nextDouble() * 30, random.nextDouble() * 60 - 30, random.nextDouble() * 60 - 30, random.nextDouble() * 30, random.nextDouble() * 60 - 30);
+            // Aim from one entity at another, so the ray is sure to hit something
+            BoundingBox from = boxes.get(random.nextInt(boxes.size()));
+            BoundingBox to = boxes.get(random.nextInt(boxes.size()));
+            double x = (from.getMinX() + from.getMaxX()) / 2;
+            double y = (from.getMinY() + from.getMaxY()) / 2;
+            double z = (from.getMinZ() + from.getMaxZ()) / 2;
+            double dx = (to.getMinX() + to.getMaxX()) / 2 - x;
+            double dy = (to.getMinY() + to.getMaxY()) / 2 - y;
+            double dz = (to.getMinZ() + to.getMaxZ()) / 2 - z;
+            double length = random.nextDouble() * 150;
+
+            Set<Entity> inBox = new HashSet<Entity>();
+            List<Entity> onRay = new ArrayList<Entity>();
+            assertEquals(grid.getEntitiesInBox(area, Entity.class, inBox), inBox.size());
+            assertEquals(grid.getEntitiesOnRay(x, y, z, dx, dy, dz, length, Entity.class, onRay), onRay.size());
+
+            int hits = 0;
+            for (int i = 0; i < entities.size(); i++) {
+                assertEquals(area.overlaps(boxes.get(i)), inBox.contains(entities.get(i)));
+
+                boolean hit = boxes.get(i).rayTrace(x, y, z, dx, dy, dz, length) >= 0;
+                assertEquals(hit, onRay.contains(entities.get(i)));
+                if (hit) {
+                    hits++;
+                }
+            }
+            assertEquals(hits, onRay.size());
+            assertTrue(hits > 0);
+
+            double last = 0;
+            for (Entity entity : onRay) {
+                double distance = boxes.get(entities.indexOf(entity)).rayTrace(x, y, z, dx, dy, dz, length);
+                assertTrue(distance >= last);
+                last = distance;
+            }
+        }
+    }
+
+    @Test
+    public void testRayTrace() {
+        BoundingBox box = BoundingBox.ofEntity(10, 64, 0, 1, 2);
+
+        assertEquals(9.5, box.rayTrace(0, 65, 0, 2, 0, 0, 20), 1e-9);
+        assertEquals(-1, box.rayTrace(0, 65, 0, 2, 0, 0, 9), 0);
+        assertEquals(-1, box.rayTrace(0, 66.5, 0, 1, 0, 0, 20), 0);
+        assertEquals(0, box.rayTrace(10, 65, 0, 0, -1, 0, 20), 0);
+        assertEquals(Math.sqrt(2) * 9.5, box.rayTrace(0, 64, -9.5, 1, 0, 1, 20), 1e-9);
+    }
+}
@@ -0,0 +1,94 @@
+package org.bukkit;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.entity.Arrow;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.EntityVisitor;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Pig;
+import org.bukkit.entity.Projectile;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class EntityTypeIndexTest {
+
+    private static <T extends Entity> T createEntity(Class<T> cls, EntityType type) {
+        return TestProxies.create(cls, ImmutableMap.of("getType", type));
+    }
+
+    @Test
+    public void testCounts() {
+        EntityTypeIndex index = new EntityTypeIndex();
+        Item item = createEntity(Item.class, EntityType.DROPPED_ITEM);
+
+        assertTrue(index.add(item));
+        assertFalse(index.add(item));
+        assertTrue(index.add(createEntity(Arrow.class, EntityType.ARROW)));
+        assertTrue(index.add(createEntity(Arrow.class, EntityType.ARROW)));
+
+        assertEquals(3, index.size());
+        assertEquals(1, index.getCount(EntityType.DROPPED_ITEM));
+        assertEquals(2, index.getCount(EntityType.ARROW));
+        assertEquals(0, index.getCount(EntityType.PIG));
+
+        assertTrue(index.remove(item));
+        assertFalse(index.remove(item));
+        assertEquals(0, index.getCount(EntityType.DROPPED_ITEM));
+    }
+
+    @Test
+    public void testForEach() {
+        EntityTypeIndex index = new EntityTypeIndex();
+        for (int i = 0; i < 20; i++) {
+            index.add(createEntity(Arrow.class, EntityType.ARROW));
+            index.add(createEntity(Pig.class, EntityType.PIG));
+        }
+        index.add(createEntity(Item.class, EntityType.DROPPED_ITEM));
+        index.add(createEntity(Projectile.class, EntityType.UNKNOWN));
+
+        final List<Entity> visited = new ArrayList<Entity>();
+        EntityVisitor<Entity> collector = new EntityVisitor<Entity>() {
+            public boolean visit(Entity entity) {
+                visited.add(entity);
+                return true;
+            }
+        };
+
+        assertEquals(21, index.forEach(Projectile.class, collector));
+        assertEquals(20, index.forEach(LivingEntity.class, collector));
+        assertEquals(42, index.forEach(Entity.class, collector));
+        assertEquals(83, visited.size());
+
+        assertEquals(5, index.forEach(Pig.class, new EntityVisitor<Pig>() {
+            int count = 0;
+
+            public boolean visit(Pig entity) {
+                return ++count < 5;
+            }
+        }));
+    }
+
+    @Test
+    public void testRemoveWhileVisiting() {
+        final EntityTypeIndex index = new EntityTypeIndex();
+        for (int i = 0; i < 20; i++) {
+            index.add(createEntity(Arrow.class, EntityType.ARROW));
+        }
+
+        assertEquals(20, index.forEach(Arrow.class, new EntityVisitor<Arrow>() {
+            public boolean visit(Arrow entity) {
+                assertTrue(index.remove(entity));
+                return true;
+            }
+        }));
+        assertEquals(0, index.size());
+        assertEquals(0, index.getCount(EntityType.ARROW));
+    }
+}
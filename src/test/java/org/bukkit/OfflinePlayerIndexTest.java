@@ -0,0 +1,161 @@
+package org.bukkit;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OfflinePlayerIndexTest {
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    @Test
+    public void testUpdateAndLookup() throws IOException {
+        OfflinePlayerIndex index = new OfflinePlayerIndex(new File(testFolder.getRoot(), "players.idx"));
+        UUID notch = UUID.randomUUID();
+
+        assertTrue(index.update("Notch", notch, 100));
+        assertTrue(index.update("jeb_", UUID.randomUUID(), 200));
+        assertTrue(index.update("Notchy", UUID.randomUUID(), 300));
+        assertFalse(index.update("notch", notch, 400));
+        assertEquals(3, index.size());
+
+        OfflinePlayerIndex.Entry entry = index.get("NOTCH");
+        assertEquals("Notch", entry.getName());
+        assertEquals(notch, entry.getUniqueId());
+        assertEquals(100, entry.getFirstPlayed());
+        assertEquals(400, entry.getLastPlayed());
+        assertTrue(index.contains("JEB_"));
+        assertFalse(index.contains("Notc"));
+        assertNull(index.get("dinnerbone"));
+
+        List<OfflinePlayerIndex.Entry> matches = index.getEntriesWithPrefix("no", 10);
+        assertEquals(2, matches.size());
+        assertEquals("Notch", matches.get(0).getName());
+        assertEquals("Notchy", matches.get(1).getName());
+        assertEquals(1, index.getEntriesWithPrefix("NOTCH", 1).size());
+        assertTrue(index.getEntriesWithPrefix("x", 10).isEmpty());
+        index.close();
+    }
+
+    @Test
+    public void testGrowAndReopen() throws IOException {
+        File file = new File(testFolder.getRoot(), "players.idx");
+        OfflinePlayerIndex index = new OfflinePlayerIndex(file);
+
+        // Insert out of order and past the initial capacity, so both the file and the sorted order must grow
+        for (int i = 0; i < 3000; i++) {
+            int id = (i * 7919) % 3000;
+            assertTrue(index.update("Player" + id, new UUID(0, id), id));
+        }
+        index.close();
+
+        index = new OfflinePlayerIndex(file);
+        assertEquals(3000, index.size());
+        assertEquals(new UUID(0, 1234), index.get("player1234").getUniqueId());
+
+        String previous = "";
+        for (int offset = 0; offset < 3000; offset += 500) {
+            List<OfflinePlayerIndex.Entry> page = index.getEntries(offset, 500);
+            assertEquals(500, page.size());
+
+            for (OfflinePlayerIndex.Entry entry : page) {
+                assertTrue(previous.compareTo(entry.getName()) < 0);
+                previous = entry.getName();
+            }
+        }
+        assertTrue(index.getEntries(3000, 10).isEmpty());
+        assertEquals(1111, index.getEntriesWithPrefix("player1", 2000).size());
+        assertEquals(10, index.getEntriesWithPrefix("player1", 10).size());
+
+        assertTrue(index.update("Notch", UUID.randomUUID(), 5));
+        assertEquals(3001, index.size());
+        index.close();
+    }
+
+    @Test
+    public void testOnlyFlushedPlayersAreCounted() throws IOException {
+        File file = new File(testFolder.getRoot(), "players.idx");
+        OfflinePlayerIndex index = new OfflinePlayerIndex(file);
+        index.update("Notch", UUID.randomUUID(), 0);
+        index.flush();
+        index.update("jeb_", UUID.randomUUID(), 0);
+        index.update("Notch", UUID.randomUUID(), 100);
+
+        // Both mappings share the same pages, so this sees what a crash would leave behind
+        OfflinePlayerIndex reopened = new OfflinePlayerIndex(file);
+        assertEquals(1, reopened.size());
+        assertEquals(100, reopened.get("Notch").getLastPlayed());
+        assertFalse(reopened.contains("jeb_"));
+        reopened.close();
+
+        index.flush();
+        reopened = new OfflinePlayerIndex(file);
+        assertEquals(2, reopened.size());
+        assertTrue(reopened.contains("jeb_"));
+        reopened.close();
+        index.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        File file = testFolder.newFile("other.dat");
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[64]);
+        out.close();
+
+        new OfflinePlayerIndex(file);
+    }
+
+    @Test
+    public void testRejectsCorruptRecords() throws IOException {
+        File file = new File(testFolder.getRoot(), "players.idx");
+        OfflinePlayerIndex index = new OfflinePlayerIndex(file);
+        index.update("Notch", UUID.randomUUID(), 0);
+        index.update("jeb_", UUID.randomUUID(), 0);
+        index.close();
+
+        // Give the last player a name length which would read past its record
+        RandomAccessFile raw = new RandomAccessFile(file, "rw");
+        raw.seek(16 + 49 + 32);
+        raw.write(100);
+        raw.close();
+
+        try {
+            new OfflinePlayerIndex(file);
+            fail("Corrupt index was opened");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().contains("corrupt"));
+        }
+    }
+
+    @Test
+    public void testRejectsDuplicateNames() throws IOException {
+        File file = new File(testFolder.getRoot(), "players.idx");
+        OfflinePlayerIndex index = new OfflinePlayerIndex(file);
+        index.update("Notch", UUID.randomUUID(), 0);
+        index.update("NotcX", UUID.randomUUID(), 0);
+        index.close();
+
+        // Rename the last player to the first one, differing only in case
+        RandomAccessFile raw = new RandomAccessFile(file, "rw");
+        raw.seek(16 + 49 + 33 + 4);
+        raw.write('H');
+        raw.close();
+
+        try {
+            new OfflinePlayerIndex(file);
+            fail("Index with duplicate names was opened");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().contains("same name"));
+        }
+    }
+}
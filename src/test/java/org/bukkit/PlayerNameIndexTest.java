@@ -0,0 +1,65 @@
+package org.bukkit;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bukkit.entity.Player;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class PlayerNameIndexTest {
+
+    private static Player createPlayer(String name) {
+        return TestProxies.create(Player.class, ImmutableMap.of("getName", name, "toString", name));
+    }
+
+    @Test
+    public void testLookups() {
+        PlayerNameIndex index = new PlayerNameIndex();
+        Player notch = createPlayer("Notch");
+        Player notchy = createPlayer("Notchy");
+        Player jeb = createPlayer("jeb_");
+
+        assertNull(index.add(notchy));
+        assertNull(index.add(notch));
+        assertNull(index.add(jeb));
+        assertEquals(3, index.size());
+
+        assertSame(notch, index.getPlayerExact("Notch"));
+        assertSame(notch, index.getPlayerExact("nOTCH"));
+        assertNull(index.getPlayerExact("Notc"));
+        assertSame(notch, index.getPlayer("not"));
+        assertSame(notchy, index.getPlayer("NOTCHY"));
+        assertSame(jeb, index.getPlayer("J"));
+        assertNull(index.getPlayer("dinnerbone"));
+
+        assertEquals(Arrays.asList(notch), index.matchPlayer("notch"));
+        assertEquals(Arrays.asList(notch, notchy), index.matchPlayer("NO"));
+        assertEquals(Arrays.asList(notch, notchy), index.getPlayersWithPrefix("notch", new ArrayList<Player>()));
+        assertTrue(index.matchPlayer("x").isEmpty());
+    }
+
+    @Test
+    public void testJoinAndQuit() {
+        PlayerNameIndex index = new PlayerNameIndex();
+        Player first = createPlayer("Notch");
+        Player second = createPlayer("notch");
+
+        index.add(first);
+        assertSame(first, index.add(second));
+        assertSame(second, index.getPlayerExact("Notch"));
+
+        // The replaced player quitting must not remove the player who replaced it
+        assertFalse(index.remove(first));
+        assertSame(second, index.getPlayer("n"));
+        assertTrue(index.remove(second));
+
+        List<Player> empty = index.matchPlayer("");
+        assertTrue(empty.isEmpty());
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,95 @@
+package org.bukkit;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class RegionSnapshotTest {
+
+    private static List<ChunkSnapshot> createChunks() {
+        List<ChunkSnapshot> chunks = new ArrayList<ChunkSnapshot>();
+
+        for (int x = 0; x < 3; x++) {
+            for (int z = 0; z < 3; z++) {
+                chunks.add(new TestChunkSnapshot("world", x, z).setBlock(1, 5, 1, 1, 0).setBlock(2, 70, 3, 2, 1));
+            }
+        }
+        return chunks;
+    }
+
+    @Test
+    public void testUnchangedRegionsHaveNoChanges() {
+        RegionSnapshot first = new RegionSnapshot("world", 0, 0, 2, 2, createChunks());
+        RegionSnapshot second = new RegionSnapshot("world", 0, 0, 2, 2, createChunks());
+
+        assertTrue(second.getChangedSections(first).isEmpty());
+        assertEquals(first.getSectionHash(1, 1, 4), second.getSectionHash(1, 1, 4));
+        assertFalse(first.getSectionHash(1, 1, 4) == 0);
+        assertEquals(0, first.getSectionHash(1, 1, 3));
+    }
+
+    @Test
+    public void testChangedSectionsAreFound() {
+        // Only the hashes of the earlier capture are kept, as a consumer diffing captures would
+        RegionSnapshot.Hashes first = new RegionSnapshot("world", 0, 0, 2, 2, createChunks()).getHashes();
+        List<ChunkSnapshot> chunks = createChunks();
+
+        ((TestChunkSnapshot) chunks.get(4)).setBlock(2, 70, 3, 2, 2);
+        ((TestChunkSnapshot) chunks.get(5)).setBlock(15, 127, 15, 3, 0);
+        ((TestChunkSnapshot) chunks.get(0)).setBlock(1, 5, 1, 0, 0);
+        chunks.remove(8);
+
+        RegionSnapshot second = new RegionSnapshot("world", 0, 0, 2, 2, chunks);
+        assertEquals(Arrays.asList(
+                new RegionSnapshot.Section(0, 0, 0),
+                new RegionSnapshot.Section(1, 1, 4),
+                new RegionSnapshot.Section(1, 2, 7),
+                new RegionSnapshot.Section(2, 2, 0),
+                new RegionSnapshot.Section(2, 2, 4)), second.getChangedSections(first));
+        assertEquals(second.getChangedSections(first), second.getHashes().getChangedSections(first));
+        assertEquals(second.getSectionHash(1, 1, 4), second.getHashes().getSectionHash(1, 1, 4));
+    }
+
+    @Test
+    public void testCaptureSpansRuns() throws Exception {
+        final Map<String, ChunkSnapshot> loaded = new HashMap<String, ChunkSnapshot>();
+        for (ChunkSnapshot snapshot : createChunks()) {
+            if (snapshot.getX() != 1 || snapshot.getZ() != 1) {
+                loaded.put(snapshot.getX() + "," + snapshot.getZ(), snapshot);
+            }
+        }
+
+        World world = TestProxies.create(World.class, ImmutableMap.of("getName", "world", "isChunkLoaded", new TestProxies.Answer() {
+            public Object answer(Object[] args) {
+                return loaded.containsKey(args[0] + "," + args[1]);
+            }
+        }, "getChunkAt", new TestProxies.Answer() {
+            public Object answer(Object[] args) {
+                return TestProxies.create(Chunk.class, ImmutableMap.of("getChunkSnapshot", loaded.get(args[0] + "," + args[1])));
+            }
+        }));
+
+        RegionSnapshotCapture capture = new RegionSnapshotCapture(world, 0, 0, 2, 2, 1, TimeUnit.NANOSECONDS);
+        int runs = 0;
+        while (!capture.isDone()) {
+            capture.run();
+            runs++;
+        }
+
+        assertTrue(runs > 1);
+        RegionSnapshot region = capture.getFuture().get();
+        assertEquals(8, region.getChunkSnapshots().size());
+        assertNull(region.getChunkSnapshot(1, 1));
+        assertEquals(Arrays.asList(new RegionSnapshot.Section(1, 1, 0), new RegionSnapshot.Section(1, 1, 4)),
+                region.getChangedSections(new RegionSnapshot("world", 0, 0, 2, 2, createChunks())));
+    }
+}
@@ -0,0 +1,127 @@
+package org.bukkit;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+import org.bukkit.block.Biome;
+
+/**
+ * Snapshot of a 128 block high chunk, holding only block types and data
+ */
+public class TestChunkSnapshot implements ChunkSnapshot {
+    private final String worldName;
+    private final int x;
+    private final int z;
+    private final char[][] sections = new char[8][];
+
+    public TestChunkSnapshot(String worldName, int x, int z) {
+        this.worldName = worldName;
+        this.x = x;
+        this.z = z;
+    }
+
+    public TestChunkSnapshot setBlock(int x, int y, int z, int typeId, int data) {
+        if (sections[y >> 4] == null) {
+            sections[y >> 4] = new char[4096];
+        }
+        sections[y >> 4][(y & 15) << 8 | z << 4 | x] = (char) (typeId << 4 | data);
+        return this;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public int getBlockTypeId(int x, int y, int z) {
+        char[] section = sections[y >> 4];
+        return section == null ? 0 : section[(y & 15) << 8 | z << 4 | x] >> 4;
+    }
+
+    public int getBlockData(int x, int y, int z) {
+        char[] section = sections[y >> 4];
+        return section == null ? 0 : section[(y & 15) << 8 | z << 4 | x] & 15;
+    }
+
+    public int getBlockSkyLight(int x, int y, int z) {
+        return 15;
+    }
+
+    public int getBlockEmittedLight(int x, int y, int z) {
+        return 0;
+    }
+
+    public int getHighestBlockYAt(int x, int z) {
+        for (int y = 127; y >= 0; y--) {
+            if (getBlockTypeId(x, y, z) != 0) {
+                return y;
+            }
+        }
+        return 0;
+    }
+
+    public Biome getBiome(int x, int z) {
+        return Biome.PLAINS;
+    }
+
+    public double getRawBiomeTemperature(int x, int z) {
+        return 0.5;
+    }
+
+    public double getRawBiomeRainfall(int x, int z) {
+        return 0.5;
+    }
+
+    public long getCaptureFullTime() {
+        return 0;
+    }
+
+    public boolean isSectionEmpty(int sy) {
+        return sections[sy] == null;
+    }
+
+    public int getSectionCount() {
+        return sections.length;
+    }
+
+    public int[] getNonEmptySections() {
+        int[] result = new int[sections.length];
+        int count = 0;
+
+        for (int sy = 0; sy < sections.length; sy++) {
+            if (sections[sy] != null) {
+                result[count++] = sy;
+            }
+        }
+        int[] nonEmpty = new int[count];
+        System.arraycopy(result, 0, nonEmpty, 0, count);
+        return nonEmpty;
+    }
+
+    public CharBuffer getSectionBlocks(int sy) {
+        return sections[sy] == null ? null : CharBuffer.wrap(sections[sy]).asReadOnlyBuffer();
+    }
+
+    public void copySectionBlocks(int sy, char[] destination, int offset) {
+        if (sections[sy] == null) {
+            Arrays.fill(destination, offset, offset + 4096, (char) 0);
+        } else {
+            System.arraycopy(sections[sy], 0, destination, offset, 4096);
+        }
+    }
+
+    public void copySectionSkyLight(int sy, byte[] destination, int offset) {
+        Arrays.fill(destination, offset, offset + 4096, (byte) 15);
+    }
+
+    public void copySectionEmittedLight(int sy, byte[] destination, int offset) {
+        Arrays.fill(destination, offset, offset + 4096, (byte) 0);
+    }
+}
@@ -0,0 +1,50 @@
+package org.bukkit;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Creates stand-ins for interfaces of the API which only answer the methods a test needs. Other methods throw an
+ * UnsupportedOperationException, except equals and hashCode which compare by identity unless they are answered.
+ */
+public final class TestProxies {
+    /**
+     * Computes the result of a call from its arguments
+     */
+    public interface Answer {
+        public Object answer(Object[] args);
+    }
+
+    private TestProxies() {}
+
+    public static <T> T create(Class<T> type) {
+        return create(type, Collections.<String, Object>emptyMap());
+    }
+
+    /**
+     * @param type Interface to implement
+     * @param answers Result of each answered method by name, either a constant or an {@link Answer}
+     */
+    public static <T> T create(final Class<T> type, final Map<String, ?> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String methodName = method.getName();
+
+                if (answers.containsKey(methodName)) {
+                    Object answer = answers.get(methodName);
+                    return answer instanceof Answer ? ((Answer) answer).answer(args) : answer;
+                } else if (methodName.equals("equals") && args.length == 1) {
+                    return proxy == args[0];
+                } else if (methodName.equals("hashCode") && args == null) {
+                    return System.identityHashCode(proxy);
+                } else if (methodName.equals("toString") && args == null) {
+                    return "Test" + type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                }
+                throw new UnsupportedOperationException(methodName);
+            }
+        }));
+    }
+}
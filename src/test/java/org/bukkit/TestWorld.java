@@ -0,0 +1,14 @@
+package org.bukkit;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Creates worlds which only know their name and seed, for testing code which needs a World without a server
+ */
+public class TestWorld {
+    private TestWorld() {}
+
+    public static World create(String name, long seed) {
+        return TestProxies.create(World.class, ImmutableMap.of("getName", name, "getSeed", seed, "toString", "TestWorld{name=" + name + "}"));
+    }
+}
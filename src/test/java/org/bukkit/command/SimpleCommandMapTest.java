@@ -0,0 +1,206 @@
+package org.bukkit.command;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.bukkit.Server;
+import org.bukkit.TestProxies;
+
+import org.bukkit.command.defaults.HelpCommand;
+import org.bukkit.command.defaults.KillCommand;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class SimpleCommandMapTest {
+    private final SimpleCommandMap commandMap = new SimpleCommandMap(null);
+
+    private static class RecordingCommand extends Command {
+        String[] lastArgs;
+        String lastLabel;
+
+        RecordingCommand(String name, String... aliases) {
+            super(name, "", "/" + name, Arrays.asList(aliases));
+        }
+
+        @Override
+        public boolean execute(CommandSender sender, String commandLabel, String[] args) {
+            lastLabel = commandLabel;
+            lastArgs = args;
+            return true;
+        }
+    }
+
+    private void assertDispatchedArgs(RecordingCommand command, String commandLine) {
+        assertTrue(commandMap.dispatch(null, commandLine));
+
+        String[] split = commandLine.split(" ");
+        assertEquals(split[0].toLowerCase(), command.lastLabel);
+        assertArrayEquals(Arrays.copyOfRange(split, 1, split.length), command.lastArgs);
+    }
+
+    @Test
+    public void testArgumentsMatchSplit() {
+        RecordingCommand command = new RecordingCommand("test");
+        commandMap.register("test", command);
+
+        assertDispatchedArgs(command, "test");
+        assertDispatchedArgs(command, "TEST a b c");
+        assertDispatchedArgs(command, "test a  b");
+        assertDispatchedArgs(command, "test  a");
+        assertDispatchedArgs(command, "test a b   ");
+        assertDispatchedArgs(command, "test ");
+    }
+
+    @Test
+    public void testUnknownCommand() {
+        assertFalse(commandMap.dispatch(null, "unknown a b"));
+        assertFalse(commandMap.dispatch(null, "unknown a b"));
+    }
+
+    @Test
+    public void testFallbacks() {
+        assertTrue(commandMap.getCommand("help") instanceof HelpCommand);
+        assertTrue(commandMap.getCommand("?") instanceof HelpCommand);
+        assertTrue(commandMap.getCommand("killall") instanceof KillCommand);
+        assertTrue(commandMap.getCommand("killall") instanceof KillCommand);
+        assertNull(commandMap.getCommand("unknown"));
+        assertNull(commandMap.getCommand("unknown"));
+
+        RecordingCommand help = new RecordingCommand("help");
+        commandMap.register("test", help);
+        assertSame(help, commandMap.getCommand("help"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFallbacksAreUnmodifiable() {
+        SimpleCommandMap.fallbackCommands.clear();
+    }
+
+    @Test
+    public void testCommandLabels() {
+        commandMap.register("test", new RecordingCommand("plugin", "plug"));
+        commandMap.register("test", new RecordingCommand("plot"));
+
+        assertEquals(Arrays.asList("pl", "plot", "plug", "plugin", "plugins"), commandMap.getCommandLabels("pl"));
+        assertEquals(Arrays.asList("plot"), commandMap.getCommandLabels("PLO"));
+
+        commandMap.clearCommands();
+        assertEquals(Arrays.asList("pl", "plugins"), commandMap.getCommandLabels("pl"));
+    }
+
+    @Test
+    public void testCommandsAreSnapshots() {
+        Collection<Command> before = commandMap.getCommands();
+        int size = before.size();
+
+        RecordingCommand command = new RecordingCommand("test");
+        commandMap.register("test", command);
+
+        assertEquals(size, before.size());
+        assertTrue(commandMap.getCommands().contains(command));
+        assertSame(command, commandMap.getCommand("test"));
+    }
+
+    @Test
+    public void testAsyncSafe() {
+        RecordingCommand safe = new RecordingCommand("safe");
+        safe.setAsyncSafe(true);
+        commandMap.register("test", safe);
+        commandMap.register("test", new RecordingCommand("unsafe"));
+
+        assertTrue(commandMap.isAsyncSafe("safe a b"));
+        assertTrue(commandMap.isAsyncSafe("SAFE"));
+        assertFalse(commandMap.isAsyncSafe("unsafe a b"));
+        assertFalse(commandMap.isAsyncSafe("unknown"));
+        assertFalse(commandMap.isAsyncSafe("help"));
+
+        assertTrue(new MultipleCommandAlias("both", new Command[] {safe}).isAsyncSafe());
+        assertFalse(new MultipleCommandAlias("both", new Command[] {safe, commandMap.getCommand("unsafe")}).isAsyncSafe());
+    }
+
+    @Test
+    public void testServerAliases() {
+        final Map<String, String[]> aliases = new LinkedHashMap<String, String[]>();
+        aliases.put("Both", new String[] {"first", "second"});
+        aliases.put("twice", new String[] {"both", "help"});
+        aliases.put("missing", new String[] {"unknown"});
+        Server server = TestProxies.create(Server.class, ImmutableMap.of("getCommandAliases", aliases, "getLogger", Logger.getLogger(SimpleCommandMapTest.class.getName())));
+        SimpleCommandMap map = new SimpleCommandMap(server);
+        RecordingCommand first = new RecordingCommand("first");
+        RecordingCommand second = new RecordingCommand("second");
+        map.register("test", first);
+        map.register("test", second);
+
+        map.registerServerAliases();
+
+        MultipleCommandAlias both = (MultipleCommandAlias) map.getCommand("BOTH");
+        assertArrayEquals(new Command[] {first, second}, both.getCommands());
+        MultipleCommandAlias twice = (MultipleCommandAlias) map.getCommand("twice");
+        assertSame(both, twice.getCommands()[0]);
+        assertTrue(twice.getCommands()[1] instanceof HelpCommand);
+        assertNull(map.getCommand("missing"));
+        assertTrue(map.getCommands().contains(twice));
+        assertEquals(Arrays.asList("both"), map.getCommandLabels("bo"));
+    }
+
+    @Test
+    public void testDirectChanges() {
+        final RecordingCommand command = new RecordingCommand("direct");
+        SimpleCommandMap map = new SimpleCommandMap(null) {
+            {
+                knownCommands.put("direct", command);
+                commandsChanged();
+            }
+        };
+
+        assertSame(command, map.getCommand("direct"));
+        assertEquals(Arrays.asList("direct"), map.getCommandLabels("d"));
+        assertTrue(map.getCommands().contains(command));
+
+        // Direct changes are only seen once they are published
+        map.knownCommands.remove("direct");
+        assertSame(command, map.getCommand("direct"));
+        map.commandsChanged();
+        assertNull(map.getCommand("direct"));
+        assertEquals(Arrays.<String>asList(), map.getCommandLabels("d"));
+        assertFalse(map.getCommands().contains(command));
+    }
+
+    @Test
+    public void testRegisterAllPublishesEveryCommand() {
+        commandMap.registerAll("test", Arrays.<Command>asList(new RecordingCommand("one", "first"), new RecordingCommand("two")));
+
+        assertNotNull(commandMap.getCommand("one"));
+        assertNotNull(commandMap.getCommand("first"));
+        assertNotNull(commandMap.getCommand("two"));
+    }
+
+    @Test
+    public void testConcurrentRegisterAndDispatch() throws InterruptedException {
+        final RecordingCommand command = new RecordingCommand("test");
+        commandMap.register("test", command);
+
+        Thread registering = new Thread() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 2000; i++) {
+                    commandMap.register("test", new RecordingCommand("command" + i));
+                }
+            }
+        };
+        registering.start();
+
+        for (int i = 0; i < 2000; i++) {
+            assertTrue(commandMap.dispatch(null, "test " + i));
+        }
+        registering.join();
+
+        assertNotNull(commandMap.getCommand("command1999"));
+    }
+}
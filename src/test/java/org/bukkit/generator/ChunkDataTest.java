@@ -0,0 +1,90 @@
+package org.bukkit.generator;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.bukkit.Material;
+import org.junit.Test;
+
+public class ChunkDataTest {
+    @Test
+    public void testSectionsAreAllocatedLazily() {
+        ChunkData data = new ChunkData(128);
+
+        assertEquals(8, data.getSectionCount());
+        for (int sy = 0; sy < 8; sy++) {
+            assertTrue(data.isSectionEmpty(sy));
+        }
+
+        data.setBlock(3, 40, 5, Material.STONE);
+        data.setBlock(3, 41, 5, 0);
+        data.setBlock(3, 200, 5, Material.STONE);
+        assertFalse(data.isSectionEmpty(2));
+        assertNull(data.getSection(1));
+        assertEquals(Material.STONE.getId(), data.getTypeId(3, 40, 5));
+        assertEquals(0, data.getTypeId(3, 200, 5));
+
+        data.setBlock(3, 40, 5, Material.AIR);
+        assertTrue(data.isSectionEmpty(2));
+    }
+
+    @Test
+    public void testExtendedIdsAndData() {
+        ChunkData data = new ChunkData(256);
+
+        data.setBlock(15, 255, 15, 4095, (byte) 15);
+        assertEquals(4095, data.getTypeId(15, 255, 15));
+        assertEquals(15, data.getData(15, 255, 15));
+        assertEquals((4095 << 4) | 15, data.getSection(15)[ChunkData.SECTION_SIZE - 1]);
+
+        try {
+            data.setBlock(0, 0, 0, 4096);
+            fail("Expected an invalid type ID to be rejected");
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    @Test
+    public void testRegionsAndLayers() {
+        ChunkData data = new ChunkData(128);
+
+        data.setRegion(-5, 0, -5, 20, 64, 20, Material.STONE);
+        data.fillLayer(64, Material.GRASS.getId(), (byte) 0);
+        data.setRegion(4, 10, 4, 6, 20, 6, 0, (byte) 0);
+
+        for (int sy = 0; sy < 4; sy++) {
+            assertFalse(data.isSectionEmpty(sy));
+        }
+        assertFalse(data.isSectionEmpty(4));
+        assertTrue(data.isSectionEmpty(5));
+
+        assertEquals(Material.STONE.getId(), data.getTypeId(0, 0, 0));
+        assertEquals(Material.STONE.getId(), data.getTypeId(15, 63, 15));
+        assertEquals(Material.GRASS.getId(), data.getTypeId(7, 64, 7));
+        assertEquals(0, data.getTypeId(5, 15, 5));
+        assertEquals(Material.STONE.getId(), data.getTypeId(5, 20, 5));
+        assertEquals(0, data.getTypeId(7, 65, 7));
+
+        data.setRegion(0, 0, 0, 16, 128, 16, Material.AIR);
+        for (int sy = 0; sy < 8; sy++) {
+            assertTrue(data.isSectionEmpty(sy));
+        }
+    }
+
+    @Test
+    public void testByteArrayConversion() {
+        byte[] blocks = new byte[32768];
+        Random random = new Random(1);
+
+        for (int i = 0; i < 2000; i++) {
+            blocks[random.nextInt(256) * 128 + random.nextInt(48)] = (byte) random.nextInt(256);
+        }
+
+        ChunkData data = ChunkData.fromByteArray(blocks);
+        assertEquals(128, data.getMaxHeight());
+        assertTrue(data.isSectionEmpty(7));
+        assertArrayEquals(blocks, data.toByteArray());
+        assertEquals(blocks[(3 * 16 + 9) * 128 + 2] & 0xFF, data.getTypeId(3, 2, 9));
+    }
+}
@@ -0,0 +1,105 @@
+package org.bukkit.generator;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.bukkit.TestWorld;
+import org.bukkit.World;
+import org.junit.Test;
+
+public class ChunkPregeneratorTest {
+    private final World world = TestWorld.create("world", 12345);
+
+    private static class RandomGenerator extends ChunkGenerator {
+        private final boolean parallel;
+        private volatile Thread lastThread;
+
+        RandomGenerator(boolean parallel) {
+            this.parallel = parallel;
+        }
+
+        @Override
+        public byte[] generate(World world, Random random, int x, int z) {
+            lastThread = Thread.currentThread();
+            if (x == 100) {
+                throw new IllegalStateException("Bad chunk");
+            }
+
+            byte[] result = new byte[32768];
+            random.nextBytes(result);
+            return result;
+        }
+
+        @Override
+        public boolean isParallelCapable() {
+            return parallel;
+        }
+    }
+
+    private static class CollectingHandler implements ChunkPregenerator.ChunkHandler {
+        final Map<String, byte[]> chunks = new HashMap<String, byte[]>();
+
+        public void handleChunk(int x, int z, ChunkData data) {
+            assertNull(chunks.put(x + "," + z, data.toByteArray()));
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSerial() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            CollectingHandler serial = new CollectingHandler();
+            CollectingHandler parallel = new CollectingHandler();
+
+            RandomGenerator serialGenerator = new RandomGenerator(false);
+            assertEquals(30, new ChunkPregenerator(world, serialGenerator, executor, 4).generate(-2, -3, 2, 2, serial));
+            assertSame(Thread.currentThread(), serialGenerator.lastThread);
+
+            ChunkPregenerator pregenerator = new ChunkPregenerator(world, new RandomGenerator(true), executor, 4);
+            assertEquals(30, pregenerator.generate(-2, -3, 2, 2, parallel));
+            assertEquals(30, pregenerator.getGeneratedCount());
+            assertTrue(pregenerator.getChunksPerSecond() > 0);
+
+            assertEquals(serial.chunks.keySet(), parallel.chunks.keySet());
+            for (Map.Entry<String, byte[]> entry : serial.chunks.entrySet()) {
+                assertArrayEquals(entry.getKey(), entry.getValue(), parallel.chunks.get(entry.getKey()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailureIsThrown() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            new ChunkPregenerator(world, new RandomGenerator(true), executor, 2).generate(95, 0, 105, 10, new CollectingHandler());
+            fail("Expected the failing chunk to be reported");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof IllegalStateException);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final ChunkPregenerator[] pregenerator = new ChunkPregenerator[1];
+        ChunkPregenerator.ChunkHandler handler = new ChunkPregenerator.ChunkHandler() {
+            public void handleChunk(int x, int z, ChunkData data) {
+                pregenerator[0].cancel();
+            }
+        };
+
+        pregenerator[0] = new ChunkPregenerator(world, new RandomGenerator(false), Executors.newSingleThreadExecutor(), 1);
+        assertEquals(1, pregenerator[0].generate(0, 0, 9, 9, handler));
+    }
+}
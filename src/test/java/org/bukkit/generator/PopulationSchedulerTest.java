@@ -0,0 +1,158 @@
+package org.bukkit.generator;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.bukkit.BlockChangeDelegate;
+import org.bukkit.Chunk;
+import org.bukkit.TestProxies;
+import org.bukkit.TestWorld;
+import org.bukkit.World;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class PopulationSchedulerTest {
+    private final World world = TestWorld.create("world", 42);
+
+    private static Chunk chunk(int x, int z) {
+        return TestProxies.create(Chunk.class, ImmutableMap.of("getX", x, "getZ", z));
+    }
+
+    private static class MapDelegate implements BlockChangeDelegate {
+        private final Map<String, Integer> blocks;
+
+        MapDelegate(Map<String, Integer> blocks) {
+            this.blocks = blocks;
+        }
+
+        public boolean setRawTypeId(int x, int y, int z, int typeId) {
+            synchronized (blocks) {
+                blocks.put(x + "," + y + "," + z, typeId);
+            }
+            return true;
+        }
+
+        public boolean setRawTypeIdAndData(int x, int y, int z, int typeId, int data) {
+            return setRawTypeId(x, y, z, typeId);
+        }
+
+        public int getTypeId(int x, int y, int z) {
+            synchronized (blocks) {
+                Integer type = blocks.get(x + "," + y + "," + z);
+                return type == null ? 0 : type;
+            }
+        }
+
+        public int getHeight() {
+            return 128;
+        }
+
+        public boolean isEmpty(int x, int y, int z) {
+            return getTypeId(x, y, z) == 0;
+        }
+    }
+
+    private static class OverlapCheckingPopulator extends BlockPopulator implements ParallelBlockPopulator {
+        private final Set<String> active = new HashSet<String>();
+        private volatile boolean overlapped = false;
+
+        @Override
+        public void populate(World world, Random random, Chunk source) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void populate(World world, Random random, int chunkX, int chunkZ, BlockChangeDelegate delegate) {
+            synchronized (active) {
+                for (String other : active) {
+                    String[] coords = other.split(",");
+                    if (Math.abs(Integer.parseInt(coords[0]) - chunkX) <= 2 && Math.abs(Integer.parseInt(coords[1]) - chunkZ) <= 2) {
+                        overlapped = true;
+                    }
+                }
+                active.add(chunkX + "," + chunkZ);
+            }
+
+            // Stack blocks on the corner shared with the neighbouring chunks, so the result depends on the order
+            int x = chunkX * 16 + random.nextInt(2) * 16;
+            int z = chunkZ * 16;
+            int y = 0;
+            while (!delegate.isEmpty(x, y, z)) {
+                y++;
+            }
+            delegate.setRawTypeId(x, y, z, 1 + Math.abs(chunkX * 31 + chunkZ) % 100);
+            Thread.yield();
+
+            synchronized (active) {
+                active.remove(chunkX + "," + chunkZ);
+            }
+        }
+
+        public int getFootprintRadius() {
+            return 1;
+        }
+    }
+
+    private static class LegacyPopulator extends BlockPopulator {
+        @Override
+        public void populate(World world, Random random, Chunk source) {
+            fail("Legacy populators should not be scheduled");
+        }
+    }
+
+    private Map<String, Integer> populate(ExecutorService executor, OverlapCheckingPopulator populator, List<Chunk> chunks, final List<String> order) throws Exception {
+        final Map<String, Integer> blocks = new HashMap<String, Integer>();
+        PopulationScheduler scheduler = new PopulationScheduler(world, Arrays.<BlockPopulator>asList(new LegacyPopulator(), populator), executor, 4);
+
+        assertEquals(1, scheduler.getPopulators().size());
+        assertEquals(1, scheduler.getFootprintRadius());
+        assertEquals(chunks.size(), scheduler.populate(chunks, new PopulationScheduler.PopulationHandler() {
+            public BlockChangeDelegate createDelegate(int chunkX, int chunkZ, int radius) {
+                return new MapDelegate(blocks);
+            }
+
+            public void populated(int chunkX, int chunkZ, BlockChangeDelegate delegate) {
+                order.add(chunkX + "," + chunkZ);
+            }
+        }));
+        return blocks;
+    }
+
+    @Test
+    public void testOverlappingChunksAreSerialized() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Chunk> chunks = new ArrayList<Chunk>();
+
+        for (int x = 0; x < 8; x++) {
+            for (int z = 0; z < 8; z++) {
+                chunks.add(chunk(x, z));
+            }
+        }
+
+        try {
+            OverlapCheckingPopulator populator = new OverlapCheckingPopulator();
+            List<String> order = new ArrayList<String>();
+            Map<String, Integer> first = populate(executor, populator, chunks, order);
+
+            assertFalse(populator.overlapped);
+            assertEquals(64, order.size());
+            assertEquals(64, new HashSet<String>(order).size());
+
+            for (int i = 0; i < 5; i++) {
+                assertEquals(first, populate(executor, new OverlapCheckingPopulator(), chunks, new ArrayList<String>()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.bukkit.help;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.util.ChatPaginator;
+import org.junit.Test;
+
+public class HelpTopicIndexTest {
+    private static class TestTopic extends HelpTopic {
+        int fullTextRequests = 0;
+
+        TestTopic(String name, String fullText) {
+            this.name = name;
+            this.shortText = "";
+            this.fullText = fullText;
+        }
+
+        @Override
+        public boolean canSee(CommandSender player) {
+            return true;
+        }
+
+        @Override
+        public String getFullText(CommandSender forWho) {
+            fullTextRequests++;
+            return super.getFullText(forWho);
+        }
+    }
+
+    private HelpTopicIndex makeIndex(String... names) {
+        HelpTopicIndex index = new HelpTopicIndex();
+        for (String name : names) {
+            index.addTopic(new TestTopic(name, ""));
+        }
+        return index;
+    }
+
+    private List<String> names(List<HelpTopic> topics) {
+        List<String> names = new ArrayList<String>();
+        for (HelpTopic topic : topics) {
+            names.add(topic.getName());
+        }
+        return names;
+    }
+
+    @Test
+    public void testPrefixMatchesComeFirst() {
+        HelpTopicIndex index = makeIndex("/warp", "/setwarp", "/delwarp", "/warps", "Warping", "/spawn");
+
+        assertEquals(Arrays.asList("/warp", "/warps", "Warping", "/delwarp", "/setwarp"), names(index.match("warp")));
+        assertEquals(Arrays.asList("/warp", "/warps"), names(index.match("/WARP")));
+        assertEquals(Arrays.asList("/spawn"), names(index.match("pa")));
+        assertTrue(index.match("teleport").isEmpty());
+        assertEquals(6, index.match("").size());
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        HelpTopicIndex index = makeIndex("/warp", "/Warp");
+
+        assertEquals(2, index.match("warp").size());
+
+        index.addTopic(new TestTopic("/warp", "replaced"));
+        assertEquals(2, index.size());
+
+        assertNotNull(index.removeTopic("/Warp"));
+        assertNull(index.removeTopic("/Warp"));
+        assertEquals(Arrays.asList("/warp"), names(index.match("ar")));
+
+        index.clear();
+        assertTrue(index.match("warp").isEmpty());
+    }
+
+    @Test
+    public void testFullTextPagesAreCached() {
+        String text = "123456789 123456789 123456789 123456789 123456789";
+        TestTopic topic = new TestTopic("/test", text);
+
+        ChatPaginator.ChatPage page = topic.getFullTextPage(null, 2, 19, 1);
+        ChatPaginator.ChatPage expected = ChatPaginator.paginate(text, 2, 19, 1);
+        assertArrayEquals(expected.getLines(), page.getLines());
+        assertEquals(expected.getTotalPages(), page.getTotalPages());
+
+        // Same text is not wrapped again, but an amended text is
+        page.getLines()[0] = "modified";
+        assertArrayEquals(expected.getLines(), topic.getFullTextPage(null, 2, 19, 1).getLines());
+
+        topic.amendTopic(null, "<text> 123456789");
+        assertEquals(2, topic.getFullTextPage(null, 2, 19, 2).getTotalPages());
+        assertEquals(3, topic.fullTextRequests);
+    }
+}
@@ -0,0 +1,119 @@
+package org.bukkit.inventory;
+
+import static org.junit.Assert.*;
+
+
+import org.bukkit.Material;
+import org.bukkit.TestProxies;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class InventoryTransactionTest {
+
+    private static Inventory createInventory(final ItemStack[] slots) {
+        return TestProxies.create(Inventory.class, ImmutableMap.of("getContents", new TestProxies.Answer() {
+            public Object answer(Object[] args) {
+                return slots.clone();
+            }
+        }, "setItem", new TestProxies.Answer() {
+            public Object answer(Object[] args) {
+                slots[(Integer) args[0]] = (ItemStack) args[1];
+                return null;
+            }
+        }));
+    }
+
+    @Test
+    public void testAdd() {
+        ItemStack partial = new ItemStack(Material.STONE, 60);
+        ItemStack[] slots = { partial, new ItemStack(Material.DIRT, 10), null, null };
+        InventoryTransaction transaction = new InventoryTransaction(createInventory(slots));
+
+        assertTrue(transaction.add(new ItemStack(Material.STONE, 70), new ItemStack(Material.DIRT, 5)));
+        assertEquals(60, partial.getAmount());
+        assertNull(slots[2]);
+
+        assertTrue(transaction.commit());
+        assertEquals(64, slots[0].getAmount());
+        assertEquals(60, partial.getAmount());
+        assertEquals(15, slots[1].getAmount());
+        assertEquals(Material.STONE, slots[2].getType());
+        assertEquals(64, slots[2].getAmount());
+        assertEquals(2, slots[3].getAmount());
+    }
+
+    @Test
+    public void testRollback() {
+        ItemStack[] slots = { new ItemStack(Material.STONE, 10), new ItemStack(Material.STONE, 10), null };
+        ItemStack[] before = slots.clone();
+        InventoryTransaction transaction = new InventoryTransaction(createInventory(slots));
+
+        assertTrue(transaction.remove(new ItemStack(Material.STONE, 15)));
+        assertNull(transaction.getItem(0));
+        assertEquals(5, transaction.getItem(1).getAmount());
+        assertTrue(transaction.add(new ItemStack(Material.DIRT, 64)));
+        assertFalse(transaction.add(new ItemStack(Material.COBBLESTONE, 65)));
+        assertFalse(transaction.isValid());
+
+        assertFalse(transaction.commit());
+        assertArrayEquals(before, slots);
+        assertEquals(10, slots[1].getAmount());
+
+        transaction = new InventoryTransaction(createInventory(slots));
+        assertFalse(transaction.remove(new ItemStack(Material.STONE, 21)));
+        assertFalse(transaction.commit());
+        assertEquals(10, slots[0].getAmount());
+    }
+
+    @Test
+    public void testOnlySimilarStacksAreUsed() {
+        ItemStack[] slots = new ItemStack[36];
+        slots[5] = new ItemStack(Material.WOOL, 40, (short) 1);
+        slots[20] = new ItemStack(Material.WOOL, 40, (short) 2);
+        slots[30] = new ItemStack(Material.STONE, 1);
+        InventoryTransaction transaction = new InventoryTransaction(createInventory(slots));
+
+        assertTrue(transaction.remove(new ItemStack(Material.WOOL, 30, (short) 2), new ItemStack(Material.STONE, 1)));
+        assertTrue(transaction.add(new ItemStack(Material.WOOL, 30, (short) 1), new ItemStack(Material.STONE, 2)));
+        assertEquals(64, transaction.getItem(5).getAmount());
+        assertEquals(10, transaction.getItem(20).getAmount());
+        assertEquals(6, transaction.getItem(0).getAmount());
+        assertEquals(2, transaction.getItem(1).getAmount());
+        assertNull(transaction.getItem(30));
+        assertFalse(transaction.remove(new ItemStack(Material.WOOL, 50, (short) 2)));
+    }
+
+    @Test
+    public void testSlotIndex() {
+        MaterialSlotIndex index = new MaterialSlotIndex(100);
+        assertEquals(0, index.firstEmpty());
+        assertEquals(-1, index.first(Material.STONE.getId()));
+
+        index.set(70, new ItemStack(Material.STONE, 5));
+        index.set(3, new ItemStack(Material.STONE, 7));
+        index.set(0, new ItemStack(Material.DIRT, 1));
+
+        assertEquals(12, index.count(Material.STONE));
+        assertEquals(3, index.first(Material.STONE.getId()));
+        assertEquals(70, index.next(Material.STONE.getId(), 4));
+        assertEquals(-1, index.next(Material.STONE.getId(), 71));
+        assertEquals(1, index.firstEmpty());
+
+        index.set(3, new ItemStack(Material.DIRT, 2));
+        assertEquals(5, index.count(Material.STONE));
+        assertEquals(3, index.count(Material.DIRT));
+        assertEquals(70, index.first(Material.STONE.getId()));
+
+        index.setAll(new ItemStack[] { null, new ItemStack(Material.STONE, 1) });
+        assertEquals(1, index.count(Material.STONE));
+        assertEquals(0, index.count(Material.DIRT));
+        assertEquals(0, index.firstEmpty());
+        assertEquals(2, index.next(0, 1));
+        assertEquals(0, index.count(Material.DIAMOND_SWORD));
+
+        assertEquals(-1, index.first(-1));
+        assertEquals(-1, index.next(-1, 0));
+        assertEquals(0, index.count(-1));
+    }
+}
@@ -0,0 +1,150 @@
+package org.bukkit.inventory;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.enchantments.EnchantmentTarget;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ItemStackTest {
+    private static final Enchantment FIRST = new TestEnchantment(240, "ITEM_STACK_TEST_FIRST");
+    private static final Enchantment SECOND = new TestEnchantment(241, "ITEM_STACK_TEST_SECOND");
+    private static final Enchantment THIRD = new TestEnchantment(242, "ITEM_STACK_TEST_THIRD");
+
+    private static class TestEnchantment extends Enchantment {
+        private final String name;
+
+        TestEnchantment(int id, String name) {
+            super(id);
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMaxLevel() {
+            return 5;
+        }
+
+        public int getStartLevel() {
+            return 1;
+        }
+
+        public EnchantmentTarget getItemTarget() {
+            return EnchantmentTarget.ALL;
+        }
+
+        public boolean canEnchantItem(ItemStack item) {
+            return true;
+        }
+    }
+
+    @BeforeClass
+    public static void registerEnchantments() {
+        for (Enchantment enchantment : new Enchantment[] { FIRST, SECOND, THIRD }) {
+            if (Enchantment.getById(enchantment.getId()) == null) {
+                Enchantment.registerEnchantment(enchantment);
+            }
+        }
+    }
+
+    @Test
+    public void testEnchantments() {
+        ItemStack stack = new ItemStack(Material.DIAMOND_SWORD, 1);
+        assertTrue(stack.getEnchantments().isEmpty());
+        assertEquals(0, stack.getEnchantmentLevel(FIRST));
+
+        stack.addUnsafeEnchantment(THIRD, 3);
+        stack.addUnsafeEnchantment(FIRST, 1);
+        stack.addUnsafeEnchantment(SECOND, 2);
+        stack.addUnsafeEnchantment(FIRST, 4);
+
+        assertTrue(stack.containsEnchantment(SECOND));
+        assertEquals(4, stack.getEnchantmentLevel(FIRST));
+        assertEquals(3, stack.getEnchantments().size());
+        assertEquals(Integer.valueOf(3), stack.getEnchantments().get(THIRD));
+
+        assertEquals(2, stack.removeEnchantment(SECOND));
+        assertEquals(0, stack.removeEnchantment(SECOND));
+        assertFalse(stack.containsEnchantment(SECOND));
+        assertEquals(2, stack.getEnchantments().size());
+
+        assertFalse(stack.containsEnchantment(null));
+        assertEquals(0, stack.getEnchantmentLevel(null));
+        assertEquals(0, stack.removeEnchantment(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNullEnchantment() {
+        new ItemStack(Material.DIAMOND_SWORD, 1).addUnsafeEnchantment(null, 1);
+    }
+
+    @Test
+    public void testCloneIsIndependent() {
+        ItemStack stack = new ItemStack(Material.DIAMOND_SWORD, 1);
+        stack.addUnsafeEnchantment(FIRST, 1);
+
+        ItemStack clone = stack.clone();
+        ItemStack copy = new ItemStack(stack);
+        assertEquals(stack, clone);
+        assertEquals(stack, copy);
+
+        clone.addUnsafeEnchantment(FIRST, 2);
+        copy.addUnsafeEnchantment(SECOND, 1);
+        assertEquals(1, stack.getEnchantmentLevel(FIRST));
+        assertFalse(stack.containsEnchantment(SECOND));
+        assertFalse(stack.equals(clone));
+        assertFalse(stack.equals(copy));
+
+        copy.removeEnchantment(SECOND);
+        assertEquals(stack, copy);
+    }
+
+    @Test
+    public void testSubclassEnchantments() {
+        ItemStack plain = new ItemStack(Material.DIAMOND_SWORD, 1);
+        plain.addUnsafeEnchantment(FIRST, 2);
+
+        ItemStack custom = new ItemStack(Material.DIAMOND_SWORD, 1) {
+            @Override
+            public Map<Enchantment, Integer> getEnchantments() {
+                return Collections.singletonMap(FIRST, 2);
+            }
+        };
+        assertEquals(plain, custom);
+        assertEquals(custom, plain);
+        assertTrue(plain.isSimilar(custom));
+        assertTrue(custom.isSimilar(plain));
+
+        ItemStack copy = new ItemStack(custom);
+        assertEquals(2, copy.getEnchantmentLevel(FIRST));
+        assertEquals(plain, copy);
+
+        plain.addUnsafeEnchantment(FIRST, 3);
+        assertFalse(plain.equals(custom));
+        assertFalse(custom.isSimilar(plain));
+    }
+
+    @Test
+    public void testSerialization() {
+        ItemStack stack = new ItemStack(Material.DIAMOND_SWORD, 2, (short) 7);
+        stack.addUnsafeEnchantment(SECOND, 5);
+        stack.addUnsafeEnchantment(FIRST, 2);
+
+        Map<String, Object> serialized = stack.serialize();
+        Map<?, ?> enchantments = (Map<?, ?>) serialized.get("enchantments");
+        assertEquals(2, enchantments.size());
+        assertEquals(5, enchantments.get("ITEM_STACK_TEST_SECOND"));
+
+        ItemStack deserialized = ItemStack.deserialize(serialized);
+        assertEquals(stack, deserialized);
+        assertEquals(5, deserialized.getEnchantmentLevel(SECOND));
+        assertFalse(new ItemStack(Material.DIAMOND_SWORD, 2, (short) 7).serialize().containsKey("enchantments"));
+    }
+}
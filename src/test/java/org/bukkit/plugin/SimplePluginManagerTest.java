@@ -0,0 +1,74 @@
+package org.bukkit.plugin;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.bukkit.TestProxies;
+import org.bukkit.command.CommandSender;
+import org.bukkit.permissions.Permissible;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class SimplePluginManagerTest {
+
+    private static CommandSender createSender(final Set<String> permissions) {
+        return TestProxies.create(CommandSender.class, ImmutableMap.of("hasPermission", new TestProxies.Answer() {
+            public Object answer(Object[] args) {
+                return permissions.contains(args[0]);
+            }
+        }));
+    }
+
+    @Test
+    public void testPermissionRecipients() {
+        SimplePluginManager manager = new SimplePluginManager(null, null);
+        Set<String> adminPermissions = new HashSet<String>();
+        adminPermissions.add("test.channel");
+        CommandSender admin = createSender(adminPermissions);
+        CommandSender user = createSender(new HashSet<String>());
+
+        assertTrue(manager.getPermissionRecipients("test.channel").isEmpty());
+        manager.subscribeToPermission("Test.Channel", admin);
+        manager.subscribeToPermission("test.channel", user);
+
+        Set<CommandSender> recipients = manager.getPermissionRecipients("test.channel");
+        assertEquals(1, recipients.size());
+        assertTrue(recipients.contains(admin));
+        assertSame(recipients, manager.getPermissionRecipients("TEST.CHANNEL"));
+
+        Set<Permissible> subscribers = manager.getPermissionSubscriptions("test.channel");
+        assertEquals(2, subscribers.size());
+        assertSame(subscribers, manager.getPermissionSubscriptions("test.channel"));
+
+        // Recalculating permissions resubscribes, which rebuilds the recipients
+        manager.unsubscribeFromPermission("test.channel", admin);
+        adminPermissions.clear();
+        manager.subscribeToPermission("test.channel", admin);
+        assertTrue(manager.getPermissionRecipients("test.channel").isEmpty());
+        assertEquals(2, manager.getPermissionSubscriptions("test.channel").size());
+
+        manager.unsubscribeFromPermission("test.channel", admin);
+        manager.unsubscribeFromPermission("test.channel", user);
+        assertTrue(manager.getPermissionSubscriptions("test.channel").isEmpty());
+    }
+
+    @Test
+    public void testClearPluginsDropsSubscriptions() {
+        SimplePluginManager manager = new SimplePluginManager(null, null);
+        Set<String> permissions = new HashSet<String>();
+        permissions.add("test.channel");
+        CommandSender sender = createSender(permissions);
+
+        manager.subscribeToPermission("test.channel", sender);
+        manager.subscribeToDefaultPerms(true, sender);
+        assertEquals(1, manager.getPermissionRecipients("test.channel").size());
+
+        manager.clearPlugins();
+        assertTrue(manager.getPermissionSubscriptions("test.channel").isEmpty());
+        assertTrue(manager.getPermissionRecipients("test.channel").isEmpty());
+        assertTrue(manager.getDefaultPermSubscriptions(true).isEmpty());
+    }
+}
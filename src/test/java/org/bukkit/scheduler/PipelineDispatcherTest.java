@@ -0,0 +1,110 @@
+package org.bukkit.scheduler;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+import org.bukkit.plugin.TestPlugin;
+import org.junit.Test;
+
+public class PipelineDispatcherTest {
+    private final TestScheduler scheduler = new TestScheduler();
+    private final TestPlugin plugin = new TestPlugin("x");
+
+    private static Callable<Integer> constant(final int value) {
+        return new Callable<Integer>() {
+            public Integer call() {
+                return value;
+            }
+        };
+    }
+
+    private static PipelineStage<Integer, Integer> addOne() {
+        return new PipelineStage<Integer, Integer>() {
+            public Integer call(Integer input) {
+                return input + 1;
+            }
+        };
+    }
+
+    @Test
+    public void testStagesRunInOrder() throws Exception {
+        BukkitPipeline<Integer> result = scheduler.supplyAsync(plugin, constant(1)).thenSync(addOne()).thenAsync(addOne());
+
+        scheduler.runAsyncTasks();
+        assertFalse(result.isDone());
+
+        scheduler.tick();
+        assertFalse(result.isDone());
+
+        scheduler.runAsyncTasks();
+        assertTrue(result.isDone());
+        assertEquals(Integer.valueOf(3), result.get());
+    }
+
+    @Test
+    public void testSyncStagesAreBatched() throws Exception {
+        BukkitPipeline<Integer> first = scheduler.supplySync(plugin, constant(1));
+        BukkitPipeline<Integer> second = scheduler.supplySync(plugin, constant(2));
+        BukkitPipeline<Integer> third = scheduler.supplySync(plugin, constant(3));
+
+        assertEquals(1, scheduler.getSyncTasksScheduled());
+
+        scheduler.tick();
+        assertEquals(Integer.valueOf(1), first.get());
+        assertEquals(Integer.valueOf(2), second.get());
+        assertEquals(Integer.valueOf(3), third.get());
+    }
+
+    @Test
+    public void testFailurePropagates() throws Exception {
+        final RuntimeException failure = new RuntimeException("Gotcha!");
+        BukkitPipeline<Integer> result = scheduler.supplyAsync(plugin, new Callable<Integer>() {
+            public Integer call() {
+                throw failure;
+            }
+        }).thenSync(addOne());
+
+        scheduler.runAsyncTasks();
+        assertTrue(result.isDone());
+
+        try {
+            result.get();
+            fail("Pipeline should have failed");
+        } catch (ExecutionException ex) {
+            assertSame(failure, ex.getCause());
+        }
+    }
+
+    @Test(expected = CancellationException.class)
+    public void testCancelTasksCancelsPipelines() throws Exception {
+        BukkitPipeline<Integer> result = scheduler.supplyAsync(plugin, constant(1)).thenSync(addOne());
+
+        scheduler.cancelTasks(plugin);
+        assertTrue(result.isCancelled());
+
+        scheduler.runAsyncTasks();
+        scheduler.tick();
+        result.get();
+    }
+
+    @Test
+    public void testCancelledSyncTaskIsRescheduled() throws Exception {
+        scheduler.supplySync(plugin, constant(1));
+        scheduler.cancelTasks(plugin);
+
+        BukkitPipeline<Integer> result = scheduler.supplySync(plugin, constant(2));
+        scheduler.tick();
+        assertEquals(Integer.valueOf(2), result.get());
+    }
+
+    @Test
+    public void testDisabledPluginCancelsPipeline() {
+        TestPlugin disabled = new TestPlugin("y");
+        disabled.setEnabled(false);
+
+        assertTrue(scheduler.supplyAsync(disabled, constant(1)).isCancelled());
+    }
+}
@@ -0,0 +1,291 @@
+package org.bukkit.scheduler;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.bukkit.plugin.TestPlugin;
+import org.junit.Test;
+
+public class PluginWorkerPoolTest {
+    private final TestPlugin plugin = new TestPlugin("x");
+    private final List<Runnable> workers = new ArrayList<Runnable>();
+    private final Executor executor = new Executor() {
+        public void execute(Runnable command) {
+            workers.add(command);
+        }
+    };
+
+    private static class CountingTask implements Runnable {
+        int runs = 0;
+
+        public void run() {
+            runs++;
+        }
+    }
+
+    private static class EqualTask extends CountingTask {
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof EqualTask;
+        }
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private void runWorkers() {
+        List<Runnable> toRun = new ArrayList<Runnable>(workers);
+        workers.clear();
+        for (Runnable worker : toRun) {
+            worker.run();
+        }
+    }
+
+    @Test
+    public void testWorkersAreBounded() {
+        PluginWorkerPool pool = new PluginWorkerPool(plugin, new AsyncPoolSettings().maxThreads(2).executor(executor));
+        CountingTask task = new CountingTask();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(pool.execute(task));
+        }
+
+        assertEquals(2, workers.size());
+        assertEquals(10, pool.getQueueDepth());
+
+        runWorkers();
+        assertEquals(10, task.runs);
+        assertEquals(0, pool.getQueueDepth());
+        assertEquals(0, pool.getRunningCount());
+    }
+
+    @Test
+    public void testAbortRejectsWhenFull() {
+        PluginWorkerPool pool = new PluginWorkerPool(plugin, new AsyncPoolSettings().maxThreads(1).queueCapacity(2).executor(executor));
+        CountingTask task = new CountingTask();
+
+        assertTrue(pool.execute(task));
+        assertTrue(pool.execute(task));
+        assertFalse(pool.execute(task));
+        assertEquals(1, pool.getRejectedCount());
+
+        runWorkers();
+        assertEquals(2, task.runs);
+        assertTrue(pool.execute(task));
+    }
+
+    @Test
+    public void testCallerRunsWhenFull() {
+        AsyncPoolSettings settings = new AsyncPoolSettings().maxThreads(1).queueCapacity(1).executor(executor);
+        PluginWorkerPool pool = new PluginWorkerPool(plugin, settings.rejectionPolicy(AsyncPoolSettings.RejectionPolicy.CALLER_RUNS));
+        CountingTask task = new CountingTask();
+
+        assertTrue(pool.execute(task));
+        assertEquals(0, task.runs);
+        assertTrue(pool.execute(task));
+        assertEquals(1, task.runs);
+        assertEquals(1, pool.getRejectedCount());
+    }
+
+    @Test
+    public void testExecutorRejection() {
+        Executor rejecting = new Executor() {
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        CountingTask task = new CountingTask();
+
+        PluginWorkerPool pool = new PluginWorkerPool(plugin, new AsyncPoolSettings().executor(rejecting));
+        assertFalse(pool.execute(task));
+        assertFalse(pool.execute(task));
+        assertEquals(0, pool.getQueueDepth());
+        assertEquals(2, pool.getRejectedCount());
+        assertEquals(0, task.runs);
+
+        pool = new PluginWorkerPool(plugin, new AsyncPoolSettings().executor(rejecting).rejectionPolicy(AsyncPoolSettings.RejectionPolicy.CALLER_RUNS));
+        assertTrue(pool.execute(task));
+        assertEquals(1, task.runs);
+        assertEquals(0, pool.getQueueDepth());
+        assertEquals(1, pool.getRejectedCount());
+    }
+
+    @Test
+    public void testExecutorRejectionLeavesTaskToOtherWorkers() throws InterruptedException {
+        final CountDownLatch secondStarting = new CountDownLatch(1);
+        final CountDownLatch firstReturned = new CountDownLatch(1);
+        final Thread[] other = new Thread[1];
+        Executor executor = new Executor() {
+            private int calls = 0;
+
+            public void execute(Runnable command) {
+                int call;
+                synchronized (this) {
+                    call = calls++;
+                }
+
+                if (call == 0) {
+                    // Another submission queues its task and counts a worker before this worker fails
+                    other[0].start();
+                    await(secondStarting);
+                } else {
+                    secondStarting.countDown();
+                    await(firstReturned);
+                }
+                throw new RejectedExecutionException();
+            }
+        };
+
+        AsyncPoolSettings settings = new AsyncPoolSettings().maxThreads(2).executor(executor);
+        final PluginWorkerPool pool = new PluginWorkerPool(plugin, settings.rejectionPolicy(AsyncPoolSettings.RejectionPolicy.CALLER_RUNS));
+        final CountingTask first = new EqualTask();
+        final CountingTask second = new EqualTask();
+        other[0] = new Thread() {
+            @Override
+            public void run() {
+                pool.execute(second);
+            }
+        };
+
+        // The worker of the other submission is still counted, so the first task is left to it
+        assertTrue(pool.execute(first));
+        assertEquals(0, first.runs);
+        assertEquals(2, pool.getQueueDepth());
+        assertEquals(0, pool.getRejectedCount());
+
+        firstReturned.countDown();
+        other[0].join();
+
+        // No task is left waiting once the last worker failed to start
+        assertEquals(1, first.runs);
+        assertEquals(1, second.runs);
+        assertEquals(2, pool.getRejectedCount());
+        assertEquals(0, pool.getQueueDepth());
+    }
+
+    @Test
+    public void testExecutorRejectionRejectsStrandedTasks() throws InterruptedException {
+        final CountingTask queued = new CountingTask();
+        final boolean[] accepted = new boolean[1];
+        final PluginWorkerPool[] pool = new PluginWorkerPool[1];
+        Executor executor = new Executor() {
+            public void execute(Runnable command) {
+                // Another submission queues its task behind this worker, which is counted but never starts
+                Thread other = new Thread() {
+                    @Override
+                    public void run() {
+                        accepted[0] = pool[0].execute(queued);
+                    }
+                };
+                other.start();
+                try {
+                    other.join();
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+                throw new RejectedExecutionException();
+            }
+        };
+        CountingTask task = new CountingTask();
+
+        pool[0] = new PluginWorkerPool(plugin, new AsyncPoolSettings().maxThreads(1).executor(executor));
+        assertFalse(pool[0].execute(task));
+        assertTrue(accepted[0]);
+        assertEquals(0, pool[0].getQueueDepth());
+        assertEquals(2, pool[0].getRejectedCount());
+        assertEquals(0, queued.runs);
+
+        pool[0] = new PluginWorkerPool(plugin, new AsyncPoolSettings().maxThreads(1).executor(executor).rejectionPolicy(AsyncPoolSettings.RejectionPolicy.CALLER_RUNS));
+        assertTrue(pool[0].execute(task));
+        assertEquals(0, pool[0].getQueueDepth());
+        assertEquals(1, task.runs);
+        assertEquals(1, queued.runs);
+    }
+
+    @Test
+    public void testExecutorFailureReleasesWorker() {
+        Executor failing = new Executor() {
+            private boolean failed = false;
+
+            public void execute(Runnable command) {
+                if (!failed) {
+                    failed = true;
+                    throw new IllegalStateException();
+                }
+                workers.add(command);
+            }
+        };
+        PluginWorkerPool pool = new PluginWorkerPool(plugin, new AsyncPoolSettings().maxThreads(1).executor(failing));
+        CountingTask task = new CountingTask();
+
+        try {
+            pool.execute(task);
+            fail("Expected the failure of the executor");
+        } catch (IllegalStateException ex) {
+        }
+        assertEquals(0, pool.getQueueDepth());
+        assertEquals(1, pool.getRejectedCount());
+
+        // The failed worker is no longer counted, so the next task starts one
+        assertTrue(pool.execute(task));
+        assertEquals(1, workers.size());
+        runWorkers();
+        assertEquals(1, task.runs);
+    }
+
+    @Test
+    public void testShutdownDiscardsQueue() {
+        PluginWorkerPool pool = new PluginWorkerPool(plugin, new AsyncPoolSettings().executor(executor));
+        CountingTask task = new CountingTask();
+
+        pool.execute(task);
+        pool.execute(task);
+        assertEquals(2, pool.shutdown());
+        assertFalse(pool.execute(task));
+
+        runWorkers();
+        assertEquals(0, task.runs);
+    }
+
+    @Test
+    public void testThreadsRunTasks() throws InterruptedException {
+        PluginWorkerPool pool = new PluginWorkerPool(plugin, new AsyncPoolSettings().maxThreads(4));
+        final Object done = new Object();
+        final int[] count = new int[1];
+
+        for (int i = 0; i < 100; i++) {
+            pool.execute(new Runnable() {
+                public void run() {
+                    synchronized (done) {
+                        count[0]++;
+                        done.notifyAll();
+                    }
+                }
+            });
+        }
+
+        synchronized (done) {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (count[0] < 100 && System.currentTimeMillis() < deadline) {
+                done.wait(100);
+            }
+        }
+        assertEquals(100, count[0]);
+        assertTrue(pool.getRunTime() >= 0);
+    }
+}
@@ -0,0 +1,147 @@
+package org.bukkit.scheduler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Scheduler which only runs its tasks when told to, on the calling thread
+ */
+public class TestScheduler implements BukkitScheduler {
+    private final Map<Integer, Task> syncTasks = new LinkedHashMap<Integer, Task>();
+    private final Map<Integer, Task> asyncTasks = new LinkedHashMap<Integer, Task>();
+    private final PipelineDispatcher pipelines = new PipelineDispatcher(this);
+    private int nextId = 1;
+    private int syncTasksScheduled = 0;
+
+    private static class Task {
+        final Plugin owner;
+        final Runnable task;
+
+        Task(Plugin owner, Runnable task) {
+            this.owner = owner;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Runs every sync task that is currently queued
+     */
+    public void tick() {
+        runAll(syncTasks);
+    }
+
+    /**
+     * Runs every async task that is currently queued
+     */
+    public void runAsyncTasks() {
+        runAll(asyncTasks);
+    }
+
+    public int getSyncTasksScheduled() {
+        return syncTasksScheduled;
+    }
+
+    private void runAll(Map<Integer, Task> tasks) {
+        List<Task> toRun = new ArrayList<Task>(tasks.values());
+        tasks.clear();
+        for (Task task : toRun) {
+            task.task.run();
+        }
+    }
+
+    public int scheduleSyncDelayedTask(Plugin plugin, Runnable task, long delay) {
+        syncTasksScheduled++;
+        syncTasks.put(nextId, new Task(plugin, task));
+        return nextId++;
+    }
+
+    public int scheduleSyncDelayedTask(Plugin plugin, Runnable task) {
+        return scheduleSyncDelayedTask(plugin, task, 0);
+    }
+
+    public int scheduleSyncRepeatingTask(Plugin plugin, Runnable task, long delay, long period) {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    public int scheduleAsyncDelayedTask(Plugin plugin, Runnable task, long delay) {
+        asyncTasks.put(nextId, new Task(plugin, task));
+        return nextId++;
+    }
+
+    public int scheduleAsyncDelayedTask(Plugin plugin, Runnable task) {
+        return scheduleAsyncDelayedTask(plugin, task, 0);
+    }
+
+    public int scheduleAsyncRepeatingTask(Plugin plugin, Runnable task, long delay, long period) {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    public <T> Future<T> callSyncMethod(Plugin plugin, Callable<T> task) {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    public <T> BukkitPipeline<T> supplyAsync(Plugin plugin, Callable<T> task) {
+        return pipelines.supplyAsync(plugin, task);
+    }
+
+    public <T> BukkitPipeline<T> supplySync(Plugin plugin, Callable<T> task) {
+        return pipelines.supplySync(plugin, task);
+    }
+
+    public void cancelTask(int taskId) {
+        syncTasks.remove(taskId);
+        asyncTasks.remove(taskId);
+    }
+
+    public void cancelTasks(Plugin plugin) {
+        removeTasks(syncTasks, plugin);
+        removeTasks(asyncTasks, plugin);
+        pipelines.cancelPipelines(plugin);
+    }
+
+    private void removeTasks(Map<Integer, Task> tasks, Plugin plugin) {
+        Iterator<Task> it = tasks.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().owner.equals(plugin)) {
+                it.remove();
+            }
+        }
+    }
+
+    public void cancelAllTasks() {
+        syncTasks.clear();
+        asyncTasks.clear();
+        pipelines.cancelAllPipelines();
+    }
+
+    public boolean isCurrentlyRunning(int taskId) {
+        return false;
+    }
+
+    public boolean isQueued(int taskId) {
+        return syncTasks.containsKey(taskId) || asyncTasks.containsKey(taskId);
+    }
+
+    public void setAsyncPoolSettings(Plugin plugin, AsyncPoolSettings settings) {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    public AsyncPoolSettings getAsyncPoolSettings(Plugin plugin) {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    public List<BukkitWorker> getActiveWorkers() {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    public List<BukkitTask> getPendingTasks() {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+}
@@ -0,0 +1,276 @@
+package org.bukkit.util;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+
+import org.bukkit.TestProxies;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class BlockRaytracerTest {
+    private static final World WORLD = TestProxies.create(World.class, ImmutableMap.of("getBlockAt", new TestProxies.Answer() {
+        public Object answer(Object[] args) {
+            return createBlock((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+        }
+    }));
+
+    private static Block createBlock(int x, int y, int z) {
+        return TestProxies.create(Block.class, ImmutableMap.of("getX", x, "getY", y, "getZ", z));
+    }
+
+    private static void assertOnRay(Vector start, Vector direction, int x, int y, int z) {
+        double[] origin = { start.getX(), start.getY(), start.getZ() };
+        double[] step = { direction.getX(), direction.getY(), direction.getZ() };
+        int[] block = { x, y, z };
+        double enter = Double.NEGATIVE_INFINITY;
+        double exit = Double.POSITIVE_INFINITY;
+
+        for (int axis = 0; axis < 3; axis++) {
+            if (step[axis] == 0) {
+                assertTrue(origin[axis] >= block[axis] - 1e-6 && origin[axis] <= block[axis] + 1 + 1e-6);
+            } else {
+                double near = (block[axis] - origin[axis]) / step[axis];
+                double far = (block[axis] + 1 - origin[axis]) / step[axis];
+                enter = Math.max(enter, Math.min(near, far));
+                exit = Math.min(exit, Math.max(near, far));
+            }
+        }
+        assertTrue("Ray misses block " + x + "," + y + "," + z, enter <= exit + 1e-6 && exit >= -1e-6);
+    }
+
+    private static void assertMatches(BlockRaytracer raytracer, String ray) {
+        String[] parts = ray.split(" ");
+        Vector start = new Vector(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+        Vector direction = new Vector(Double.parseDouble(parts[3]), Double.parseDouble(parts[4]), Double.parseDouble(parts[5]));
+        double yOffset = Double.parseDouble(parts[6]);
+        int maxDistance = Integer.parseInt(parts[7]);
+
+        BlockIterator iterator = new BlockIterator(WORLD, start, direction, yOffset, maxDistance);
+        start.setY(start.getY() + yOffset);
+        raytracer.start(start.getX(), start.getY(), start.getZ(), direction.getX(), direction.getY(), direction.getZ(), maxDistance);
+
+        int x = Integer.parseInt(parts[8]);
+        int y = Integer.parseInt(parts[9]);
+        int z = Integer.parseInt(parts[10]);
+        String steps = parts.length > 11 ? parts[11] : "";
+
+        for (int i = 0; i <= steps.length(); i++) {
+            BlockFace face = BlockFace.SELF;
+            if (i > 0) {
+                char step = steps.charAt(i - 1);
+                int amount = Character.isUpperCase(step) ? 1 : -1;
+                switch (Character.toUpperCase(step)) {
+                case 'X':
+                    x += amount;
+                    face = amount > 0 ? BlockFace.NORTH : BlockFace.SOUTH;
+                    break;
+                case 'Y':
+                    y += amount;
+                    face = amount > 0 ? BlockFace.DOWN : BlockFace.UP;
+                    break;
+                default:
+                    z += amount;
+                    face = amount > 0 ? BlockFace.EAST : BlockFace.WEST;
+                }
+            }
+
+            assertTrue(ray, iterator.hasNext());
+            Block block = iterator.next();
+            assertEquals(ray, x, block.getX());
+            assertEquals(ray, y, block.getY());
+            assertEquals(ray, z, block.getZ());
+
+            assertTrue(ray, raytracer.next());
+            assertEquals(ray, x, raytracer.getBlockX());
+            assertEquals(ray, y, raytracer.getBlockY());
+            assertEquals(ray, z, raytracer.getBlockZ());
+            assertEquals(ray, face, raytracer.getFace());
+            assertOnRay(start, direction, x, y, z);
+        }
+
+        if (!ray.endsWith("...")) {
+            assertFalse(ray, iterator.hasNext());
+            assertFalse(ray, raytracer.next());
+        }
+    }
+
+    /**
+     * Blocks visited by BlockIterator before it was built on BlockRaytracer. Every ray is its start, direction,
+     * y offset and max distance, followed by its first block and a letter for every step: X, Y or Z moves up along
+     * that axis and lower case letters move down. Rays which went on for longer end with "...".
+     */
+    private static final String[] RAYS = {
+        "45.0 89.0 46.0 0.0 0.7288353113343891 0.0 1.62 0 45 90 46 YYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYY ...",
+        "-42.79203421847673 75.87103906775724 -13.871182618341109 0.7208021160481013 0.02895517347681766 -0.3325480900591812 0.0 6 -43 75 -14 zXXzXYXzX",
+        "62.58546640911632 88.26410861326524 -56.894905927747615 0.6387846139892855 -0.28743240486613547 1.723291314665143 0.0 25 62 88 -57 ZXyZZXZZZXZyZZXZZZXZyZXZZZXZZyZXZZXZ",
+        "9.594044413399459 36.992814111785236 26.599638263805133 -2.755113022625996 -0.7365181008290126 -2.000202746909962 1.62 25 9 38 26 xzxzyxzxxzxyzxxzxzxyzxxzxzyxxzxzxyzxxzxz",
+        "-59.82816897696104 39.85935960279356 90.26235618360838 0.29913724089579435 0.7472498086761274 -0.368155648265021 0.0 0 -60 39 90 YzYXYzYYXzYYzXYYzYXYzYXYzYYXzYYzXYYzYXYzYXYzYYXzYYzXYYzYXYzY ...",
+        "56.0 122.0 -79.0 0.2954160302335952 0.2512602557181754 -1.4719835081514365 0.0 6 56 122 -79 zzzzzXzY",
+        "71.39149548848957 120.36807817353146 -71.25083635595891 -1.097339639470476 -2.2019623064609593 0.3878718276253491 1.62 20 71 121 -72 xyZyxyyxyyxyZyxyyxyyZxyyxyyxyyZx",
+        "92.86255519982919 30.950420956427408 -20.12199651137972 -0.2678805577794433 0.0 -0.27802765110565525 0.0 40 92 30 -21 zxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzxzzxzx",
+        "51.44799779833858 30.250114462585216 45.35284201858536 -0.05542615034653328 1.1345546609350143 0.06600079712072057 0.0 0 51 30 45 YYYYYYYYYxYYZYYYYYYYYYYYYYYYYYZYxYYYYYYYYYYYYYYYYZYYYYYxYYYY ...",
+        "-72.76012108492537 125.01721158962938 -79.36669465456991 0.4279036519763426 -0.14646034546989936 1.2841641102775478 1.62 25 -73 126 -80 ZZXZZZXZyZZXZZZXZZZXyZZZXZZZXZZZyXZ",
+        "-92.0 98.0 20.0 0.07417391449612813 -0.06859131607049021 -0.01551063199679796 0.0 29 -92 98 20 zyXyXyXyXyzXyXyXyXyXzyXyXyXyXXyzXyXyXyXyXzyXyXy",
+        "-18.77570250523179 95.50687594897329 4.300640278996298 0.0 0.04435760220713542 0.0 0.0 24 -19 95 4 YYYYYYYYYYYYYYYYYYYYYYYY",
+        "-19.655986901157178 124.29016194947889 44.1132296942439 -0.8375962348995434 -0.666716414531458 1.4560999221530222 1.62 0 -20 125 44 xZZyxZZxyZxZyZxZyZxZyZxZxZyZxZyZxZyZxZyxZZxyZZxyZZxZyxZZyxZZ ...",
+        "-45.01291493455617 83.04128684073538 79.91729915719534 1.0 -1.0 1.0 0.0 30 -46 83 79 XyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZ",
+        "78.67667122492824 43.82991655870016 47.835111632528 0.5440445870319244 0.0 0.42485354689208943 0.0 5 78 43 47 ZXXZXZXZ",
+        "-70.0 47.0 -47.0 -2.0932541280821315 -1.015551247280034 -0.5665278922905114 1.62 3 -70 48 -47 xzxyx",
+        "-47.407115406123815 110.07008779421665 99.68178910921054 1.1145664912747293 0.9901596274388053 0.838743241966988 0.0 0 -48 110 99 XZYXZYXZYXXZYXYZXYZXYZXYXZYXZYXYZXXYZXYZXYZXYXZYXZYXYZXYXZXY ...",
+        "-58.26300996423728 88.68869186437178 40.30782393814562 1.4751674876198333 -1.014045568639937 0.33937638025700634 0.0 11 -59 88 40 XyXXyZXyXXyXyXZXy",
+        "-21.301708180422523 79.1624976871652 95.21554858338163 1.1786994295197566 -1.8370978913467904 -0.6690828506266908 1.62 21 -22 80 95 XzyyXyzXyyXyzXyyXyzyXyXzyyXyzXyyXyzX",
+        "-41.707046662790994 115.59232473636823 -11.207602728368542 2.403476299102081 0.21583139038877053 -0.20562028974473276 0.0 2 -42 115 -12 XX",
+        "-81.0 47.0 -58.0 -0.33074903841940023 1.446079098783083 0.08988263946796816 0.0 0 -81 47 -58 xYYYYxYYYYxYYYYYxYYYZYxYYYYxYYYYYxYYYYxYYZYYxYYYYYxYYYYxYYYY ...",
+        "39.62241406920032 107.59608988576393 -36.91782074601691 0.6444707013495694 0.0 -0.3733809275121057 1.62 31 39 109 -37 zXXzXXzXzXXzXXzXXzXzXXzXXzXXzXzXXzXXzXzXXzX",
+        "-1.7967650753137008 85.47684852874646 -98.39021844588017 0.0 1.2752674301365352 0.0 0.0 13 -2 85 -99 YYYYYYYYYYYYY",
+        "-68.29601310440717 70.35190599234019 27.566773122493643 0.1598646565644954 -0.9323802741211102 0.15080168229314006 0.0 6 -69 70 27 yyXyZyyy",
+        "-41.20418707761508 116.56245502915266 76.98924615760333 -0.2617427141507972 -0.9537373965039381 0.2856692407212834 1.62 0 -42 118 76 ZyyyxyZyyyxZyyyZyxyyyZxyyyZyxyyZyxyyyZyxyyZyyxyZyyxyyZyyxyZy ...",
+        "-60.0 13.0 -88.0 -0.1144379521860354 -2.120385277202938 0.1592765731982536 0.0 10 -60 13 -88 yxyyyyyyyyy",
+        "19.943912973252665 104.80962473304919 61.399100105443125 1.0 -1.0 1.0 0.0 15 19 104 61 XZyXZyXZyXZyXZyXZyXZyXZyXZy",
+        "97.77500796581256 91.17500522071721 80.51217605351505 0.4872939036000768 -1.5413325207499875 1.0696108680847818 1.62 33 97 92 80 ZXyyZyZyXyZyZyXyZyZyXZyyZyXZyyZyXZyyZyZXyyZyZyXZyyZyXZ",
+        "-90.60530216326677 16.32372611349585 -17.720798896078932 -1.9943601629935075 0.0 -2.154878490736289 0.0 0 -91 16 -18 zxzxzxzxzxzxzxzxzxzxzxzzxzxzxzxzxzxzxzxzxzxzxzxzxzzxzxzxzxzx ...",
+        "52.61721693255137 115.12138765949662 -88.87262944492413 -1.212796692268203 -0.9802778912973705 0.030388978138619616 0.0 4 52 115 -89 yxyxxy",
+        "38.0 120.0 10.0 1.7963223125138215 0.9701305552446452 0.13686842144814235 1.62 17 38 121 10 YXXYXXYXXYXXYXYXXYXXZYXXY",
+        "-43.46269833712084 96.1584555343356 92.22745323618739 -0.11328891249536072 -0.81123846222115 -0.23581964862145344 0.0 3 -44 96 92 yzyy",
+        "40.9979861321693 105.31727401468095 -88.38678576953461 0.1169053308450529 -0.024418063789436607 1.9996222279098081 0.0 0 40 105 -89 XZZZZZZZZZZZZZZZZZXZZZZZZZZZyZZZZZZZZXZZZZZZZZZZZZZZZZZXZZZZ ...",
+        "-13.927082360165087 59.13696378093027 -89.28726862174305 0.0 0.3902063457047701 0.0 1.62 10 -14 60 -90 YYYYYYYYYY",
+        "-15.465108355200115 30.471953639450604 -87.44870556662967 0.3820572003239831 -0.34497744137616343 -0.33563895027069307 0.0 26 -16 30 -88 XyzXyzXyzXyzXyzXyzXyzXyXzyXzXyzXyzXyzXyzXyzXy",
+        "-86.0 81.0 -84.0 -0.86626235314372 0.0 -1.4354917164269856 0.0 21 -86 81 -84 zxzxzzxzxzzxzzxzxzzxzzxzxzzxz",
+        "43.57255970911655 54.4046596145043 4.073667008583712 1.2875239426172318 0.6836933260352938 -1.6062062222007978 1.62 0 43 56 4 zXzXzYXzzXYzXzXYzXzzXYzXzYXzXzYzXzXzYXzXzYzXzXzYXzXzYzXzXYzX ...",
+        "-78.0953213274429 12.635132667799581 39.07221962334816 0.47877849106566894 1.5792992806773085 -0.8479984508517984 0.0 16 -79 12 39 zXYYzYYXzYYzYXYzYYzXYzYYzYX",
+        "-35.793447170130094 17.359413496908772 -73.04816987760776 -2.3982731327947926 -0.2691647786357233 0.5677555638476042 0.0 7 -36 17 -74 ZxxxyxxZxx",
+        "24.74661436511687 72.60612550052775 -82.61571324049098 1.0 -1.0 1.0 1.62 15 24 74 -83 yXZyXZyXZyXZyXZyXZyXZyXZyXZy",
+        "13.0 4.0 6.0 0.5087172101302927 3.198531799059705 0.5991137514969834 0.0 0 13 4 6 YYYYYZYXYYYYZYYXYYYYZYYXYYYZYYYYXYZYYYYYXYZYYYYYZXYYYYYZYYXY ...",
+        "-40.88766130286419 36.93974797905702 -1.5091190759628432 -0.4731775640640788 1.782364207953313 -0.7165919893762801 0.0 15 -41 36 -2 YxYzYYzYxYYzYxYzYYYzxYYz",
+        "-76.55960613806225 81.26407459676388 9.59028375626319 2.40874122273379 0.0 -0.02683381349434405 1.62 23 -77 82 9 XXXXXXXXXXXXXXXXXXXXXXX",
+        "4.377018191148082 120.00317506618613 41.38387251284621 -0.3169695056218991 0.6346416959025355 -1.0558493702666318 0.0 5 4 120 41 zxzYzYz",
+        "76.9041220063975 79.72011153865432 -48.87145740401277 0.0 1.3185952422331104 0.0 0.0 0 76 79 -49 YYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYY ...",
+        "-67.0 14.0 59.0 1.084471388707324 0.2211659046788773 0.6592884288261928 1.62 21 -67 15 59 XZYXXZXZXXZYXXZXZXXZYXXZXZXXZYXXZ",
+        "-37.5565943930432 111.3402611646616 -36.29679279258431 -0.5122884744241714 -0.7918202646881164 0.2261400893324115 0.0 19 -38 111 -37 yxZyxyyxyZxyyxyZyxyxyyxZyxyyxZyx",
+        "83.74773417764291 76.58074917366565 90.75265023152474 0.05097179567772794 0.16689093555312418 0.16193167370490702 0.0 28 83 76 90 ZYXZYZYZYXZYZYYZXYZYZYZYZXYZYZYZXYZYZYZXYZYZYZ",
+        "42.11895095131504 59.40091047727431 -58.39897528584477 0.4693408666716358 -1.8915128733959112 1.0398376555553495 1.62 0 42 61 -59 yZyyZyXyZyyZyXZyyZyyXZyyZyyZXyyZyZyXyZyyZyXyZyyZyXZyyZyyZXyy ...",
+        "75.26356682954574 88.82781676769196 55.09353845104505 1.3070434365000443 0.0 -1.6250879221330214 0.0 9 75 88 55 zXzzXzXzXzXz",
+        "-25.0 118.0 -7.0 -1.32503741374207 1.1792104270865107 -0.9685963425616131 0.0 14 -25 118 -7 xzxYzxYzxYxzYxzYxYzxYxzY",
+        "-59.33933648416036 103.38749762761418 2.181445659402371 0.29150050085044593 0.5049039783777703 -1.2183395627747655 1.62 33 -60 105 2 zzXzYzzYzXzzYzzYXzzYzzXzYzzYzXzzYzzYzXzYzzzXYzzYz",
+        "25.815735886016682 52.615725505567724 -40.134457182923875 1.0 -1.0 1.0 0.0 0 25 52 -41 ZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXy ...",
+        "-42.094622967283726 114.17854885362732 48.54858204389271 -1.4680692644047466 1.22388685035333 -1.6453378016250613 0.0 5 -43 114 48 zxYzxYzx",
+        "77.44354157335906 113.34043536720962 -91.56202566084804 1.9379299392810436 0.32816091435132466 -1.1998272807222237 1.62 35 77 114 -92 YXzXzXXzXzXYXzXXzXzXXzYXXzXzXXzXYzXXzXXzXzXYXzXzXXzX",
+        "18.0 10.0 25.0 0.0 0.5064903800086942 0.0 0.0 24 18 10 25 YYYYYYYYYYYYYYYYYYYYYYYY",
+        "3.495666230051441 43.036266996924326 -16.219187137952545 2.3694054230074832 0.0 -1.1254476953508505 0.0 0 3 43 -17 XXzXXzXXzXXzXXzXXzXXzXXzXXzXXXzXXzXXzXXzXXzXXzXXzXXzXXzXXXzX ...",
+        "-88.2633149454192 123.55215747322173 -26.821946258625104 0.30462321204859494 0.23134127172138277 0.08046988561995934 1.62 33 -89 125 -27 XYXXYZXYXYXXYZXYXYXXYZXYXYXYXZXYXYXYZXXYXYXZYXXYXYXZY",
+        "-10.87757489420315 98.2947218977628 -18.645689657678346 -0.41795961976319235 2.1211016707550425 -1.7341646426864874 0.0 40 -11 98 -19 zxYzYYzYzYzxYzYYzYzYzYxzYzYYzYzYxzYzYYzYzYxzYzYzYYzYxzYzYzYY ...",
+        "44.303962663980485 93.44316782114588 -0.5292155467712547 0.017180865821926617 0.9722575042380897 0.31405053294676444 0.0 25 44 93 -1 YYZYYYZYYYZYYYZYYYZYYYZYYYZYYYZY",
+        "-22.0 80.0 7.0 -1.1228379038552037 -0.5313902656771899 -2.0829330252454397 1.62 0 -22 81 7 zxzxzyzxzzxzyzxzzxzyzxzxzzyxzzxzzyxzzxzzyxzzxzyxzzxzzxyzzxzz ...",
+        "-50.294892035632266 20.52388263780483 20.748458615660155 0.312710871121916 0.25200128705070535 0.5972807788161293 0.0 20 -51 20 20 ZXYZZXZYZXZYZXZXYZZXZYZXZYZXZZYXZ",
+        "-50.181875803946554 17.421529753763053 -47.400666282384904 0.16438561116910572 0.23782022326628816 2.2784938984632137 0.0 2 -51 17 -48 ZZ",
+        "87.71612119470544 74.35455842461029 64.77102066870043 0.712779280438263 0.0 0.705182035237445 1.62 13 87 75 64 ZXZXZXZXZXXZXZXZXZ",
+        "-10.535589475650525 42.66478268109208 11.936684173580687 -1.7625104127776847 0.6376727316052171 -1.4069220723117473 0.0 0 -11 42 11 xYzxzxxzYxzxzYxzxxzYxzxzxYzxxzxYzxzxzxYxzxzYxzxxzYxzxzxYzxxz ...",
+        "44.0 76.0 79.0 1.0 -1.0 1.0 0.0 9 44 76 79 yXZyXZyXZyXZyXZy",
+        "77.66059324833066 120.30869465513149 -53.71162101987006 0.0 0.5361683137756914 0.0 1.62 7 77 121 -54 YYYYYYY",
+        "23.880331440207385 25.101203925218726 65.79388766681686 -1.4999427753652308 -0.4109709899608451 -0.9094941082158416 0.0 25 23 25 65 yxzxxzxyzxxzxyxzxzxxzyxzxxzxyxzxzxyxzxxz",
+        "27.730506646990435 78.1477974256657 -16.52089153807748 -1.3625500048412316 -0.5178142032131481 -1.397992395424864 0.0 0 27 78 -17 yzxzxzxyzxzxzyxzxzxzyxzxzxyzxzxzyxzxzxzyxzxzxyzxzxzyxzxzxzyx ...",
+        "49.079344777736395 57.167375033719864 29.6526659108045 -1.364536790821681 -0.43470766868801447 0.5546769283134645 1.62 38 49 58 29 xZxxyxZxxyZxxxZyxxZxyxxZxyxZxxZxyxxZxyxZxxyxZxxyZxxxZyxxZxy",
+        "-37.0 48.0 53.0 0.5334860482660113 0.0 -0.8873645589838018 0.0 39 -37 48 53 zzXzzXzXzzXzzXzXzzXzzXzXzzXzzXzXzzXzzXzXzzXzzXzXzzXz",
+        "-68.07980321234129 64.47497607504401 68.54794092049929 0.010776765750880542 1.7422229620402179 0.5283094036773509 0.0 6 -69 64 68 YZYYYYZY",
+        "50.14370829353507 113.08009841810106 -16.50539561384059 -0.3132142585108223 -0.3878259076770515 -0.715372041910612 1.62 0 50 114 -17 xzyzzxyzzxyzzyxzzyxzzyzxyzzxyzzyxzzyzxzyzxzyzxyzzyxzzyzxzyzx ...",
+        "31.141436020736563 30.874420896687937 -85.92839211869506 -0.09638172761224482 1.5937564407155402 -0.26712414888281377 0.0 27 31 30 -86 YzYYxYYYYzYYYYYYzYYYYYYzxYYYYYYzYY",
+        "-67.3820652044617 46.675866431949544 -21.842623665087757 1.2359313489229347 -0.9614081343784393 -0.48527782684415355 0.0 4 -68 46 -22 XzyXyXz",
+        "-27.0 27.0 -44.0 1.405866772964702 -1.271655837064053 1.1070182623466318 1.62 33 -27 28 -44 yXZyXZyXZXyXZyXyZXyZXyZXyXZyXZyXZyXyZXXyZXyZXyZXyXZyXZyXZy",
+        "-34.47360085198929 14.36649939055647 -38.01537499522496 -1.2491860486407298 0.14289255834458472 -0.2881936102017688 0.0 0 -35 14 -39 xxxxzxxYxxxzxxxxzxYxxxzxxxxxzxYxxxzxxxxzxxYxxxzxxxxzxYxxxzxx ...",
+        "38.40446520207931 71.67887331311825 41.38725061938774 0.0 0.2182967316098466 0.0 0.0 36 38 71 41 YYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYY",
+        "-64.76212063035553 53.11468711227789 -86.09018887258432 1.0 -1.0 1.0 1.62 26 -65 54 -87 ZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZy",
+        "-24.158113992268568 122.93291024521953 -47.72585856436 -0.687184476956958 -0.46241428298188747 -0.9744661202890273 0.0 29 -25 122 -48 zxzyzxzxyzzxyzxzzxyzxzyxzzyxzxzyzxzyxzxzyzxzyxz",
+        "-87.0 52.0 -21.0 0.09122860918871917 0.2540273651252322 0.9046586423782127 0.0 0 -87 52 -21 ZZZYZZZZYZZXZYZZZZYZZZYZZXZZYZZZYZZZZYZXZZZYZZZYZZZZYXZZZYZZ ...",
+        "79.46498547734987 63.532095091589454 78.93028618524585 -1.2571439964491653 1.425274304590295 -1.7085299318828746 1.62 4 79 65 78 xzYzxYzxY",
+        "58.30490724288791 110.05987742929851 -11.508869652936738 0.1802224765464958 1.1397619679874436 -0.06041911456694421 0.0 24 58 110 -12 YYYYXYYYYYzYXYYYYYYYXYYYYYYXY",
+        "91.72660879993171 50.34906690199486 38.397854769756634 -1.3346842866458082 0.26700918230116827 0.5871896206178061 0.0 11 91 50 38 xZxxYZxxxZxxZYxxZ",
+        "-42.478270378484396 21.18687188773724 -82.17954769070417 -1.2941337711520717 0.0 1.565686293522665 1.62 0 -43 22 -83 ZxZxZxZZxZxZxZxZxZZxZxZxZxZxZZxZxZxZxZZxZxZxZxZxZZxZxZxZxZxZ ...",
+        "-16.0 126.0 -36.0 -0.5223409911046039 -1.0249294744529558 0.9973466502810291 0.0 3 -16 126 -36 yxyZx",
+        "-6.77024187473998 29.414884293863224 -87.05603201155262 0.3492336440220892 0.47281210877962176 -0.855682281956626 0.0 15 -7 29 -88 zYXzYzzXYzzYXzzYzXzYzXYz",
+        "85.13872825400153 25.2862319336152 57.56355905133347 -0.6471071697631523 0.9995247794334098 -1.1868255520872022 1.62 25 85 26 57 YxzYzxYzzYxzYzxYzYzxYzxzYzYxzYzxYzYzxYzzYxzY",
+        "-92.89582650026342 70.34537969926036 -31.543562673716735 0.0 -0.19929275154616327 0.0 0.0 0 -93 70 -32 yyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyyy ...",
+        "91.80967358591877 63.08023442482697 -25.99340332306639 0.048007613709006976 0.2700619927724163 0.4594364412533249 0.0 14 91 63 -26 ZYXZZYZYZZYZZYZZYZXYZ",
+        "-23.0 44.0 -49.0 -0.4019945406388479 -0.5860231043045822 -0.4088693637598354 1.62 20 -23 45 -49 xzyzxyyzxyzxyyzxyzxyzyxyzxyzyxyzxyzx",
+        "7.163332940687027 86.58235949819478 68.43354904685009 1.095523091816156 0.0 0.584472519198691 0.0 14 7 86 68 XZXXZXZXXZXXZXXZXXZ",
+        "-92.38203583878854 46.181193212505576 33.67013428864905 0.4388884013677934 -0.9890627655907644 -1.4804929999441063 0.0 0 -93 46 33 yzXzyzyzXzyzyzzyXzyzzyXzyzzyzXyzzyzXyzzyzyXzzyzyzXzyzyzXzyzy ...",
+        "-14.326669648836017 40.08413170679307 -39.60247650153268 0.29754401779206735 -0.059446358623161735 0.4273944248419976 1.62 28 -15 41 -40 XZZXZXZZXyZXZZXZXZXZZXyZXZZXZXZZXZXyZXZZXZX",
+        "-75.96539967454086 92.98711487153193 81.09497662856035 0.6508052607376428 0.5862470697394444 -1.537402299131224 0.0 2 -76 92 81 Yzz",
+        "-44.0 39.0 14.0 -0.21598249929577074 0.2568120968965806 -0.22959286018192326 0.0 32 -44 39 14 xzYzxYzxYzxYzxYzxYzYxzYxzYxYzxYzxYzYxzYxzYxzYxzYxzYYzxYzx",
+        "-17.17244194414502 75.48070225851865 -59.11781118661723 -0.21857872526374283 -0.4310542835349928 -0.14326782108301062 1.62 0 -18 77 -60 yyxyzyxyyxzyyxyzyxyyxzyyxyzyxyyxzyyxyzyxyyxzyyxyzyxyyxzyyxyz ...",
+        "85.1543063715971 3.9637771034979465 58.19245697677792 -1.2985487119188814 -0.07914297055150839 -1.0662508181786432 0.0 7 85 3 58 xzxzxzxzxz",
+        "-9.7976439192567 50.85203857455943 -44.730601536312875 0.35532671079597744 0.0 -0.8423202527086635 0.0 26 -10 50 -45 zzXzzXzzzXzzXzzzXzzXzzXzzzXzzXzzXz",
+        "82.56830381694226 25.504483579844887 73.630515821888 0.0 0.07605290604870513 0.0 1.62 18 82 27 73 YYYYYYYYYYYYYYYYYY",
+        "-32.0 77.0 -78.0 -0.15309704443849098 -0.9872881846231409 1.5930932832255 0.0 0 -32 77 -78 yxZyZZyZyZZyZZyZyZxZyZyZZyZZyZyZZyZxyZZyZZyZyZZyZZyZyZxZyZyZ ...",
+        "64.47819100682358 58.50354497309414 93.6143218503257 -0.1403012247144297 -0.39040977480070915 -0.8221898464993294 0.0 14 64 58 93 zyzzxyzzyzzyzzxyzzyz",
+        "-96.04712456718438 123.32115516618744 -4.986682917164018 1.066135338875262 -1.7094971507182641 -1.3520545245883009 1.62 32 -97 124 -5 zXyzXyzyXzyXyzyzXyzyXzyXyzyXzyzXyzyXyzyXzyXzyyzXyzXyzyXzy",
+        "47.203467666991116 103.57339304116803 12.549496132991862 0.3164963389540034 0.10813647939014971 -1.02573051795453 0.0 11 47 103 12 zzzXzYzzXzzzXz",
+        "-24.32634302116341 5.099608277833411 30.839951838669492 1.0 -1.0 1.0 0.0 0 -25 5 30 yZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZXyZX ...",
+        "19.0 91.0 67.0 0.05026309094440302 0.0 0.9746107933954576 1.62 14 19 92 67 ZZZZZZZZZZZZZZ",
+        "-77.74333102289998 112.20320135087704 32.74947900207496 -0.884388701993706 0.7468378135211119 -1.2796818944111281 0.0 23 -78 112 32 xzYzxzYxzxzYzxYzxzYzxzYxzYzxzYxzzxYzxzYx",
+        "-91.60474563664056 73.98177876557592 -9.318880266159212 0.9606608398595594 -0.06315934856045388 0.36489229229640063 0.0 30 -92 73 -10 XZXXZXXXZXXXZXXZXXXZXyXXZXXZXXXZXXZXXXZX",
+        "71.3633520137669 32.270019169413516 15.56544922418965 1.1543369910365273 1.9225985722693648 -0.00575449510397564 1.62 0 71 33 15 YXYYXYYXYXYYXYYXYXYYXYYXYXYYXYYXYXYYXYYXYXYYXYYXYXYYXYYXYXYY ...",
+        "-92.58805092750362 24.76790812392123 58.32856245756446 -1.4670080412391644 -2.015460083621774 1.3467748908816144 0.0 22 -93 24 58 xyZyxZyxyZxyZyxyZxyZyxyZxyZxyyxZyxZyxyZ",
+        "-81.0 67.0 -82.0 0.0 -2.273765300963187 0.0 0.0 30 -81 67 -82 yyyyyyyyyyyyyyyyyyyyyyyyyyyyyy",
+        "21.685570210979947 30.05054249180064 -58.8694332505241 1.040326818598101 0.10077722050676753 0.4595974946452083 1.62 25 21 31 -59 XXZXXYZXXXZXXZXXZXXZXYXXZXXZXXZXXXZ",
+        "15.42235561529506 22.101871700789403 -23.710076660577812 0.2228221288360294 0.0 -1.0833706746259926 0.0 0 15 22 -24 zzzXzzzzzXzzzzzXzzzzzXzzzzXzzzzzXzzzzzXzzzzzXzzzzzXzzzzzXzzz ...",
+        "-66.09937046416809 41.24271116822733 86.0080831790664 1.1957843454555757 0.06456446280471104 1.0607261656647018 0.0 23 -67 41 86 XXZXZXZXZXZXZXZXZXXZXZXZXZYXZXZXZ",
+        "-41.23692713812539 97.17078229334213 7.991538720246922 0.09063850722156626 -0.5016474777119513 1.0739638346067617 1.62 10 -42 98 7 ZZyZXZyZZyZZZy",
+        "79.0 113.0 23.0 0.5761027570055294 1.2345033235869354 0.39454001332944877 0.0 4 79 113 23 YYXYZ",
+        "-64.98372702162025 38.525266081901705 57.51871960749156 -0.5382644302153387 1.5158590579836955 0.16055458333472555 0.0 0 -65 38 57 xYYYxYYZYxYYYxYYxYYYZxYYYxYYYxYYYxZYYxYYYxYYYxYYZYxYYYxYYxYY ...",
+        "-84.18661931088883 44.45158771348369 8.616110866229903 1.0 -1.0 1.0 1.62 31 -85 46 8 yXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZyXZy",
+        "-82.0647445683907 47.818839179255605 96.74932762033853 -1.7248510150346466 -0.04417501904702173 0.8540024831575695 0.0 10 -83 47 96 ZxxZxxZxxZxxZx",
+        "57.01024181705523 38.51047552330938 -78.66647004886156 -1.233860819967518 0.0 0.15438811298785657 0.0 32 57 38 -79 xxxxxxZxxxxxxxxZxxxxxxxxZxxxxxxxxZxx"
+    };
+
+    @Test
+    public void testMatchesRecordedBlockIterator() {
+        BlockRaytracer raytracer = new BlockRaytracer();
+
+        for (String ray : RAYS) {
+            assertMatches(raytracer, ray);
+        }
+    }
+
+    @Test
+    public void testTrace() {
+        final HashSet<Integer> solid = new HashSet<Integer>();
+        solid.add(10 << 16 | 64 << 8 | 3);
+        BlockTypeAccessor blocks = new BlockTypeAccessor() {
+            public int getTypeId(int x, int y, int z) {
+                if (y < 0 || y >= 256) {
+                    return -1;
+                }
+                return solid.contains(x << 16 | y << 8 | z) ? 1 : y == 60 ? 20 : 0;
+            }
+        };
+
+        BlockRaytracer raytracer = new BlockRaytracer();
+        assertTrue(raytracer.trace(blocks, 0.5, 64.5, 3.5, 1, 0, 0, 50));
+        assertEquals(10, raytracer.getBlockX());
+        assertEquals(64, raytracer.getBlockY());
+        assertEquals(3, raytracer.getBlockZ());
+        assertEquals(BlockFace.NORTH, raytracer.getFace());
+        assertEquals(9.5, raytracer.getDistance(), 1e-9);
+        assertEquals(1, raytracer.getTypeId());
+
+        assertFalse(raytracer.trace(blocks, 0.5, 64.5, 3.5, 1, 0, 0, 5));
+        assertEquals(-1, raytracer.getTypeId());
+
+        // Glass below is hit unless it is transparent
+        assertTrue(raytracer.trace(blocks, 0.5, 64.5, 0.5, 0, -2, 0, 50));
+        assertEquals(60, raytracer.getBlockY());
+        assertEquals(BlockFace.UP, raytracer.getFace());
+        assertEquals(3.5, raytracer.getDistance(), 1e-9);
+
+        HashSet<Byte> transparent = new HashSet<Byte>();
+        transparent.add((byte) 0);
+        transparent.add((byte) 20);
+        raytracer = new BlockRaytracer(BlockRaytracer.getTransparency(transparent));
+        assertFalse(raytracer.trace(blocks, 0.5, 64.5, 0.5, 0, -1, 0, 500));
+    }
+}
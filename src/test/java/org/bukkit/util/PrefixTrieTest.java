@@ -0,0 +1,108 @@
+package org.bukkit.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PrefixTrieTest {
+    private PrefixTrie<String> makeTrie(String... keys) {
+        PrefixTrie<String> trie = new PrefixTrie<String>();
+        for (String key : keys) {
+            trie.put(key, key.toUpperCase());
+        }
+        return trie;
+    }
+
+    @Test
+    public void testGetAndPut() {
+        PrefixTrie<String> trie = makeTrie("help", "helpop", "ban", "ban-ip");
+
+        assertEquals(4, trie.size());
+        assertEquals("HELP", trie.get("help"));
+        assertEquals("BAN-IP", trie.get("ban-ip"));
+        assertNull(trie.get("hel"));
+        assertNull(trie.get("helpo"));
+        assertNull(trie.get("kick"));
+
+        assertEquals("HELP", trie.put("help", "other"));
+        assertEquals(4, trie.size());
+        assertEquals("other", trie.get("help"));
+    }
+
+    @Test
+    public void testPrefixQueries() {
+        PrefixTrie<String> trie = makeTrie("whitelist", "help", "helpop", "ban", "ban-ip", "banlist");
+
+        assertEquals(Arrays.asList("ban", "ban-ip", "banlist"), trie.getKeysWithPrefix("ba"));
+        assertEquals(Arrays.asList("help", "helpop"), trie.getKeysWithPrefix("help"));
+        assertEquals(6, trie.getKeysWithPrefix("").size());
+        assertTrue(trie.getKeysWithPrefix("x").isEmpty());
+
+        assertEquals(3, trie.countPrefix("b"));
+        assertEquals(0, trie.countPrefix("banned"));
+
+        List<String> values = trie.getValuesWithPrefix("help", new ArrayList<String>());
+        assertEquals(Arrays.asList("HELP", "HELPOP"), values);
+    }
+
+    @Test
+    public void testOnlyMatch() {
+        PrefixTrie<String> trie = makeTrie("help", "helpop", "whitelist");
+
+        assertEquals("WHITELIST", trie.getOnlyMatch("w"));
+        assertEquals("HELPOP", trie.getOnlyMatch("helpo"));
+        assertNull(trie.getOnlyMatch("help"));
+        assertNull(trie.getOnlyMatch("x"));
+    }
+
+    @Test
+    public void testShortestMatch() {
+        PrefixTrie<String> trie = makeTrie("helpop", "help", "helper", "helps", "whitelist");
+
+        assertEquals("HELP", trie.getShortestMatch(""));
+        assertEquals("HELP", trie.getShortestMatch("hel"));
+        assertEquals("HELPER", trie.getShortestMatch("helpe"));
+        assertEquals("HELPOP", trie.getShortestMatch("helpo"));
+        assertNull(trie.getShortestMatch("x"));
+
+        trie.remove("help");
+        assertEquals("HELPS", trie.getShortestMatch("help"));
+    }
+
+    @Test
+    public void testIgnoreCase() {
+        PrefixTrie<String> trie = new PrefixTrie<String>(true);
+        trie.put("Notch", "a");
+        trie.put("NotJeb", "b");
+
+        assertEquals("a", trie.get("notch"));
+        assertEquals("a", trie.put("NOTCH", "c"));
+        assertEquals(2, trie.countPrefix("nOt"));
+        assertEquals(Arrays.asList("NOTCH", "NotJeb"), trie.getKeysWithPrefix("NOT"));
+        assertEquals("c", trie.remove("notch"));
+        assertNull(trie.get("Notch"));
+    }
+
+    @Test
+    public void testRemove() {
+        PrefixTrie<String> trie = makeTrie("help", "helpop", "ban");
+
+        assertNull(trie.remove("hel"));
+        assertEquals("HELPOP", trie.remove("helpop"));
+        assertNull(trie.remove("helpop"));
+        assertEquals(2, trie.size());
+        assertEquals("HELP", trie.getOnlyMatch("he"));
+
+        assertEquals("HELP", trie.remove("help"));
+        assertEquals(0, trie.countPrefix("h"));
+        assertEquals(Arrays.asList("ban"), trie.getKeysWithPrefix(""));
+
+        trie.clear();
+        assertTrue(trie.isEmpty());
+        assertNull(trie.get("ban"));
+    }
+}
@@ -0,0 +1,74 @@
+package org.bukkit.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.bukkit.Location;
+import org.junit.Test;
+
+public class VectorBufferTest {
+
+    @Test
+    public void testMatchesVector() {
+        Random random = new Random(3);
+        VectorBuffer positions = new VectorBuffer(0);
+        VectorBuffer velocities = new VectorBuffer(0);
+        Vector[] expected = new Vector[100];
+
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = new Vector(random.nextDouble(), random.nextDouble(), random.nextDouble()).multiply(random.nextInt(100));
+            Vector velocity = new Vector(random.nextDouble(), random.nextDouble(), random.nextDouble());
+
+            assertEquals(i, positions.add(expected[i]));
+            velocities.add(velocity);
+            expected[i].add(velocity.clone().multiply(0.5)).multiply(2.0).normalize();
+        }
+
+        positions.addScaled(velocities, 0.5).multiply(2.0).normalize();
+
+        Vector point = new Vector(1, 2, 3);
+        double[] distances = positions.distanceSquared(point, new double[positions.size()]);
+        double[] products = positions.dot(point, new double[positions.size()]);
+        Vector result = new Vector();
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], positions.get(i, result));
+            assertEquals(expected[i].distanceSquared(point), distances[i], 1e-9);
+            assertEquals(expected[i].dot(point), products[i], 1e-9);
+        }
+
+        positions.removeSwap(0);
+        assertEquals(99, positions.size());
+        assertEquals(expected[99], positions.get(0, result));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexBounds() {
+        VectorBuffer buffer = new VectorBuffer(4);
+        buffer.add(1, 2, 3);
+        buffer.translate(1, 1, 1);
+        assertEquals(4, buffer.getZ(0), 0);
+        buffer.getX(1);
+    }
+
+    @Test
+    public void testDestinationVariants() {
+        Vector a = new Vector(1, 2, 3);
+        Vector b = new Vector(-4, 5, 0.5);
+        Vector dst = new Vector();
+
+        assertSame(dst, a.crossProduct(b, dst));
+        assertEquals(a.clone().crossProduct(b), dst);
+        assertEquals(new Vector(1, 2, 3), a);
+        assertEquals(a.clone().crossProduct(b), a.crossProduct(b, a));
+
+        assertEquals(a.getMidpoint(b), a.getMidpoint(b, dst));
+        assertEquals(Vector.getMinimum(a, b), Vector.getMinimum(a, b, dst));
+        assertEquals(Vector.getMaximum(a, b), Vector.getMaximum(a, b, dst));
+
+        Location location = new Location(null, 4, 5, 6, 37, -12);
+        assertEquals(location.getDirection(), location.getDirection(dst));
+        assertEquals(location.toVector(), location.toVector(dst));
+    }
+}
@@ -0,0 +1,110 @@
+package org.bukkit.util.noise;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class NoiseBulkTest {
+    private static final double[][] GRIDS = {
+        // x, y, z, stepX, stepY, stepZ
+        {0, 0, 0, 1, 1, 1},
+        {-37.5, 12.25, -3, 0.3, 0.7, 1.9},
+        {1234567, -98765, 4321, 4, 8, 4},
+    };
+
+    private static void assertSame(String message, double expected, double actual) {
+        assertEquals(message, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+    }
+
+    private void check2D(NoiseGenerator generator) {
+        for (double[] grid : GRIDS) {
+            double[] buffer = generator.fillNoise(new double[5 * 7], grid[0], grid[1], 5, 7, grid[3], grid[4]);
+
+            for (int i = 0; i < 5; i++) {
+                for (int j = 0; j < 7; j++) {
+                    assertSame(i + "," + j, generator.noise(grid[0] + i * grid[3], grid[1] + j * grid[4]), buffer[i * 7 + j]);
+                }
+            }
+        }
+    }
+
+    private void check3D(NoiseGenerator generator) {
+        for (double[] grid : GRIDS) {
+            double[] buffer = generator.fillNoise(new double[4 * 9 * 3], grid[0], grid[1], grid[2], 4, 9, 3, grid[3], grid[4], grid[5]);
+
+            for (int i = 0; i < 4; i++) {
+                for (int j = 0; j < 9; j++) {
+                    for (int k = 0; k < 3; k++) {
+                        double expected = generator.noise(grid[0] + i * grid[3], grid[1] + j * grid[4], grid[2] + k * grid[5]);
+                        assertSame(i + "," + j + "," + k, expected, buffer[(i * 3 + k) * 9 + j]);
+                    }
+                }
+            }
+        }
+    }
+
+    private void checkOctaves(OctaveGenerator generator, boolean normalized) {
+        for (double[] grid : GRIDS) {
+            double[] flat = generator.fillNoise(new double[6 * 5], grid[0], grid[1], 6, 5, grid[3], grid[4], 2, 0.5, normalized);
+            double[] buffer = generator.fillNoise(new double[6 * 5 * 4], grid[0], grid[1], grid[2], 6, 5, 4, grid[3], grid[4], grid[5], 2, 0.5, normalized);
+
+            for (int i = 0; i < 6; i++) {
+                for (int j = 0; j < 5; j++) {
+                    double expected = generator.noise(grid[0] + i * grid[3], grid[1] + j * grid[4], 2, 0.5, normalized);
+                    assertSame(i + "," + j, expected, flat[i * 5 + j]);
+
+                    for (int k = 0; k < 4; k++) {
+                        expected = generator.noise(grid[0] + i * grid[3], grid[1] + j * grid[4], grid[2] + k * grid[5], 2, 0.5, normalized);
+                        assertSame(i + "," + j + "," + k, expected, buffer[(i * 4 + k) * 5 + j]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPerlinMatchesScalar() {
+        check2D(new PerlinNoiseGenerator(42));
+        check3D(new PerlinNoiseGenerator(42));
+        check2D(PerlinNoiseGenerator.getInstance());
+        check3D(PerlinNoiseGenerator.getInstance());
+    }
+
+    @Test
+    public void testSimplexMatchesScalar() {
+        check2D(new SimplexNoiseGenerator(42));
+        check3D(new SimplexNoiseGenerator(42));
+    }
+
+    @Test
+    public void testOctavesMatchScalar() {
+        PerlinOctaveGenerator perlin = new PerlinOctaveGenerator(new Random(7), 4);
+        perlin.setXScale(0.05);
+        perlin.setYScale(1 / 3.0);
+        perlin.setZScale(0.125);
+        checkOctaves(perlin, false);
+        checkOctaves(perlin, true);
+
+        SimplexOctaveGenerator simplex = new SimplexOctaveGenerator(new Random(7), 3);
+        simplex.setScale(1 / 64.0);
+        checkOctaves(simplex, false);
+        checkOctaves(simplex, true);
+    }
+
+    @Test
+    public void testBufferIsValidated() {
+        try {
+            new PerlinNoiseGenerator(1).fillNoise(new double[10], 0, 0, 4, 4, 1, 1);
+            fail("Expected a too small buffer to be rejected");
+        } catch (IllegalArgumentException ex) {
+        }
+
+        try {
+            new PerlinOctaveGenerator(new Random(1), 2).fillNoise(null, 0, 0, 0, 1, 1, 1, 1, 1, 1, 2, 0.5, false);
+            fail("Expected a null buffer to be rejected");
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.bukkit.util.noise;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PermutationTableTest {
+    private static void assertSameNoise(NoiseGenerator expected, NoiseGenerator actual) {
+        assertArrayEquals(expected.perm, actual.perm);
+        for (int i = 0; i < 20; i++) {
+            double x = i * 3.7 - 20;
+            assertEquals(Double.doubleToRawLongBits(expected.noise(x, x * 0.5, -x)), Double.doubleToRawLongBits(actual.noise(x, x * 0.5, -x)));
+        }
+    }
+
+    @Test
+    public void testSeededGeneratorsMatchRandom() {
+        assertSameNoise(new PerlinNoiseGenerator(new Random(99)), new PerlinNoiseGenerator(99));
+
+        SimplexNoiseGenerator fromRandom = new SimplexNoiseGenerator(new Random(99));
+        double offsetW = SimplexNoiseGenerator.offsetW;
+        SimplexNoiseGenerator fromSeed = new SimplexNoiseGenerator(99);
+        assertEquals(offsetW, SimplexNoiseGenerator.offsetW, 0);
+        assertSameNoise(fromRandom, fromSeed);
+    }
+
+    @Test
+    public void testSeededOctavesMatchRandom() {
+        NoiseGenerator[] expected = new PerlinOctaveGenerator(new Random(5), 6).getOctaves();
+        NoiseGenerator[] actual = new PerlinOctaveGenerator(5, 6).getOctaves();
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertSameNoise(expected[i], actual[i]);
+        }
+
+        expected = new SimplexOctaveGenerator(new Random(5), 3).getOctaves();
+        actual = new SimplexOctaveGenerator(5, 3).getOctaves();
+        for (int i = 0; i < expected.length; i++) {
+            assertSameNoise(expected[i], actual[i]);
+        }
+    }
+
+    @Test
+    public void testTablesAreShared() {
+        assertSame(PermutationTable.get(1234, 4, false), PermutationTable.get(1234, 4, false));
+        assertNotSame(PermutationTable.get(1234, 4, false), PermutationTable.get(1234, 4, true));
+
+        // Generators get their own copy, so changing one does not affect the others
+        PerlinNoiseGenerator first = new PerlinNoiseGenerator(1234);
+        PerlinNoiseGenerator second = new PerlinNoiseGenerator(1234);
+        first.perm[0]++;
+        assertEquals(first.perm[0] - 1, second.perm[0]);
+    }
+}